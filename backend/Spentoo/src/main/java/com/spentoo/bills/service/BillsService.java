@@ -8,6 +8,7 @@ import com.spentoo.bills.model.Bills;
 import com.spentoo.bills.model.BillsParticipant;
 import com.spentoo.bills.repository.BillsParticipantRepository;
 import com.spentoo.bills.repository.BillsRepository;
+import com.spentoo.sync.service.DataVersionService;
 import com.spentoo.user.model.User;
 import com.spentoo.user.repository.UserRepository;
 import org.springframework.stereotype.Service;
@@ -27,15 +28,18 @@ public class BillsService {
     private final BillsRepository billsRepository;
     private final BillsParticipantRepository billsParticipantRepository;
     private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
     
     @PersistenceContext
     private EntityManager entityManager;
 
     public BillsService(BillsRepository billsRepository, BillsParticipantRepository billsParticipantRepository,
-                        UserRepository userRepository) {
+                        UserRepository userRepository,
+                        DataVersionService dataVersionService) {
         this.billsRepository = billsRepository;
         this.billsParticipantRepository = billsParticipantRepository;
         this.userRepository = userRepository;
+        this.dataVersionService = dataVersionService;
     }
 
     @Transactional
@@ -122,6 +126,7 @@ public class BillsService {
                     .collect(Collectors.toList());
             result.setParticipants(participantDTOs);
         }
+        dataVersionService.bump(userEmail);
         return result;
     }
 
@@ -240,6 +245,7 @@ public class BillsService {
         Bills billWithParticipants = billsRepository.findByIdAndUser(updatedBill.getBillsId(), user)
                 .orElseThrow(() -> new IllegalStateException("Bill not found after update."));
 
+        dataVersionService.bump(userEmail);
         // 6. Convert to DTO and return - use reloaded bill with participants
         return convertToDTO(billWithParticipants);
     }
@@ -253,6 +259,7 @@ public class BillsService {
                 .orElseThrow(() -> new IllegalStateException("Bill not found or access denied."));
 
         billsRepository.delete(bill); // Hard delete
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional(readOnly = true)
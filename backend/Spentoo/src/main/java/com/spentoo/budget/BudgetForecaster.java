@@ -0,0 +1,114 @@
+package com.spentoo.budget;
+
+import com.spentoo.budget.dto.BudgetForecastDTO;
+import com.spentoo.budget.dto.BudgetProjectionDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Projects end-of-period budget spend from daily spend totals.
+ * Two velocity models are computed: the linear average over the elapsed days, and a recent-window average in which
+ * the weight of a day falls linearly with its age, so a change in spending habits shows up within days.
+ * Stateless apart from its configuration, so one instance is shared by all requests.
+ */
+public class BudgetForecaster {
+
+    private static final int RATE_SCALE = 4;
+    private static final int MONEY_SCALE = 2;
+
+    private final int recentWindowDays;
+
+    public BudgetForecaster(int recentWindowDays) {
+        this.recentWindowDays = Math.max(1, recentWindowDays);
+    }
+
+    /**
+     * Forecasts one budget.
+     * @param budgetId The budget ID.
+     * @param amount The budget amount.
+     * @param startDate The first day of the period.
+     * @param endDate The last day of the period.
+     * @param dailySpend Spend per day inside the period; days without spending may be absent.
+     * @param today Today's date.
+     * @return The forecast.
+     */
+    public BudgetForecastDTO forecast(Integer budgetId, BigDecimal amount, LocalDate startDate, LocalDate endDate,
+                                      Map<LocalDate, BigDecimal> dailySpend, LocalDate today) {
+        NavigableMap<LocalDate, BigDecimal> days = new TreeMap<>(dailySpend);
+        LocalDate asOfDate = today.isAfter(endDate) ? endDate : today;
+        int totalDays = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        int elapsedDays = asOfDate.isBefore(startDate) ? 0 : (int) ChronoUnit.DAYS.between(startDate, asOfDate) + 1;
+        int remainingDays = totalDays - elapsedDays;
+
+        BigDecimal spentToDate = sum(days.headMap(asOfDate, true));
+        BigDecimal scheduledSpend = sum(days.tailMap(asOfDate, false));
+
+        BigDecimal linearRate = elapsedDays == 0 ? BigDecimal.ZERO
+                : spentToDate.divide(BigDecimal.valueOf(elapsedDays), RATE_SCALE, RoundingMode.HALF_UP);
+        BigDecimal weightedRate = elapsedDays == 0 ? BigDecimal.ZERO : weightedRate(days, asOfDate, elapsedDays);
+
+        BudgetForecastDTO dto = new BudgetForecastDTO();
+        dto.setBudgetId(budgetId);
+        dto.setAmount(amount);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        dto.setAsOfDate(asOfDate);
+        dto.setElapsedDays(elapsedDays);
+        dto.setTotalDays(totalDays);
+        dto.setSpentToDate(spentToDate);
+        dto.setScheduledSpend(scheduledSpend);
+        dto.setLinear(project(linearRate, amount, days, asOfDate, endDate, remainingDays));
+        dto.setRecentWeighted(project(weightedRate, amount, days, asOfDate, endDate, remainingDays));
+        return dto;
+    }
+
+    // Weights the last recentWindowDays days (capped at the elapsed days) from n for today down to 1; empty days count as zero
+    private BigDecimal weightedRate(NavigableMap<LocalDate, BigDecimal> days, LocalDate asOfDate, int elapsedDays) {
+        int window = Math.min(recentWindowDays, elapsedDays);
+        BigDecimal weightedSum = BigDecimal.ZERO;
+        for (int age = 0; age < window; age++) {
+            BigDecimal spend = days.getOrDefault(asOfDate.minusDays(age), BigDecimal.ZERO);
+            weightedSum = weightedSum.add(spend.multiply(BigDecimal.valueOf(window - age)));
+        }
+        long totalWeight = (long) window * (window + 1) / 2;
+        return weightedSum.divide(BigDecimal.valueOf(totalWeight), RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private BudgetProjectionDTO project(BigDecimal dailyRate, BigDecimal amount, NavigableMap<LocalDate, BigDecimal> days,
+                                        LocalDate asOfDate, LocalDate endDate, int remainingDays) {
+        // Booked spend (including expenses already dated in the future) plus the rate over the days without bookings yet
+        BigDecimal projectedSpend = sum(days).add(dailyRate.multiply(BigDecimal.valueOf(remainingDays)))
+                .setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+        return new BudgetProjectionDTO(dailyRate.setScale(MONEY_SCALE, RoundingMode.HALF_UP), projectedSpend,
+                amount.subtract(projectedSpend), overrunDate(dailyRate, amount, days, asOfDate, endDate));
+    }
+
+    // Walks the period day by day, adding booked spend and, after asOfDate, the projected rate
+    private LocalDate overrunDate(BigDecimal dailyRate, BigDecimal amount, NavigableMap<LocalDate, BigDecimal> days,
+                                  LocalDate asOfDate, LocalDate endDate) {
+        BigDecimal cumulative = BigDecimal.ZERO;
+        for (Map.Entry<LocalDate, BigDecimal> day : days.headMap(asOfDate, true).entrySet()) {
+            cumulative = cumulative.add(day.getValue());
+            if (cumulative.compareTo(amount) > 0) {
+                return day.getKey();
+            }
+        }
+        for (LocalDate date = asOfDate.plusDays(1); !date.isAfter(endDate); date = date.plusDays(1)) {
+            cumulative = cumulative.add(dailyRate).add(days.getOrDefault(date, BigDecimal.ZERO));
+            if (cumulative.compareTo(amount) > 0) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal sum(Map<LocalDate, BigDecimal> days) {
+        return days.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,118 @@
+package com.spentoo.budget;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval tree over the date ranges of one user's budgets for one category.
+ * Periods are sorted by start date and laid out as an implicit balanced tree over the sorted array, each node
+ * carrying the latest end date of its subtree, so an overlap query costs O(log n + k) for k matches.
+ * Safe for concurrent reads; a change to the budgets builds a new tree.
+ */
+public class BudgetIntervalTree {
+
+    private final Integer[] budgetIds;
+    private final LocalDate[] startDates;
+    private final LocalDate[] endDates;
+    private final LocalDate[] maxEndDates;
+
+    public BudgetIntervalTree(List<Period> periods) {
+        List<Period> sorted = new ArrayList<>(periods);
+        sorted.sort(Comparator.comparing(Period::getStartDate));
+        int size = sorted.size();
+        budgetIds = new Integer[size];
+        startDates = new LocalDate[size];
+        endDates = new LocalDate[size];
+        maxEndDates = new LocalDate[size];
+        for (int i = 0; i < size; i++) {
+            budgetIds[i] = sorted.get(i).getBudgetId();
+            startDates[i] = sorted.get(i).getStartDate();
+            endDates[i] = sorted.get(i).getEndDate();
+        }
+        computeMaxEnd(0, size - 1);
+    }
+
+    /**
+     * Finds the budgets whose period overlaps a date range (both ends inclusive).
+     * @param fromDate The range start.
+     * @param toDate The range end.
+     * @return The IDs of the overlapping budgets, ordered by start date.
+     */
+    public List<Integer> findOverlapping(LocalDate fromDate, LocalDate toDate) {
+        List<Integer> result = new ArrayList<>();
+        collect(0, budgetIds.length - 1, fromDate, toDate, result);
+        return result;
+    }
+
+    public int size() {
+        return budgetIds.length;
+    }
+
+    // The node of a subtree [lo, hi] is its middle element; fills maxEndDates bottom-up and returns the subtree maximum
+    private LocalDate computeMaxEnd(int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        LocalDate max = endDates[mid];
+        LocalDate left = computeMaxEnd(lo, mid - 1);
+        LocalDate right = computeMaxEnd(mid + 1, hi);
+        if (left != null && left.isAfter(max)) {
+            max = left;
+        }
+        if (right != null && right.isAfter(max)) {
+            max = right;
+        }
+        maxEndDates[mid] = max;
+        return max;
+    }
+
+    private void collect(int lo, int hi, LocalDate fromDate, LocalDate toDate, List<Integer> result) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        // Nothing in this subtree ends on or after the range start
+        if (maxEndDates[mid].isBefore(fromDate)) {
+            return;
+        }
+        collect(lo, mid - 1, fromDate, toDate, result);
+        // Everything from here to the right starts after the range end
+        if (startDates[mid].isAfter(toDate)) {
+            return;
+        }
+        if (!endDates[mid].isBefore(fromDate)) {
+            result.add(budgetIds[mid]);
+        }
+        collect(mid + 1, hi, fromDate, toDate, result);
+    }
+
+    /**
+     * The date range of one budget.
+     */
+    public static final class Period {
+        private final Integer budgetId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        public Period(Integer budgetId, LocalDate startDate, LocalDate endDate) {
+            this.budgetId = budgetId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        public Integer getBudgetId() {
+            return budgetId;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+    }
+}
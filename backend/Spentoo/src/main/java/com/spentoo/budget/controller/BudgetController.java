@@ -1,8 +1,10 @@
 package com.spentoo.budget.controller;
 
 import com.spentoo.budget.dto.BudgetDTO;
+import com.spentoo.budget.dto.BudgetForecastDTO;
 import com.spentoo.budget.dto.CreateBudgetRequestDTO;
 import com.spentoo.budget.dto.UpdateBudgetRequestDTO;
+import com.spentoo.budget.service.BudgetForecastService;
 import com.spentoo.budget.service.BudgetService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -17,9 +19,11 @@ import java.util.List;
 public class BudgetController {
 
     private final BudgetService budgetService;
+    private final BudgetForecastService budgetForecastService;
 
-    public BudgetController(BudgetService budgetService) {
+    public BudgetController(BudgetService budgetService, BudgetForecastService budgetForecastService) {
         this.budgetService = budgetService;
+        this.budgetForecastService = budgetForecastService;
     }
 
     @PostMapping
@@ -47,6 +51,14 @@ public class BudgetController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @PostMapping("/{id}/recalculate")
+    public ResponseEntity<BudgetDTO> recalculateBudget(
+            @PathVariable("id") Integer id,
+            @AuthenticationPrincipal String userEmail) {
+        BudgetDTO budget = budgetService.recalculateBudget(id, userEmail);
+        return new ResponseEntity<>(budget, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BudgetDTO> getSingleBudget(
             @PathVariable("id") Integer id,
@@ -61,4 +73,19 @@ public class BudgetController {
         List<BudgetDTO> budgets = budgetService.getAllBudgets(userEmail);
         return new ResponseEntity<>(budgets, HttpStatus.OK);
     }
+
+    @GetMapping("/{id}/forecast")
+    public ResponseEntity<BudgetForecastDTO> getBudgetForecast(
+            @PathVariable("id") Integer id,
+            @AuthenticationPrincipal String userEmail) {
+        BudgetForecastDTO forecast = budgetForecastService.getBudgetForecast(id, userEmail);
+        return new ResponseEntity<>(forecast, HttpStatus.OK);
+    }
+
+    @GetMapping("/forecast")
+    public ResponseEntity<List<BudgetForecastDTO>> getAllBudgetForecasts(
+            @AuthenticationPrincipal String userEmail) {
+        List<BudgetForecastDTO> forecasts = budgetForecastService.getAllBudgetForecasts(userEmail);
+        return new ResponseEntity<>(forecasts, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,64 @@
+package com.spentoo.budget.controller;
+
+import com.spentoo.budget.dto.BudgetTemplateDTO;
+import com.spentoo.budget.dto.CreateBudgetTemplateRequestDTO;
+import com.spentoo.budget.dto.UpdateBudgetTemplateRequestDTO;
+import com.spentoo.budget.service.BudgetTemplateService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/budgets/templates")
+public class BudgetTemplateController {
+
+    private final BudgetTemplateService budgetTemplateService;
+
+    public BudgetTemplateController(BudgetTemplateService budgetTemplateService) {
+        this.budgetTemplateService = budgetTemplateService;
+    }
+
+    @PostMapping
+    public ResponseEntity<BudgetTemplateDTO> createTemplate(
+            @Valid @RequestBody CreateBudgetTemplateRequestDTO requestDTO,
+            @AuthenticationPrincipal String userEmail) {
+        BudgetTemplateDTO newTemplate = budgetTemplateService.createTemplate(requestDTO, userEmail);
+        return new ResponseEntity<>(newTemplate, HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<BudgetTemplateDTO> updateTemplate(
+            @PathVariable("id") Integer id,
+            @Valid @RequestBody UpdateBudgetTemplateRequestDTO requestDTO,
+            @AuthenticationPrincipal String userEmail) {
+        BudgetTemplateDTO updatedTemplate = budgetTemplateService.updateTemplate(id, requestDTO, userEmail);
+        return new ResponseEntity<>(updatedTemplate, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTemplate(
+            @PathVariable("id") Integer id,
+            @AuthenticationPrincipal String userEmail) {
+        budgetTemplateService.deleteTemplate(id, userEmail);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BudgetTemplateDTO> getSingleTemplate(
+            @PathVariable("id") Integer id,
+            @AuthenticationPrincipal String userEmail) {
+        BudgetTemplateDTO template = budgetTemplateService.getSingleTemplate(id, userEmail);
+        return new ResponseEntity<>(template, HttpStatus.OK);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BudgetTemplateDTO>> getAllTemplates(
+            @AuthenticationPrincipal String userEmail) {
+        List<BudgetTemplateDTO> templates = budgetTemplateService.getAllTemplates(userEmail);
+        return new ResponseEntity<>(templates, HttpStatus.OK);
+    }
+}
@@ -20,6 +20,7 @@ public class BudgetDTO {
     private LocalDate startDate;
     private LocalDate endDate;
     private BudgetStatus status;
+    private Integer templateId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
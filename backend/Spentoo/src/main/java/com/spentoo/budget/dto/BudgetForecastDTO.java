@@ -0,0 +1,22 @@
+package com.spentoo.budget.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class BudgetForecastDTO {
+
+    private Integer budgetId;
+    private BigDecimal amount;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate asOfDate;
+    private int elapsedDays;
+    private int totalDays;
+    private BigDecimal spentToDate;
+    private BigDecimal scheduledSpend; // Expenses dated after asOfDate but inside the period
+    private BudgetProjectionDTO linear; // Average daily spend since the start of the period
+    private BudgetProjectionDTO recentWeighted; // Recent days weighted more heavily than older ones
+}
@@ -0,0 +1,43 @@
+package com.spentoo.budget.dto;
+
+import com.spentoo.budget.model.BudgetStatus;
+import com.spentoo.category.model.CategoryType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model for budget listings, filled by a JPQL constructor expression.
+ * Constructor argument order must match BudgetRepository.LIST_ROW_SELECT.
+ */
+@Data
+@AllArgsConstructor
+public class BudgetListRowDTO {
+
+    private Integer budgetId;
+    private Integer userId;
+    private BigDecimal amount;
+    private BigDecimal spentAmount;
+    private BigDecimal remainingAmount;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BudgetStatus status;
+    private Integer templateId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    private Integer categoryId;
+    private String categoryName;
+    private CategoryType categoryType;
+    private String categoryIcon;
+    private String categoryColor;
+    private Integer categorySortOrder;
+    private Boolean categoryDefault;
+    private Boolean categoryActive;
+    private Integer parentCategoryId;
+    private LocalDateTime categoryCreatedAt;
+    private LocalDateTime categoryUpdatedAt;
+}
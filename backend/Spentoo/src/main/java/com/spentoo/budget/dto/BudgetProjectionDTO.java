@@ -0,0 +1,20 @@
+package com.spentoo.budget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * End-of-period projection of a budget under one spend-velocity model.
+ */
+@Data
+@AllArgsConstructor
+public class BudgetProjectionDTO {
+
+    private BigDecimal dailyRate;
+    private BigDecimal projectedSpend;
+    private BigDecimal projectedRemaining;
+    private LocalDate overrunDate; // First day spend exceeds the budget, or null if it stays within it
+}
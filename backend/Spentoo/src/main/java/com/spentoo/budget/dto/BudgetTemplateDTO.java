@@ -0,0 +1,24 @@
+package com.spentoo.budget.dto;
+
+import com.spentoo.budget.model.BudgetPeriod;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class BudgetTemplateDTO {
+
+    private Integer templateId;
+    private Integer userId;
+    private Integer categoryId;
+    private String categoryName;
+    private BigDecimal amount;
+    private BudgetPeriod period;
+    private boolean carryOver;
+    private LocalDate nextStartDate;
+    private boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package com.spentoo.budget.dto;
+
+import com.spentoo.budget.model.BudgetPeriod;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class CreateBudgetTemplateRequestDTO {
+
+    @NotNull(message = "Category ID is required.")
+    private Integer categoryId;
+
+    @NotNull(message = "Amount is required.")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0.")
+    private BigDecimal amount;
+
+    @NotNull(message = "Period is required.")
+    private BudgetPeriod period;
+
+    private boolean carryOver;
+
+    @NotNull(message = "Start date is required.")
+    private LocalDate startDate; // Start of the first period
+}
@@ -0,0 +1,17 @@
+package com.spentoo.budget.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class UpdateBudgetTemplateRequestDTO {
+
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0.")
+    private BigDecimal amount; // Applies from the next period on
+
+    private Boolean carryOver;
+
+    private Boolean active; // To pause or resume the rollover
+}
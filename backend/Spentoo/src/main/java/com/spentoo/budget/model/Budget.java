@@ -29,6 +29,10 @@ public class Budget {
     @JoinColumn(name = "CategoryID", nullable = false) // Category is required for all budgets
     private Category category;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "TemplateID") // Set on periods created from a BudgetTemplate
+    private BudgetTemplate template;
+
     @Column(name = "Amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal amount;
 
@@ -0,0 +1,7 @@
+package com.spentoo.budget.model;
+
+public enum BudgetPeriod {
+    WEEKLY,
+    MONTHLY,
+    YEARLY
+}
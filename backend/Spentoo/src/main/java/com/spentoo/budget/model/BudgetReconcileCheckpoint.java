@@ -0,0 +1,36 @@
+package com.spentoo.budget.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the budget reconciler (a single row). LastUserID is set while a run is in progress, so a run
+ * interrupted by a restart resumes after the last finished chunk of users instead of starting over.
+ */
+@Data
+@Entity
+@Table(name = "BudgetReconcileCheckpoint")
+public class BudgetReconcileCheckpoint {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    @Column(name = "CheckpointID")
+    private Integer checkpointId = SINGLETON_ID;
+
+    @Column(name = "LastUserID")
+    private Integer lastUserId; // Null when no run is in progress
+
+    @Column(name = "RunStartedAt")
+    private LocalDateTime runStartedAt;
+
+    @Column(name = "LastCompletedAt")
+    private LocalDateTime lastCompletedAt;
+
+    @UpdateTimestamp
+    @Column(name = "UpdatedAt", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,60 @@
+package com.spentoo.budget.model;
+
+import com.spentoo.category.model.Category;
+import com.spentoo.user.model.User;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A repeating budget. BudgetRolloverService creates one Budget row per period from it, starting at NextStartDate.
+ */
+@Data
+@Entity
+@Table(name = "BudgetTemplate", indexes = {
+    @Index(name = "idx_budget_template_due", columnList = "IsActive, NextStartDate")
+})
+public class BudgetTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "TemplateID")
+    private Integer templateId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "UserID", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "CategoryID", nullable = false)
+    private Category category;
+
+    @Column(name = "Amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "Period", nullable = false, length = 20)
+    private BudgetPeriod period;
+
+    @Column(name = "CarryOver", nullable = false)
+    private boolean carryOver = false; // Adds the unspent amount of the previous period to the next one
+
+    @Column(name = "NextStartDate", nullable = false)
+    private LocalDate nextStartDate; // Start of the next period still to be created
+
+    @Column(name = "IsActive", nullable = false)
+    private boolean isActive = true;
+
+    @CreationTimestamp
+    @Column(name = "CreatedAt", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "UpdatedAt", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,9 @@
+package com.spentoo.budget.repository;
+
+import com.spentoo.budget.model.BudgetReconcileCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BudgetReconcileCheckpointRepository extends JpaRepository<BudgetReconcileCheckpoint, Integer> {
+}
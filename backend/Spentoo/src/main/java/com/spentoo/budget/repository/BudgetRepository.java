@@ -1,14 +1,19 @@
 package com.spentoo.budget.repository;
 
+import com.spentoo.budget.dto.BudgetListRowDTO;
 import com.spentoo.budget.model.Budget;
 import com.spentoo.category.model.Category;
 import com.spentoo.user.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,18 +21,40 @@ import java.util.Optional;
 public interface BudgetRepository extends JpaRepository<Budget, Integer> {
 
     /**
-     * Finds all budgets for a specific user with eager fetching of category and user.
-     * This prevents N+1 query problems.
+     * Constructor expression shared by the listing queries.
+     * Rows are projected straight into BudgetListRowDTO, so no Budget or Category entities are loaded.
+     */
+    String LIST_ROW_SELECT = "SELECT new com.spentoo.budget.dto.BudgetListRowDTO(" +
+            "b.budgetId, b.user.userId, b.amount, b.spentAmount, b.remainingAmount, b.startDate, b.endDate, " +
+            "b.status, t.templateId, b.createdAt, b.updatedAt, " +
+            "c.categoryId, c.categoryName, c.type, c.icon, c.color, c.sortOrder, c.isDefault, c.isActive, " +
+            "pc.categoryId, c.createdAt, c.updatedAt) " +
+            "FROM Budget b " +
+            "LEFT JOIN b.category c " +
+            "LEFT JOIN c.parentCategory pc " +
+            "LEFT JOIN b.template t ";
+
+    /**
+     * Lists all budgets for a specific user as flat rows (category columns included).
+     * Rows are projected straight into BudgetListRowDTO, so no Budget or Category entities are loaded.
      * @param user The user whose budgets to find.
-     * @return A list of budgets for the given user.
+     * @return A list of budget rows for the given user.
      */
-    @Query("SELECT b FROM Budget b " +
-           "LEFT JOIN FETCH b.category c " +
-           "LEFT JOIN FETCH c.parentCategory " +
-           "LEFT JOIN FETCH b.user " +
+    @Query(LIST_ROW_SELECT +
            "WHERE b.user = :user " +
            "ORDER BY b.startDate DESC, b.endDate DESC")
-    List<Budget> findAllByUser(@Param("user") User user);
+    List<BudgetListRowDTO> findAllByUser(@Param("user") User user);
+
+    /**
+     * Lists specific budgets of a user as flat rows.
+     * @param user The user who owns the budgets.
+     * @param budgetIds The budget IDs to load.
+     * @return The matching budget rows, in no particular order.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE b.user = :user AND b.budgetId IN :budgetIds")
+    List<BudgetListRowDTO> findListRowsByUserAndBudgetIdIn(@Param("user") User user,
+                                                          @Param("budgetIds") Collection<Integer> budgetIds);
 
     /**
      * Finds a budget by ID and user with eager fetching.
@@ -43,24 +70,164 @@ public interface BudgetRepository extends JpaRepository<Budget, Integer> {
     Optional<Budget> findByIdAndUser(@Param("budgetId") Integer budgetId, @Param("user") User user);
 
     /**
-     * Finds all budgets for a specific user and category that are active within a given date range.
-     * This is used to find which budgets are affected by an expense change.
-     * @param user The user.
-     * @param category The category.
-     * @param expenseDate The date of the expense.
-     * @return A list of budgets affected by the expense change.
+     * Finds the budgets created for templates in one period.
+     * @param templateIds The template IDs.
+     * @param startDate The first day of the period.
+     * @return One Object[] per budget: budget ID, user ID.
      */
-    @Query("SELECT b FROM Budget b " +
-           "LEFT JOIN FETCH b.category c " +
-           "LEFT JOIN FETCH c.parentCategory " +
-           "LEFT JOIN FETCH b.user " +
-           "WHERE b.user = :user " +
-           "AND b.category = :category " +
-           "AND b.startDate <= :expenseDate " +
-           "AND b.endDate >= :expenseDate")
-    List<Budget> findAllByUserAndCategoryAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
-            @Param("user") User user,
-            @Param("category") Category category,
-            @Param("expenseDate") LocalDate expenseDate);
+    @Query("SELECT b.budgetId, b.user.userId FROM Budget b " +
+           "WHERE b.template.templateId IN :templateIds AND b.startDate = :startDate")
+    List<Object[]> findIdsByTemplateIdInAndStartDate(@Param("templateIds") Collection<Integer> templateIds,
+                                                     @Param("startDate") LocalDate startDate);
+
+    /**
+     * Finds the IDs of the budgets created from a template.
+     * @param templateId The template ID.
+     * @return A list of budget IDs.
+     */
+    @Query("SELECT b.budgetId FROM Budget b WHERE b.template.templateId = :templateId")
+    List<Integer> findIdsByTemplateId(@Param("templateId") Integer templateId);
+
+    /**
+     * Unlinks the budgets created from a template, before the template is deleted. The budgets themselves stay.
+     * @param templateId The template ID.
+     * @param now The update timestamp.
+     * @return The number of budgets updated.
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.template = null, b.updatedAt = :now WHERE b.template.templateId = :templateId")
+    int detachFromTemplate(@Param("templateId") Integer templateId, @Param("now") LocalDateTime now);
+
+    /**
+     * Lists the period of every budget of a user once per category the budget covers (its own category and
+     * every sub-category), for building the in-memory budget interval index.
+     * @param userId The user ID.
+     * @return One Object[] per budget and covered category: budget ID, category ID, start date, end date.
+     */
+    @Query("SELECT b.budgetId, cc.descendant.categoryId, b.startDate, b.endDate FROM Budget b, CategoryClosure cc " +
+           "WHERE cc.ancestor = b.category AND b.user.userId = :userId")
+    List<Object[]> findPeriodsByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Lists the budgets of a user set on any of the given categories.
+     * @param userId The user ID.
+     * @param categoryIds The category IDs.
+     * @return The matching budget IDs.
+     */
+    @Query("SELECT b.budgetId FROM Budget b " +
+           "WHERE b.user.userId = :userId AND b.category.categoryId IN :categoryIds")
+    List<Integer> findIdsByUserIdAndCategoryIdIn(@Param("userId") Integer userId,
+                                                 @Param("categoryIds") Collection<Integer> categoryIds);
+
+    /**
+     * Daily spend of every budget of a user, for forecasting all budgets in one pass.
+     * Reads the daily rollup over each budget's category subtree, one row per budget and day with spending.
+     * @param userId The user ID.
+     * @return One Object[] per budget and day: budget ID, date, amount spent.
+     */
+    @Query("SELECT b.budgetId, r.rollupDate, SUM(r.totalAmount) FROM Budget b, CategoryClosure cc, ExpenseDailyRollup r " +
+           "WHERE b.user.userId = :userId AND cc.ancestor = b.category " +
+           "AND r.user = b.user AND r.category = cc.descendant " +
+           "AND r.rollupDate BETWEEN b.startDate AND b.endDate " +
+           "GROUP BY b.budgetId, r.rollupDate")
+    List<Object[]> findDailySpendByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Daily spend of one budget, like findDailySpendByUserId.
+     * @param budgetId The budget ID.
+     * @return One Object[] per day with spending: budget ID, date, amount spent.
+     */
+    @Query("SELECT b.budgetId, r.rollupDate, SUM(r.totalAmount) FROM Budget b, CategoryClosure cc, ExpenseDailyRollup r " +
+           "WHERE b.budgetId = :budgetId AND cc.ancestor = b.category " +
+           "AND r.user = b.user AND r.category = cc.descendant " +
+           "AND r.rollupDate BETWEEN b.startDate AND b.endDate " +
+           "GROUP BY b.budgetId, r.rollupDate")
+    List<Object[]> findDailySpendByBudgetId(@Param("budgetId") Integer budgetId);
+
+    /**
+     * Compares the stored spent amount of a user's running and upcoming budgets with the raw expense ledger.
+     * Reads Expense rows directly (not the daily rollup), so drift in the rollup shows up as well.
+     * @param userId The user ID.
+     * @param today Budgets ending before this date are skipped.
+     * @return One Object[] per budget: budget ID, stored spent amount, spent amount according to the ledger.
+     */
+    @Query("SELECT b.budgetId, b.spentAmount, (" +
+           "SELECT COALESCE(SUM(e.amount), 0) FROM Expense e " +
+           "WHERE e.user = b.user " +
+           "AND e.category IN (SELECT cc.descendant FROM CategoryClosure cc WHERE cc.ancestor = b.category) " +
+           "AND e.transactionDate BETWEEN b.startDate AND b.endDate) " +
+           "FROM Budget b " +
+           "WHERE b.user.userId = :userId AND b.endDate >= :today")
+    List<Object[]> findSpentAgainstLedger(@Param("userId") Integer userId, @Param("today") LocalDate today);
+
+    /**
+     * Recomputes the spent amount of budgets from the daily rollup in a single statement.
+     * A budget covers its category and all sub-categories, resolved through the CategoryClosure table.
+     * The result depends only on committed rollup rows, so running it again for the same budgets is harmless.
+     * @param budgetIds The budgets to recompute.
+     * @return The number of budgets updated.
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.spentAmount = (" +
+           "SELECT COALESCE(SUM(r.totalAmount), 0) FROM ExpenseDailyRollup r " +
+           "WHERE r.user.userId = b.user.userId " +
+           "AND r.category IN (SELECT cc.descendant FROM CategoryClosure cc WHERE cc.ancestor = b.category) " +
+           "AND r.rollupDate BETWEEN b.startDate AND b.endDate) " +
+           "WHERE b.budgetId IN :budgetIds")
+    int recomputeSpentAmounts(@Param("budgetIds") Collection<Integer> budgetIds);
 
+    /**
+     * Derives the remaining amount and status of budgets from their spent amount.
+     * The status rules match BudgetService.recalculateBudget.
+     * @param budgetIds The budgets to update.
+     * @param today Today's date, to tell running budgets from finished ones.
+     * @param now The update timestamp.
+     * @return The number of budgets updated.
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET " +
+           "b.remainingAmount = b.amount - b.spentAmount, " +
+           "b.status = CASE WHEN b.spentAmount > b.amount THEN com.spentoo.budget.model.BudgetStatus.OVER_BUDGET " +
+           "WHEN b.endDate < :today THEN com.spentoo.budget.model.BudgetStatus.COMPLETED " +
+           "ELSE com.spentoo.budget.model.BudgetStatus.ACTIVE END, " +
+           "b.updatedAt = :now " +
+           "WHERE b.budgetId IN :budgetIds")
+    int refreshRemainingAndStatus(@Param("budgetIds") Collection<Integer> budgetIds,
+                                  @Param("today") LocalDate today,
+                                  @Param("now") LocalDateTime now);
+
+    /**
+     * Finds running budgets whose period has ended, for the status sweep.
+     * @param today Today's date.
+     * @param pageable The batch size (always the first page, since updated rows drop out of the result).
+     * @return One Object[] per budget: budget ID, user ID, user email.
+     */
+    @Query("SELECT b.budgetId, b.user.userId, b.user.email FROM Budget b " +
+           "WHERE b.status = com.spentoo.budget.model.BudgetStatus.ACTIVE AND b.endDate < :today " +
+           "ORDER BY b.budgetId")
+    List<Object[]> findExpiredActive(@Param("today") LocalDate today, Pageable pageable);
+
+    /**
+     * Moves running budgets to COMPLETED. Budgets that went over budget keep OVER_BUDGET.
+     * @param budgetIds The budgets to complete.
+     * @param now The update timestamp.
+     * @return The number of budgets updated.
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.status = com.spentoo.budget.model.BudgetStatus.COMPLETED, b.updatedAt = :now " +
+           "WHERE b.budgetId IN :budgetIds AND b.status = com.spentoo.budget.model.BudgetStatus.ACTIVE")
+    int markCompleted(@Param("budgetIds") Collection<Integer> budgetIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Moves every budget of one category to another, e.g. when categories are merged.
+     * Spent amounts are not touched; callers recompute the moved budgets afterwards.
+     * @param source The category the budgets leave.
+     * @param target The category the budgets move to.
+     * @param now The update timestamp.
+     * @return The number of budgets updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Budget b SET b.category = :target, b.updatedAt = :now WHERE b.category = :source")
+    int reassignCategory(@Param("source") Category source, @Param("target") Category target,
+                         @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,126 @@
+package com.spentoo.budget.repository;
+
+import com.spentoo.budget.model.BudgetTemplate;
+import com.spentoo.category.model.Category;
+import com.spentoo.user.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetTemplateRepository extends JpaRepository<BudgetTemplate, Integer> {
+
+    /**
+     * Finds all budget templates of a user with their category.
+     * @param user The user whose templates to find.
+     * @return A list of templates.
+     */
+    @Query("SELECT t FROM BudgetTemplate t " +
+           "LEFT JOIN FETCH t.category " +
+           "WHERE t.user = :user " +
+           "ORDER BY t.templateId")
+    List<BudgetTemplate> findAllByUser(@Param("user") User user);
+
+    /**
+     * Finds a template by ID and user with its category.
+     * @param templateId The template ID.
+     * @param user The user.
+     * @return An Optional containing the template if found and owned by user.
+     */
+    @Query("SELECT t FROM BudgetTemplate t " +
+           "LEFT JOIN FETCH t.category " +
+           "WHERE t.templateId = :templateId AND t.user = :user")
+    Optional<BudgetTemplate> findByIdAndUser(@Param("templateId") Integer templateId, @Param("user") User user);
+
+    /**
+     * Finds active templates whose next period has started, for the rollover job.
+     * Templates on inactive categories are left alone until the category is restored.
+     * @param today Today's date.
+     * @param pageable The chunk size (always the first page, since rolled-over templates drop out of the result).
+     * @return One Object[] per template: template ID, user ID, user email, period, next start date.
+     */
+    @Query("SELECT t.templateId, t.user.userId, t.user.email, t.period, t.nextStartDate FROM BudgetTemplate t " +
+           "WHERE t.isActive = true AND t.nextStartDate <= :today AND t.category.isActive = true " +
+           "ORDER BY t.templateId")
+    List<Object[]> findDue(@Param("today") LocalDate today, Pageable pageable);
+
+    /**
+     * Like findDue, for a single template.
+     * @param templateId The template ID.
+     * @param today Today's date.
+     * @return The template's row if it is due, otherwise an empty list.
+     */
+    @Query("SELECT t.templateId, t.user.userId, t.user.email, t.period, t.nextStartDate FROM BudgetTemplate t " +
+           "WHERE t.templateId = :templateId " +
+           "AND t.isActive = true AND t.nextStartDate <= :today AND t.category.isActive = true")
+    List<Object[]> findDueById(@Param("templateId") Integer templateId, @Param("today") LocalDate today);
+
+    /**
+     * Creates one period's Budget rows for templates that share a period and start date, with one INSERT ... SELECT.
+     * With carry-over, the unspent amount of the period ending the day before is added to the new amount.
+     * Spent amounts start at zero and are seeded by BudgetRepository.recomputeSpentAmounts afterwards.
+     * Templates that already have a budget starting on startDate are skipped, so a repeated or concurrent rollover
+     * neither duplicates the period nor adds the carry-over twice (UQ_Budget_Template_Start backs this up).
+     * @param templateIds The templates.
+     * @param startDate The first day of the new period.
+     * @param endDate The last day of the new period.
+     * @param previousEndDate The last day of the previous period.
+     * @param now The creation timestamp.
+     * @return The number of budgets created.
+     */
+    @Modifying
+    @Query("INSERT INTO Budget (user, category, template, amount, spentAmount, remainingAmount, startDate, endDate, " +
+           "status, createdAt, updatedAt) " +
+           "SELECT t.user, t.category, t, " +
+           "t.amount + CASE WHEN t.carryOver = true THEN (" +
+           "SELECT COALESCE(SUM(CASE WHEN p.remainingAmount > 0 THEN p.remainingAmount ELSE 0 END), 0) FROM Budget p " +
+           "WHERE p.template = t AND p.endDate = :previousEndDate) ELSE 0 END, " +
+           "CAST(0 AS BigDecimal), CAST(0 AS BigDecimal), :startDate, :endDate, " +
+           "com.spentoo.budget.model.BudgetStatus.ACTIVE, :now, :now " +
+           "FROM BudgetTemplate t WHERE t.templateId IN :templateIds " +
+           "AND NOT EXISTS (SELECT b FROM Budget b WHERE b.template = t AND b.startDate = :startDate)")
+    int insertPeriodBudgets(@Param("templateIds") Collection<Integer> templateIds,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate,
+                            @Param("previousEndDate") LocalDate previousEndDate,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * Moves templates on to their following period.
+     * Only templates still at startDate move, so a rollover that already advanced them is not repeated.
+     * Clears the persistence context, so templates loaded afterwards show the new start date.
+     * @param templateIds The templates.
+     * @param startDate The start of the period that was just created.
+     * @param nextStartDate The start of the following period.
+     * @param now The update timestamp.
+     * @return The number of templates updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BudgetTemplate t SET t.nextStartDate = :nextStartDate, t.updatedAt = :now " +
+           "WHERE t.templateId IN :templateIds AND t.nextStartDate = :startDate")
+    int advance(@Param("templateIds") Collection<Integer> templateIds,
+                @Param("startDate") LocalDate startDate,
+                @Param("nextStartDate") LocalDate nextStartDate,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Moves every budget template of one category to another, so future periods follow a category merge.
+     * @param source The category the templates leave.
+     * @param target The category the templates move to.
+     * @param now The update timestamp.
+     * @return The number of templates updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BudgetTemplate t SET t.category = :target, t.updatedAt = :now WHERE t.category = :source")
+    int reassignCategory(@Param("source") Category source, @Param("target") Category target,
+                         @Param("now") LocalDateTime now);
+}
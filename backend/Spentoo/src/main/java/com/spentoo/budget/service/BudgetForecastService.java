@@ -0,0 +1,84 @@
+package com.spentoo.budget.service;
+
+import com.spentoo.budget.BudgetForecaster;
+import com.spentoo.budget.dto.BudgetForecastDTO;
+import com.spentoo.budget.dto.BudgetListRowDTO;
+import com.spentoo.budget.model.Budget;
+import com.spentoo.budget.repository.BudgetRepository;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Burn-rate forecasts for budgets, computed from the daily rollup rather than raw expenses.
+ */
+@Service
+public class BudgetForecastService {
+
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+    private final BudgetForecaster forecaster;
+
+    public BudgetForecastService(BudgetRepository budgetRepository, UserRepository userRepository,
+                                 @Value("${spentoo.budget.forecast.recent-window-days:7}") int recentWindowDays) {
+        this.budgetRepository = budgetRepository;
+        this.userRepository = userRepository;
+        this.forecaster = new BudgetForecaster(recentWindowDays);
+    }
+
+    @Transactional(readOnly = true)
+    public BudgetForecastDTO getBudgetForecast(Integer budgetId, String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        Budget budget = budgetRepository.findByIdAndUser(budgetId, user)
+                .orElseThrow(() -> new IllegalStateException("Budget not found or access denied."));
+
+        Map<LocalDate, BigDecimal> dailySpend = groupDailySpend(budgetRepository.findDailySpendByBudgetId(budgetId))
+                .getOrDefault(budgetId, Map.of());
+        return forecaster.forecast(budgetId, budget.getAmount(), budget.getStartDate(), budget.getEndDate(),
+                dailySpend, LocalDate.now());
+    }
+
+    /**
+     * Forecasts all budgets of a user with two queries in total, for the dashboard.
+     * @param userEmail The user's email.
+     * @return One forecast per budget, in the order of the budget listing.
+     */
+    @Transactional(readOnly = true)
+    public List<BudgetForecastDTO> getAllBudgetForecasts(String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        Map<Integer, Map<LocalDate, BigDecimal>> dailySpendByBudget =
+                groupDailySpend(budgetRepository.findDailySpendByUserId(user.getUserId()));
+        LocalDate today = LocalDate.now();
+        return budgetRepository.findAllByUser(user)
+                .stream()
+                .map(row -> forecast(row, dailySpendByBudget.getOrDefault(row.getBudgetId(), Map.of()), today))
+                .collect(Collectors.toList());
+    }
+
+    private BudgetForecastDTO forecast(BudgetListRowDTO row, Map<LocalDate, BigDecimal> dailySpend, LocalDate today) {
+        return forecaster.forecast(row.getBudgetId(), row.getAmount(), row.getStartDate(), row.getEndDate(),
+                dailySpend, today);
+    }
+
+    private Map<Integer, Map<LocalDate, BigDecimal>> groupDailySpend(List<Object[]> rows) {
+        Map<Integer, Map<LocalDate, BigDecimal>> dailySpendByBudget = new HashMap<>();
+        for (Object[] row : rows) {
+            dailySpendByBudget.computeIfAbsent((Integer) row[0], key -> new HashMap<>())
+                    .put((LocalDate) row[1], (BigDecimal) row[2]);
+        }
+        return dailySpendByBudget;
+    }
+}
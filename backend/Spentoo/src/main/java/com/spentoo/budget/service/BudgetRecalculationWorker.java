@@ -0,0 +1,207 @@
+package com.spentoo.budget.service;
+
+import com.spentoo.events.ExpenseBatchCreatedEvent;
+import com.spentoo.events.ExpenseChangedEvent;
+import com.spentoo.events.ExpenseSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps budget spent amounts current off the expense write path.
+ * Expense events are picked up after their transaction commits and queued per (user, category). Events for the same
+ * key that arrive within the coalescing window widen one pending date range instead of queueing more work, and the
+ * range is recalculated once from the daily rollup on a small bounded pool.
+ * Recalculation reads committed rollup rows and overwrites the budget totals, so running it late or twice is harmless.
+ * That is what makes the retries safe: a failed range is queued again a bounded number of times, and on shutdown
+ * everything still pending is recalculated on the closing thread instead of being dropped with the pools.
+ * This replaces the signed spent-amount deltas that expense writes used to apply inline. A delta applied twice or
+ * lost counts wrong for good, so it cannot be retried, replayed on shutdown or merged across a burst. A recalculation
+ * costs one rollup aggregate per budget, whatever the number of expenses in the period.
+ */
+@Component
+public class BudgetRecalculationWorker {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 5_000;
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+
+    private final BudgetService budgetService;
+    private final ConcurrentMap<Key, PendingRange> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor executor;
+    private final long windowMillis;
+    private final Timer lagTimer;
+    private volatile boolean shuttingDown;
+
+    public BudgetRecalculationWorker(BudgetService budgetService, MeterRegistry meterRegistry,
+                                     @Value("${spentoo.budget.recalc.window-ms:500}") long windowMillis,
+                                     @Value("${spentoo.budget.recalc.workers:2}") int workers,
+                                     @Value("${spentoo.budget.recalc.queue-capacity:1000}") int queueCapacity) {
+        this.budgetService = budgetService;
+        this.windowMillis = windowMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "budget-recalc-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // When the queue is full the scheduler thread runs the recalculation itself, which slows intake instead of dropping work
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "budget-recalc-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        meterRegistry.gauge("spentoo.budget.recalculation.pending", pending, ConcurrentMap::size);
+        meterRegistry.gauge("spentoo.budget.recalculation.queue", executor, e -> e.getQueue().size());
+        this.lagTimer = Timer.builder("spentoo.budget.recalculation.lag")
+                .description("Time from the first coalesced expense change to the end of its budget recalculation")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleExpenseChangedEvent(ExpenseChangedEvent event) {
+        // An edit can move the expense to another category or date, so both the old and new budgets need refreshing
+        if (event.getBefore() != null) {
+            enqueue(event.getBefore());
+        }
+        if (event.getAfter() != null) {
+            enqueue(event.getAfter());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleExpenseBatchCreatedEvent(ExpenseBatchCreatedEvent event) {
+        for (ExpenseSnapshot expense : event.getExpenses()) {
+            enqueue(expense);
+        }
+    }
+
+    private void enqueue(ExpenseSnapshot expense) {
+        enqueue(expense.getUserId(), expense.getCategoryId(), expense.getTransactionDate());
+    }
+
+    private void enqueue(Integer userId, Integer categoryId, LocalDate date) {
+        queue(new Key(userId, categoryId), new PendingRange(date, date, System.nanoTime(), 0), windowMillis);
+    }
+
+    private void queue(Key key, PendingRange range, long delayMillis) {
+        // merge() returns our own instance only when no range was pending, so only the first event of a burst schedules
+        if (pending.merge(key, range, PendingRange::widen) == range && !shuttingDown) {
+            // During shutdown nothing is scheduled; shutdown() drains the pending map itself
+            scheduler.schedule(() -> executor.execute(() -> process(key)), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void process(Key key) {
+        // Events arriving from here on start a new range, which is scheduled again and sees this run's results
+        PendingRange range = pending.remove(key);
+        if (range == null) {
+            return;
+        }
+        try {
+            // The interval index answers from memory, so categories without a budget in range never reach the database
+            List<Integer> budgetIds = budgetService.findBudgetIdsOverlapping(key.userId, key.categoryId, range.fromDate, range.toDate);
+            if (!budgetIds.isEmpty()) {
+                budgetService.recalculateBudgets(key.userId, budgetIds);
+            }
+        } catch (RuntimeException e) {
+            int attempts = range.attempts + 1;
+            if (attempts < MAX_ATTEMPTS) {
+                System.err.println("Budget recalculation failed for user " + key.userId + ", category " + key.categoryId
+                        + " (attempt " + attempts + "), retrying: " + e.getMessage());
+                queue(key, new PendingRange(range.fromDate, range.toDate, range.firstQueuedAt, attempts),
+                        RETRY_DELAY_MILLIS * attempts);
+                return;
+            }
+            System.err.println("Budget recalculation failed for user " + key.userId + ", category " + key.categoryId
+                    + " after " + attempts + " attempts; left to the nightly reconciler: " + e.getMessage());
+        }
+        lagTimer.record(System.nanoTime() - range.firstQueuedAt, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        // Delayed runs are dropped here, but their keys are still pending and are drained below
+        scheduler.shutdownNow();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Failed keys are put back until their attempts run out, so this loop always ends
+        while (!pending.isEmpty()) {
+            for (Key key : List.copyOf(pending.keySet())) {
+                process(key);
+            }
+        }
+    }
+
+    private static final class Key {
+        private final Integer userId;
+        private final Integer categoryId;
+
+        private Key(Integer userId, Integer categoryId) {
+            this.userId = userId;
+            this.categoryId = categoryId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(userId, other.userId) && Objects.equals(categoryId, other.categoryId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, categoryId);
+        }
+    }
+
+    private static final class PendingRange {
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        private final long firstQueuedAt;
+        private final int attempts; // Failed recalculations of this range so far
+
+        private PendingRange(LocalDate fromDate, LocalDate toDate, long firstQueuedAt, int attempts) {
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.firstQueuedAt = firstQueuedAt;
+            this.attempts = attempts;
+        }
+
+        // Always returns a new instance, which enqueue() relies on to tell a merge from a first insert
+        private static PendingRange widen(PendingRange existing, PendingRange added) {
+            return new PendingRange(
+                    added.fromDate.isBefore(existing.fromDate) ? added.fromDate : existing.fromDate,
+                    added.toDate.isAfter(existing.toDate) ? added.toDate : existing.toDate,
+                    Math.min(existing.firstQueuedAt, added.firstQueuedAt),
+                    Math.max(existing.attempts, added.attempts));
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.spentoo.budget.service;
+
+import com.spentoo.budget.model.BudgetReconcileCheckpoint;
+import com.spentoo.budget.repository.BudgetReconcileCheckpointRepository;
+import com.spentoo.budget.repository.BudgetRepository;
+import com.spentoo.expense.service.ExpenseRollupService;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repairs drift between stored budget spent amounts and the expense ledger.
+ * For each user, the spent amount of every running or upcoming budget is recomputed from raw expenses in one
+ * aggregate query and compared with the stored value. When a budget drifted, the user's daily rollup is rebuilt
+ * (so later incremental updates start from correct totals) and the drifted budgets are recomputed from it.
+ * Users are taken in chunks by ID; each chunk is split into partitions processed in parallel, one transaction per
+ * user, and the checkpoint moves past a chunk once all its partitions finished.
+ */
+@Component
+public class BudgetReconciler {
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetReconcileCheckpointRepository checkpointRepository;
+    private final UserRepository userRepository;
+    private final ExpenseRollupService rollupService;
+    private final ChangeLogService changeLogService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int workers;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter checkedCounter;
+    private final Counter driftedCounter;
+    private final Counter failedUsersCounter;
+    private final DistributionSummary driftAmount;
+    private final Timer runTimer;
+    private final AtomicInteger lastRunDrifted = new AtomicInteger();
+
+    public BudgetReconciler(BudgetRepository budgetRepository, BudgetReconcileCheckpointRepository checkpointRepository,
+                            UserRepository userRepository, ExpenseRollupService rollupService,
+                            ChangeLogService changeLogService,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${spentoo.budget.reconcile.workers:4}") int workers,
+                            @Value("${spentoo.budget.reconcile.chunk-size:200}") int chunkSize) {
+        this.budgetRepository = budgetRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.changeLogService = changeLogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Math.max(1, workers);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.executor = Executors.newFixedThreadPool(this.workers, runnable -> {
+            Thread thread = new Thread(runnable, "budget-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.checkedCounter = Counter.builder("spentoo.budget.reconcile.checked")
+                .description("Budgets compared with the expense ledger")
+                .register(meterRegistry);
+        this.driftedCounter = Counter.builder("spentoo.budget.reconcile.drifted")
+                .description("Budgets whose stored spent amount differed from the ledger and were repaired")
+                .register(meterRegistry);
+        this.failedUsersCounter = Counter.builder("spentoo.budget.reconcile.failed.users")
+                .description("Users whose reconciliation failed and was rolled back")
+                .register(meterRegistry);
+        this.driftAmount = DistributionSummary.builder("spentoo.budget.reconcile.drift.amount")
+                .description("Absolute difference between stored and ledger spent amounts of drifted budgets")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("spentoo.budget.reconcile.duration")
+                .description("Duration of a full reconciliation run")
+                .register(meterRegistry);
+        meterRegistry.gauge("spentoo.budget.reconcile.last.run.drifted", lastRunDrifted);
+    }
+
+    /**
+     * Reconciles all users, resuming an interrupted run from its checkpoint. Runs nightly by default
+     * (spentoo.budget.reconcile-cron); a call while a run is in progress returns immediately.
+     */
+    @Scheduled(cron = "${spentoo.budget.reconcile-cron:0 30 2 * * *}")
+    public void reconcileAll() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            runTimer.record(this::runFromCheckpoint);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runFromCheckpoint() {
+        BudgetReconcileCheckpoint checkpoint = checkpointRepository.findById(BudgetReconcileCheckpoint.SINGLETON_ID)
+                .orElseGet(BudgetReconcileCheckpoint::new);
+        if (checkpoint.getLastUserId() == null) {
+            checkpoint.setLastUserId(0);
+            checkpoint.setRunStartedAt(LocalDateTime.now());
+            checkpoint = checkpointRepository.save(checkpoint);
+        }
+
+        LocalDate today = LocalDate.now();
+        AtomicInteger users = new AtomicInteger();
+        AtomicInteger drifted = new AtomicInteger();
+        List<Integer> chunk;
+        while (!(chunk = userRepository.findUserIdsAfter(checkpoint.getLastUserId(), PageRequest.of(0, chunkSize))).isEmpty()) {
+            reconcileChunk(chunk, today, drifted);
+            users.addAndGet(chunk.size());
+            checkpoint.setLastUserId(chunk.get(chunk.size() - 1));
+            checkpoint = checkpointRepository.save(checkpoint);
+        }
+
+        checkpoint.setLastUserId(null);
+        checkpoint.setLastCompletedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        lastRunDrifted.set(drifted.get());
+        System.out.println("Budget reconciliation: " + users.get() + " users checked, " + drifted.get()
+                + " budgets repaired.");
+    }
+
+    // Partitions the chunk round-robin over the workers and waits for all partitions
+    private void reconcileChunk(List<Integer> userIds, LocalDate today, AtomicInteger drifted) {
+        List<Future<?>> partitions = new ArrayList<>(workers);
+        for (int partition = 0; partition < workers && partition < userIds.size(); partition++) {
+            int offset = partition;
+            partitions.add(executor.submit(() -> {
+                for (int i = offset; i < userIds.size(); i += workers) {
+                    reconcileUser(userIds.get(i), today, drifted);
+                }
+            }));
+        }
+        for (Future<?> partition : partitions) {
+            try {
+                partition.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Budget reconciliation interrupted.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Budget reconciliation failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private void reconcileUser(Integer userId, LocalDate today, AtomicInteger drifted) {
+        try {
+            Integer repaired = transactionTemplate.execute(status -> repairUser(userId, today));
+            drifted.addAndGet(repaired != null ? repaired : 0);
+        } catch (RuntimeException e) {
+            failedUsersCounter.increment();
+            System.err.println("Budget reconciliation failed for user " + userId + ": " + e.getMessage());
+        }
+    }
+
+    private int repairUser(Integer userId, LocalDate today) {
+        List<Integer> driftedBudgetIds = new ArrayList<>();
+        for (Object[] row : budgetRepository.findSpentAgainstLedger(userId, today)) {
+            checkedCounter.increment();
+            BigDecimal stored = (BigDecimal) row[1];
+            BigDecimal ledger = (BigDecimal) row[2];
+            if (stored == null || stored.compareTo(ledger) != 0) {
+                driftedBudgetIds.add((Integer) row[0]);
+                driftAmount.record(ledger.subtract(stored != null ? stored : BigDecimal.ZERO).abs().doubleValue());
+            }
+        }
+        if (driftedBudgetIds.isEmpty()) {
+            return 0;
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+        rollupService.rebuildForUser(user);
+        budgetRepository.recomputeSpentAmounts(driftedBudgetIds);
+        budgetRepository.refreshRemainingAndStatus(driftedBudgetIds, today, LocalDateTime.now());
+        changeLogService.recordAll(user, ChangeEntityType.BUDGET, driftedBudgetIds, ChangeOperation.UPDATED);
+        driftedCounter.increment(driftedBudgetIds.size());
+        return driftedBudgetIds.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,178 @@
+package com.spentoo.budget.service;
+
+import com.spentoo.budget.model.BudgetPeriod;
+import com.spentoo.budget.repository.BudgetRepository;
+import com.spentoo.budget.repository.BudgetTemplateRepository;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the Budget rows of recurring budgets (BudgetTemplate) as their periods start.
+ * Due templates are processed in chunks, one transaction per chunk. Within a chunk, templates sharing a period and
+ * start date get their budgets from one INSERT ... SELECT, and all new budgets of the chunk are seeded from the
+ * daily rollup with one aggregate UPDATE. A template that fell several periods behind catches up one period per chunk.
+ */
+@Service
+public class BudgetRolloverService {
+
+    private final BudgetTemplateRepository templateRepository;
+    private final BudgetRepository budgetRepository;
+    private final BudgetService budgetService;
+    private final UserRepository userRepository;
+    private final ChangeLogService changeLogService;
+    private final DataVersionService dataVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spentoo.budget.rollover-batch-size:500}")
+    private int batchSize;
+
+    public BudgetRolloverService(BudgetTemplateRepository templateRepository, BudgetRepository budgetRepository,
+                                 BudgetService budgetService, UserRepository userRepository,
+                                 ChangeLogService changeLogService, DataVersionService dataVersionService,
+                                 PlatformTransactionManager transactionManager) {
+        this.templateRepository = templateRepository;
+        this.budgetRepository = budgetRepository;
+        this.budgetService = budgetService;
+        this.userRepository = userRepository;
+        this.changeLogService = changeLogService;
+        this.dataVersionService = dataVersionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates the budgets of every template whose next period has started. Runs after the nightly status sweep
+     * by default (spentoo.budget.rollover-cron).
+     */
+    @Scheduled(cron = "${spentoo.budget.rollover-cron:0 10 0 * * *}")
+    public void rollOverAll() {
+        LocalDate today = LocalDate.now();
+        int created = 0;
+        while (true) {
+            Integer chunk = transactionTemplate.execute(status ->
+                    rollOver(templateRepository.findDue(today, PageRequest.of(0, batchSize)), today));
+            if (chunk == null || chunk == 0) {
+                break;
+            }
+            created += chunk;
+        }
+        System.out.println("Budget rollover: " + created + " budgets created.");
+    }
+
+    // Catches up on periods that started while the application was down
+    @EventListener(ApplicationReadyEvent.class)
+    public void rollOverOnStartup() {
+        rollOverAll();
+    }
+
+    /**
+     * Creates all started periods of one template, e.g. right after it is created.
+     * Runs inside the caller's transaction, so callers keep the template's start date close to today.
+     * @param templateId The template ID.
+     * @return The number of budgets created.
+     */
+    @Transactional
+    public int rollOverTemplate(Integer templateId) {
+        LocalDate today = LocalDate.now();
+        int created = 0;
+        List<Object[]> due;
+        while (!(due = templateRepository.findDueById(templateId, today)).isEmpty()) {
+            created += rollOver(due, today);
+        }
+        return created;
+    }
+
+    /**
+     * Returns the last day of the period starting on a date.
+     * @param period The period length.
+     * @param startDate The first day of the period.
+     * @return The last day of the period.
+     */
+    public static LocalDate periodEnd(BudgetPeriod period, LocalDate startDate) {
+        switch (period) {
+            case WEEKLY:
+                return startDate.plusWeeks(1).minusDays(1);
+            case YEARLY:
+                return startDate.plusYears(1).minusDays(1);
+            case MONTHLY:
+            default:
+                return startDate.plusMonths(1).minusDays(1);
+        }
+    }
+
+    /**
+     * Returns the start of the period that ends the day before a date, i.e. one period length earlier.
+     * @param period The period length.
+     * @param date The date.
+     * @return The date one period before.
+     */
+    public static LocalDate periodStartBefore(BudgetPeriod period, LocalDate date) {
+        switch (period) {
+            case WEEKLY:
+                return date.minusWeeks(1);
+            case YEARLY:
+                return date.minusYears(1);
+            case MONTHLY:
+            default:
+                return date.minusMonths(1);
+        }
+    }
+
+    // Creates the next period for each due row; rows hold template ID, user ID, user email, period, next start date
+    private int rollOver(List<Object[]> dueRows, LocalDate today) {
+        if (dueRows.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<List<Object>, List<Integer>> templateIdsByPeriod = new LinkedHashMap<>();
+        Map<Integer, String> emailByUser = new LinkedHashMap<>();
+        for (Object[] row : dueRows) {
+            templateIdsByPeriod.computeIfAbsent(Arrays.asList(row[3], row[4]), key -> new ArrayList<>()).add((Integer) row[0]);
+            emailByUser.put((Integer) row[1], (String) row[2]);
+        }
+
+        List<Integer> budgetIds = new ArrayList<>();
+        Map<Integer, List<Integer>> budgetIdsByUser = new LinkedHashMap<>();
+        templateIdsByPeriod.forEach((key, templateIds) -> {
+            LocalDate startDate = (LocalDate) key.get(1);
+            LocalDate endDate = periodEnd((BudgetPeriod) key.get(0), startDate);
+            templateRepository.insertPeriodBudgets(templateIds, startDate, endDate, startDate.minusDays(1), now);
+            for (Object[] budget : budgetRepository.findIdsByTemplateIdInAndStartDate(templateIds, startDate)) {
+                budgetIds.add((Integer) budget[0]);
+                budgetIdsByUser.computeIfAbsent((Integer) budget[1], userId -> new ArrayList<>()).add((Integer) budget[0]);
+            }
+            templateRepository.advance(templateIds, startDate, endDate.plusDays(1), now);
+        });
+
+        // Seed spent amounts (expenses may already be booked in the new period) and derive remaining amount and status
+        budgetRepository.recomputeSpentAmounts(budgetIds);
+        budgetRepository.refreshRemainingAndStatus(budgetIds, today, now);
+
+        budgetIdsByUser.forEach((userId, userBudgetIds) -> {
+            changeLogService.recordAll(userRepository.getReferenceById(userId), ChangeEntityType.BUDGET, userBudgetIds,
+                    ChangeOperation.CREATED);
+            budgetService.invalidateBudgetIntervals(userId);
+        });
+        emailByUser.values().forEach(dataVersionService::bump);
+        return budgetIds.size();
+    }
+}
@@ -1,17 +1,25 @@
 package com.spentoo.budget.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spentoo.budget.BudgetIntervalTree;
 import com.spentoo.budget.dto.BudgetDTO;
+import com.spentoo.budget.dto.BudgetListRowDTO;
 import com.spentoo.budget.dto.CreateBudgetRequestDTO;
 import com.spentoo.budget.dto.UpdateBudgetRequestDTO;
 import com.spentoo.budget.model.Budget;
 import com.spentoo.budget.model.BudgetStatus;
 import com.spentoo.budget.repository.BudgetRepository;
+import com.spentoo.cache.CacheInvalidation;
 import com.spentoo.category.dto.CategoryDTO;
 import com.spentoo.category.model.Category;
 import com.spentoo.category.repository.CategoryRepository;
-import com.spentoo.events.ExpenseChangedEvent;
-import com.spentoo.expense.model.Expense;
-import com.spentoo.expense.repository.ExpenseRepository;
+import com.spentoo.events.CategoryTreeChangedEvent;
+import com.spentoo.expense.repository.ExpenseDailyRollupRepository;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
 import com.spentoo.user.model.User;
 import com.spentoo.user.repository.UserRepository;
 import org.springframework.context.event.EventListener;
@@ -19,24 +27,45 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class BudgetService {
 
+    private static final long MAX_INDEXED_USERS = 1000;
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(30);
+
     private final BudgetRepository budgetRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
-    private final ExpenseRepository expenseRepository;
+    private final ExpenseDailyRollupRepository rollupRepository;
+    private final DataVersionService dataVersionService;
+    private final ChangeLogService changeLogService;
+
+    // Per user: category ID -> interval tree of the periods of budgets covering that category (on it or an ancestor)
+    private final Cache<Integer, Map<Integer, BudgetIntervalTree>> budgetIntervals = Caffeine.newBuilder()
+            .maximumSize(MAX_INDEXED_USERS)
+            .expireAfterAccess(IDLE_EXPIRY)
+            .build();
 
     public BudgetService(BudgetRepository budgetRepository, UserRepository userRepository,
-                         CategoryRepository categoryRepository, ExpenseRepository expenseRepository) {
+                         CategoryRepository categoryRepository, ExpenseDailyRollupRepository rollupRepository,
+                         DataVersionService dataVersionService,
+                         ChangeLogService changeLogService) {
         this.budgetRepository = budgetRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
-        this.expenseRepository = expenseRepository;
+        this.rollupRepository = rollupRepository;
+        this.dataVersionService = dataVersionService;
+        this.changeLogService = changeLogService;
     }
 
     @Transactional
@@ -69,6 +98,9 @@ public class BudgetService {
         recalculateBudget(newBudget);
 
         Budget savedBudget = budgetRepository.save(newBudget);
+        changeLogService.record(user, ChangeEntityType.BUDGET, savedBudget.getBudgetId(), ChangeOperation.CREATED);
+        invalidateBudgetIntervals(user.getUserId());
+        dataVersionService.bump(userEmail);
         return convertToDTO(savedBudget);
     }
 
@@ -114,6 +146,9 @@ public class BudgetService {
         }
 
         Budget updatedBudget = budgetRepository.save(budget);
+        changeLogService.record(user, ChangeEntityType.BUDGET, budgetId, ChangeOperation.UPDATED);
+        invalidateBudgetIntervals(user.getUserId());
+        dataVersionService.bump(userEmail);
         return convertToDTO(updatedBudget);
     }
 
@@ -126,6 +161,9 @@ public class BudgetService {
                 .orElseThrow(() -> new IllegalStateException("Budget not found or access denied."));
 
         budgetRepository.delete(budget);
+        changeLogService.record(user, ChangeEntityType.BUDGET, budgetId, ChangeOperation.DELETED);
+        invalidateBudgetIntervals(user.getUserId());
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional(readOnly = true)
@@ -149,37 +187,102 @@ public class BudgetService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads specific budgets of a user, e.g. the records a sync reports as changed.
+     * @param user The user who owns the budgets.
+     * @param budgetIds The IDs to load.
+     * @return The DTOs of the budgets that still exist.
+     */
+    @Transactional(readOnly = true)
+    public List<BudgetDTO> getBudgetsByIds(User user, Collection<Integer> budgetIds) {
+        if (budgetIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return budgetRepository.findListRowsByUserAndBudgetIdIn(user, budgetIds)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
 
+    /**
+     * Refreshes budgets after the category tree changed shape: the interval index is dropped, and budgets on
+     * categories whose subtree changed are recomputed in the category transaction.
+     * @param event The category tree change.
+     */
     @EventListener
     @Transactional
-    public void handleExpenseChangedEvent(ExpenseChangedEvent event) {
-        Expense expense = event.getExpense();
-        User user = expense.getUser();
-        Category category = expense.getCategory();
-        LocalDate expenseDate = expense.getTransactionDate(); // Use transactionDate instead of createdAt
-
-        // Find all budgets affected by this expense change
-        List<Budget> affectedBudgets = budgetRepository.findAllByUserAndCategoryAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
-                user, category, expenseDate
-        );
+    public void handleCategoryTreeChangedEvent(CategoryTreeChangedEvent event) {
+        invalidateBudgetIntervals(event.getUserId());
+        if (!event.getAffectedCategoryIds().isEmpty()) {
+            recalculateBudgets(event.getUserId(),
+                    budgetRepository.findIdsByUserIdAndCategoryIdIn(event.getUserId(), event.getAffectedCategoryIds()));
+        }
+    }
 
-        // Recalculate all affected budgets
-        for (Budget budget : affectedBudgets) {
-            recalculateBudget(budget);
+    /**
+     * Finds a user's budgets covering a category (set on it or on one of its ancestors) whose period overlaps
+     * a date range, using the in-memory interval index.
+     * Only the first lookup for a user after a budget change reads the database.
+     * @param userId The user ID.
+     * @param categoryId The category ID.
+     * @param fromDate The range start.
+     * @param toDate The range end.
+     * @return The IDs of the overlapping budgets.
+     */
+    public List<Integer> findBudgetIdsOverlapping(Integer userId, Integer categoryId, LocalDate fromDate, LocalDate toDate) {
+        BudgetIntervalTree tree = budgetIntervals.get(userId, this::loadBudgetIntervals).get(categoryId);
+        return tree == null ? new ArrayList<>() : tree.findOverlapping(fromDate, toDate);
+    }
+
+    /**
+     * Recomputes budgets from the daily rollup with set-based updates.
+     * Called by BudgetRecalculationWorker after expense changes have committed, in its own transaction.
+     * @param userId The user who owns the budgets.
+     * @param budgetIds The budgets to recalculate.
+     */
+    @Transactional
+    public void recalculateBudgets(Integer userId, Collection<Integer> budgetIds) {
+        if (budgetIds.isEmpty()) {
+            return;
         }
+        budgetRepository.recomputeSpentAmounts(budgetIds);
+        budgetRepository.refreshRemainingAndStatus(budgetIds, LocalDate.now(), LocalDateTime.now());
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+        changeLogService.recordAll(user, ChangeEntityType.BUDGET, budgetIds, ChangeOperation.UPDATED);
+        dataVersionService.bump(user.getEmail());
+    }
+
+    /**
+     * Recomputes a budget's spent amount from scratch. Expense writes keep budgets current through
+     * BudgetRecalculationWorker, so this is the repair path for drift (lost queued work, manual database fixes).
+     * @param budgetId The budget ID.
+     * @param userEmail The user's email.
+     * @return The recalculated budget.
+     */
+    @Transactional
+    public BudgetDTO recalculateBudget(Integer budgetId, String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        Budget budget = budgetRepository.findByIdAndUser(budgetId, user)
+                .orElseThrow(() -> new IllegalStateException("Budget not found or access denied."));
+
+        recalculateBudget(budget);
+        Budget recalculatedBudget = budgetRepository.save(budget);
+        changeLogService.record(user, ChangeEntityType.BUDGET, budgetId, ChangeOperation.UPDATED);
+        dataVersionService.bump(userEmail);
+        return convertToDTO(recalculatedBudget);
     }
 
     private void recalculateBudget(Budget budget) {
-        // Fetch all expenses for the user, category, and date range of the budget
-        List<Expense> expensesInPeriod = expenseRepository.findAllByUserAndCategoryAndTransactionDateBetween(
+        // Sum the daily rollup rows for the category subtree and date range of the budget
+        BigDecimal totalSpent = rollupRepository.sumByUserAndCategorySubtreeAndDateBetween(
                 budget.getUser(), budget.getCategory(), budget.getStartDate(), budget.getEndDate()
         );
 
-        // Sum the amounts of these expenses
-        BigDecimal totalSpent = expensesInPeriod.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
         // Update the spentAmount and remainingAmount
         budget.setSpentAmount(totalSpent);
         budget.setRemainingAmount(budget.getAmount().subtract(totalSpent));
@@ -192,6 +295,62 @@ public class BudgetService {
         }
     }
 
+    private Map<Integer, BudgetIntervalTree> loadBudgetIntervals(Integer userId) {
+        Map<Integer, List<BudgetIntervalTree.Period>> periodsByCategory = new HashMap<>();
+        for (Object[] row : budgetRepository.findPeriodsByUserId(userId)) {
+            periodsByCategory.computeIfAbsent((Integer) row[1], key -> new ArrayList<>())
+                    .add(new BudgetIntervalTree.Period((Integer) row[0], (LocalDate) row[2], (LocalDate) row[3]));
+        }
+        Map<Integer, BudgetIntervalTree> trees = new HashMap<>();
+        periodsByCategory.forEach((categoryId, periods) -> trees.put(categoryId, new BudgetIntervalTree(periods)));
+        return trees;
+    }
+
+    /**
+     * Drops a user's budget interval index after budgets were created or changed outside this service.
+     * @param userId The user ID.
+     */
+    public void invalidateBudgetIntervals(Integer userId) {
+        CacheInvalidation.invalidateNowAndAfterCommit(budgetIntervals, userId);
+    }
+
+    // Maps a projected listing row to the DTO without touching any managed entity
+    private BudgetDTO convertToDTO(BudgetListRowDTO row) {
+        BudgetDTO dto = new BudgetDTO();
+        dto.setBudgetId(row.getBudgetId());
+        dto.setUserId(row.getUserId());
+        dto.setCategory(convertRowCategoryToDTO(row));
+        dto.setAmount(row.getAmount());
+        dto.setSpentAmount(row.getSpentAmount());
+        dto.setRemainingAmount(row.getRemainingAmount());
+        dto.setStartDate(row.getStartDate());
+        dto.setEndDate(row.getEndDate());
+        dto.setStatus(row.getStatus());
+        dto.setTemplateId(row.getTemplateId());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpdatedAt(row.getUpdatedAt());
+        return dto;
+    }
+
+    private CategoryDTO convertRowCategoryToDTO(BudgetListRowDTO row) {
+        if (row.getCategoryId() == null) {
+            return null;
+        }
+        CategoryDTO dto = new CategoryDTO();
+        dto.setCategoryId(row.getCategoryId());
+        dto.setCategoryName(row.getCategoryName());
+        dto.setType(row.getCategoryType());
+        dto.setIcon(row.getCategoryIcon());
+        dto.setColor(row.getCategoryColor());
+        dto.setSortOrder(row.getCategorySortOrder());
+        dto.setDefault(Boolean.TRUE.equals(row.getCategoryDefault()));
+        dto.setActive(Boolean.TRUE.equals(row.getCategoryActive()));
+        dto.setParentCategoryId(row.getParentCategoryId());
+        dto.setCreatedAt(row.getCategoryCreatedAt());
+        dto.setUpdatedAt(row.getCategoryUpdatedAt());
+        return dto;
+    }
+
     // Helper method to convert Budget entity to DTO
     private BudgetDTO convertToDTO(Budget budget) {
         if (budget == null) {
@@ -208,6 +367,9 @@ public class BudgetService {
         dto.setStartDate(budget.getStartDate());
         dto.setEndDate(budget.getEndDate());
         dto.setStatus(budget.getStatus());
+        if (budget.getTemplate() != null) {
+            dto.setTemplateId(budget.getTemplate().getTemplateId());
+        }
         dto.setCreatedAt(budget.getCreatedAt());
         dto.setUpdatedAt(budget.getUpdatedAt());
 
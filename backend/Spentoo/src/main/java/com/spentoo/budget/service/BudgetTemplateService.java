@@ -0,0 +1,168 @@
+package com.spentoo.budget.service;
+
+import com.spentoo.budget.dto.BudgetTemplateDTO;
+import com.spentoo.budget.dto.CreateBudgetTemplateRequestDTO;
+import com.spentoo.budget.dto.UpdateBudgetTemplateRequestDTO;
+import com.spentoo.budget.model.BudgetTemplate;
+import com.spentoo.budget.repository.BudgetRepository;
+import com.spentoo.budget.repository.BudgetTemplateRepository;
+import com.spentoo.category.model.Category;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class BudgetTemplateService {
+
+    private final BudgetTemplateRepository templateRepository;
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final BudgetRolloverService rolloverService;
+    private final ChangeLogService changeLogService;
+    private final DataVersionService dataVersionService;
+
+    public BudgetTemplateService(BudgetTemplateRepository templateRepository, BudgetRepository budgetRepository,
+                                 UserRepository userRepository, CategoryRepository categoryRepository,
+                                 BudgetRolloverService rolloverService, ChangeLogService changeLogService,
+                                 DataVersionService dataVersionService) {
+        this.templateRepository = templateRepository;
+        this.budgetRepository = budgetRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.rolloverService = rolloverService;
+        this.changeLogService = changeLogService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Transactional
+    public BudgetTemplateDTO createTemplate(CreateBudgetTemplateRequestDTO requestDTO, String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        // Same category rules as one-off budgets
+        Category category = categoryRepository.findById(requestDTO.getCategoryId())
+                .filter(cat -> cat.getUser().getUserId().equals(user.getUserId()))
+                .orElseThrow(() -> new IllegalStateException("Category not found or access denied."));
+
+        if (!category.isActive()) {
+            throw new IllegalStateException("Cannot create budget for inactive categories.");
+        }
+
+        if (!category.isBudgetable()) {
+            throw new IllegalStateException("Budgets cannot be set for non-budgetable categories (e.g., savings, goals).");
+        }
+
+        // Started periods are created within this request, so only the current and the previous one may have started
+        if (requestDTO.getStartDate().isBefore(BudgetRolloverService.periodStartBefore(requestDTO.getPeriod(), LocalDate.now()))) {
+            throw new IllegalStateException("Start date must not be more than one period in the past.");
+        }
+
+        BudgetTemplate template = new BudgetTemplate();
+        template.setUser(user);
+        template.setCategory(category);
+        template.setAmount(requestDTO.getAmount());
+        template.setPeriod(requestDTO.getPeriod());
+        template.setCarryOver(requestDTO.isCarryOver());
+        template.setNextStartDate(requestDTO.getStartDate());
+        template.setActive(true);
+        BudgetTemplate savedTemplate = templateRepository.save(template);
+
+        // Create the periods that have already started, so the current budget exists right away
+        rolloverService.rollOverTemplate(savedTemplate.getTemplateId());
+        dataVersionService.bump(userEmail);
+        // Reload, since the rollover moved the template's next start date with a bulk update
+        return templateRepository.findByIdAndUser(savedTemplate.getTemplateId(), user)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new IllegalStateException("Budget template not found or access denied."));
+    }
+
+    @Transactional
+    public BudgetTemplateDTO updateTemplate(Integer templateId, UpdateBudgetTemplateRequestDTO requestDTO, String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        BudgetTemplate template = templateRepository.findByIdAndUser(templateId, user)
+                .orElseThrow(() -> new IllegalStateException("Budget template not found or access denied."));
+
+        // Changes apply from the next period on; budgets already created keep their amounts
+        if (requestDTO.getAmount() != null) {
+            template.setAmount(requestDTO.getAmount());
+        }
+        if (requestDTO.getCarryOver() != null) {
+            template.setCarryOver(requestDTO.getCarryOver());
+        }
+        if (requestDTO.getActive() != null) {
+            template.setActive(requestDTO.getActive());
+        }
+
+        BudgetTemplate updatedTemplate = templateRepository.save(template);
+        dataVersionService.bump(userEmail);
+        return convertToDTO(updatedTemplate);
+    }
+
+    @Transactional
+    public void deleteTemplate(Integer templateId, String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        BudgetTemplate template = templateRepository.findByIdAndUser(templateId, user)
+                .orElseThrow(() -> new IllegalStateException("Budget template not found or access denied."));
+
+        // Budgets already created from the template stay as one-off budgets; their templateId changes, so sync
+        // clients get an update for each
+        List<Integer> budgetIds = budgetRepository.findIdsByTemplateId(templateId);
+        budgetRepository.detachFromTemplate(templateId, LocalDateTime.now());
+        templateRepository.delete(template);
+        changeLogService.recordAll(user, ChangeEntityType.BUDGET, budgetIds, ChangeOperation.UPDATED);
+        dataVersionService.bump(userEmail);
+    }
+
+    @Transactional(readOnly = true)
+    public BudgetTemplateDTO getSingleTemplate(Integer templateId, String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        return templateRepository.findByIdAndUser(templateId, user)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new IllegalStateException("Budget template not found or access denied."));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BudgetTemplateDTO> getAllTemplates(String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        return templateRepository.findAllByUser(user)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    private BudgetTemplateDTO convertToDTO(BudgetTemplate template) {
+        BudgetTemplateDTO dto = new BudgetTemplateDTO();
+        dto.setTemplateId(template.getTemplateId());
+        dto.setUserId(template.getUser().getUserId());
+        dto.setCategoryId(template.getCategory().getCategoryId());
+        dto.setCategoryName(template.getCategory().getCategoryName());
+        dto.setAmount(template.getAmount());
+        dto.setPeriod(template.getPeriod());
+        dto.setCarryOver(template.isCarryOver());
+        dto.setNextStartDate(template.getNextStartDate());
+        dto.setActive(template.isActive());
+        dto.setCreatedAt(template.getCreatedAt());
+        dto.setUpdatedAt(template.getUpdatedAt());
+        return dto;
+    }
+}
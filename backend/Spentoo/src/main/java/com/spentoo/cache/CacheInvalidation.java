@@ -0,0 +1,33 @@
+package com.spentoo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidation for per-user caches that are loaded from the database.
+ * An entry is dropped when the change is made and again after the transaction commits. Without the second drop,
+ * a request that reloaded the entry between the change and the commit would keep the pre-commit data cached.
+ */
+public final class CacheInvalidation {
+
+    private CacheInvalidation() {
+    }
+
+    /**
+     * Drops a cache entry now and, inside a transaction, again after commit.
+     * @param cache The cache.
+     * @param key The key to drop.
+     */
+    public static <K> void invalidateNowAndAfterCommit(Cache<K, ?> cache, K key) {
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.spentoo.category.controller;
 
 import com.spentoo.category.dto.CategoryDTO;
+import com.spentoo.category.dto.CategoryImportReportDTO;
+import com.spentoo.category.dto.CategoryMergeResultDTO;
 import com.spentoo.category.dto.CreateCategoryRequestDTO;
 import com.spentoo.category.dto.RenameCategoryRequestDTO;
 import com.spentoo.category.dto.UpdateCategoryRequestDTO;
+import com.spentoo.category.service.CategoryImportService;
+import com.spentoo.category.service.CategoryMergeService;
 import com.spentoo.category.service.CategoryService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -19,9 +23,14 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CategoryImportService categoryImportService;
+    private final CategoryMergeService categoryMergeService;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CategoryImportService categoryImportService,
+                              CategoryMergeService categoryMergeService) {
         this.categoryService = categoryService;
+        this.categoryImportService = categoryImportService;
+        this.categoryMergeService = categoryMergeService;
     }
 
     @PostMapping
@@ -34,8 +43,10 @@ public class CategoryController {
 
     @GetMapping
     public ResponseEntity<List<CategoryDTO>> getAllCategories(
+            @RequestParam(value = "view", defaultValue = "flat") String view,
             @AuthenticationPrincipal String userEmail) {
-        List<CategoryDTO> categories = categoryService.getAllCategories(userEmail);
+        // view=tree returns top-level categories with nested sub-categories; the default is a flat list with parent IDs
+        List<CategoryDTO> categories = categoryService.getAllCategories(userEmail, "tree".equalsIgnoreCase(view));
         return new ResponseEntity<>(categories, HttpStatus.OK);
     }
 
@@ -89,15 +100,24 @@ public class CategoryController {
         return new ResponseEntity<>(renamedCategory, HttpStatus.OK);
     }
 
+    @PostMapping("/{id}/merge-into/{targetId}")
+    public ResponseEntity<CategoryMergeResultDTO> mergeCategory(
+            @PathVariable("id") Integer id,
+            @PathVariable("targetId") Integer targetId,
+            @AuthenticationPrincipal String userEmail) {
+        CategoryMergeResultDTO result = categoryMergeService.mergeCategory(id, targetId, userEmail);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @PostMapping("/import")
-    public ResponseEntity<String> importCategories(
+    public ResponseEntity<CategoryImportReportDTO> importCategories(
             @RequestParam("file") MultipartFile file,
             @AuthenticationPrincipal String userEmail) throws Exception {
         if (file.isEmpty()) {
-            return new ResponseEntity<>("Please upload a CSV file.", HttpStatus.BAD_REQUEST);
+            throw new IllegalStateException("Please upload a CSV file.");
         }
 
-        categoryService.importCategories(file, userEmail);
-        return new ResponseEntity<>("Categories imported successfully.", HttpStatus.CREATED);
+        CategoryImportReportDTO report = categoryImportService.importCategories(file, userEmail);
+        return new ResponseEntity<>(report, HttpStatus.CREATED);
     }
 }
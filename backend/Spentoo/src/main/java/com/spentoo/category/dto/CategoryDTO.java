@@ -3,7 +3,7 @@ package com.spentoo.category.dto;
 import com.spentoo.category.model.CategoryType;
 import lombok.Data;
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.List;
 
 @Data
 public class CategoryDTO {
@@ -17,7 +17,7 @@ public class CategoryDTO {
     private boolean isDefault;
     private boolean isActive;
     private Integer parentCategoryId;
-    private Set<CategoryDTO> subCategories;
+    private List<CategoryDTO> subCategories; // Only filled in the tree view of the category listing
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
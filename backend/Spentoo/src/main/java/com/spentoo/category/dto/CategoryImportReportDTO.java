@@ -0,0 +1,16 @@
+package com.spentoo.category.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CategoryImportReportDTO {
+
+    private long totalRows;
+    private long importedRows;
+    private long skippedRows;
+    private long failedRows;
+    private List<CategoryImportRowDTO> rows = new ArrayList<>(); // One entry per data row, in file order
+}
@@ -0,0 +1,21 @@
+package com.spentoo.category.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CategoryImportRowDTO {
+
+    public enum Status {
+        IMPORTED,
+        SKIPPED, // Already exists, or repeats an earlier row of the file
+        FAILED
+    }
+
+    private long rowNumber; // 1-based line number in the uploaded file
+    private String categoryName;
+    private Status status;
+    private Integer categoryId; // Set for imported rows
+    private String message;
+}
@@ -0,0 +1,15 @@
+package com.spentoo.category.dto;
+
+import lombok.Data;
+
+@Data
+public class CategoryMergeResultDTO {
+
+    private CategoryDTO targetCategory; // The category that now holds the merged rows
+    private Integer mergedCategoryId; // The source category, now inactive
+    private int expensesMoved;
+    private int incomesMoved;
+    private int budgetsMoved;
+    private int budgetTemplatesMoved;
+    private int recurringTransactionsMoved;
+}
@@ -0,0 +1,19 @@
+package com.spentoo.category.repository;
+
+import com.spentoo.category.model.Category;
+
+import java.util.List;
+
+/**
+ * Custom CategoryRepository fragment for inserting many categories with few statements.
+ */
+public interface CategoryBatchInsertRepository {
+
+    /**
+     * Inserts new categories with multi-row statements and sets their generated IDs and timestamps.
+     * The categories are not attached to the persistence context; user and parent only need IDs.
+     * @param categories The categories to insert, all without an ID.
+     * @return The same categories, in the same order, with their IDs set.
+     */
+    List<Category> insertAll(List<Category> categories);
+}
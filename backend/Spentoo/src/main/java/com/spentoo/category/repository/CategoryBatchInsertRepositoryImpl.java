@@ -0,0 +1,82 @@
+package com.spentoo.category.repository;
+
+import com.spentoo.category.model.Category;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts categories with one multi-row statement per chunk instead of one INSERT per row.
+ * Works like ExpenseBatchInsertRepositoryImpl: a MERGE that never matches returns each IDENTITY value together with
+ * the position of its source row.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+public class CategoryBatchInsertRepositoryImpl implements CategoryBatchInsertRepository {
+
+    // SQL Server accepts at most 2100 parameters per statement; 14 per row
+    private static final int ROWS_PER_STATEMENT = 125;
+    private static final int[] ROW_TYPES = {
+            Types.INTEGER, Types.INTEGER, Types.NVARCHAR, Types.VARCHAR, Types.NVARCHAR, Types.NVARCHAR, Types.INTEGER,
+            Types.BIT, Types.BIT, Types.BIT, Types.BIT, Types.INTEGER, Types.TIMESTAMP, Types.TIMESTAMP
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CategoryBatchInsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Category> insertAll(List<Category> categories) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Category category : categories) {
+            category.setCreatedAt(now);
+            category.setUpdatedAt(now);
+        }
+        for (int from = 0; from < categories.size(); from += ROWS_PER_STATEMENT) {
+            insertChunk(categories.subList(from, Math.min(from + ROWS_PER_STATEMENT, categories.size())));
+        }
+        return categories;
+    }
+
+    private void insertChunk(List<Category> chunk) {
+        StringBuilder sql = new StringBuilder("MERGE INTO Category AS c USING (VALUES ");
+        List<Object> args = new ArrayList<>(chunk.size() * ROW_TYPES.length);
+        int[] argTypes = new int[chunk.size() * ROW_TYPES.length];
+        for (int i = 0; i < chunk.size(); i++) {
+            Category category = chunk.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            args.add(i);
+            args.add(category.getUser().getUserId());
+            args.add(category.getCategoryName());
+            args.add(category.getType().name());
+            args.add(category.getIcon());
+            args.add(category.getColor());
+            args.add(category.getSortOrder());
+            args.add(category.isDefault());
+            args.add(category.isActive());
+            args.add(category.isSystemGenerated());
+            args.add(category.isBudgetable());
+            args.add(category.getParentCategory() != null ? category.getParentCategory().getCategoryId() : null);
+            args.add(Timestamp.valueOf(category.getCreatedAt()));
+            args.add(Timestamp.valueOf(category.getUpdatedAt()));
+            System.arraycopy(ROW_TYPES, 0, argTypes, i * ROW_TYPES.length, ROW_TYPES.length);
+        }
+        sql.append(") AS s (RowIndex, UserID, CategoryName, Type, Icon, Color, SortOrder, IsDefault, IsActive, ")
+                .append("IsSystemGenerated, IsBudgetable, ParentCategoryID, CreatedAt, UpdatedAt) ")
+                .append("ON 1 = 0 ")
+                .append("WHEN NOT MATCHED THEN INSERT (UserID, CategoryName, Type, Icon, Color, SortOrder, IsDefault, ")
+                .append("IsActive, IsSystemGenerated, IsBudgetable, ParentCategoryID, CreatedAt, UpdatedAt) ")
+                .append("VALUES (s.UserID, s.CategoryName, s.Type, s.Icon, s.Color, s.SortOrder, s.IsDefault, ")
+                .append("s.IsActive, s.IsSystemGenerated, s.IsBudgetable, s.ParentCategoryID, s.CreatedAt, s.UpdatedAt) ")
+                .append("OUTPUT s.RowIndex, INSERTED.CategoryID;");
+
+        jdbcTemplate.query(sql.toString(), args.toArray(), argTypes,
+                (RowCallbackHandler) rs -> chunk.get(rs.getInt(1)).setCategoryId(rs.getInt(2)));
+    }
+}
@@ -0,0 +1,127 @@
+package com.spentoo.category.repository;
+
+import com.spentoo.category.model.Category;
+import com.spentoo.category.model.CategoryClosure;
+import com.spentoo.user.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, Long> {
+
+    /**
+     * Inserts the depth-0 row pairing a new category with itself.
+     * @param category The category.
+     * @return The number of rows inserted.
+     */
+    @Modifying
+    @Query("INSERT INTO CategoryClosure (ancestor, descendant, depth) " +
+           "SELECT c, c, 0 FROM Category c WHERE c = :category")
+    int insertSelf(@Param("category") Category category);
+
+    /**
+     * Inserts the depth-0 rows of many new categories at once.
+     * @param categoryIds The category IDs.
+     * @return The number of rows inserted.
+     */
+    @Modifying
+    @Query("INSERT INTO CategoryClosure (ancestor, descendant, depth) " +
+           "SELECT c, c, 0 FROM Category c WHERE c.categoryId IN :categoryIds")
+    int insertSelfAll(@Param("categoryIds") Collection<Integer> categoryIds);
+
+    /**
+     * Links many new leaf categories under their parents at once. The parents' own rows must already exist.
+     * @param categoryIds The category IDs.
+     * @return The number of rows inserted.
+     */
+    @Modifying
+    @Query("INSERT INTO CategoryClosure (ancestor, descendant, depth) " +
+           "SELECT a.ancestor, c, a.depth + 1 FROM Category c, CategoryClosure a " +
+           "WHERE c.categoryId IN :categoryIds AND a.descendant = c.parentCategory")
+    int insertUnderParentsAll(@Param("categoryIds") Collection<Integer> categoryIds);
+
+    /**
+     * Links a subtree under a new parent: every ancestor of the parent (the parent included) becomes an ancestor
+     * of every category in the subtree (its root included).
+     * @param parent The new parent.
+     * @param category The root of the subtree.
+     * @return The number of rows inserted.
+     */
+    @Modifying
+    @Query("INSERT INTO CategoryClosure (ancestor, descendant, depth) " +
+           "SELECT a.ancestor, d.descendant, a.depth + d.depth + 1 " +
+           "FROM CategoryClosure a, CategoryClosure d " +
+           "WHERE a.descendant = :parent AND d.ancestor = :category")
+    int insertSubtreeUnder(@Param("parent") Category parent, @Param("category") Category category);
+
+    /**
+     * Cuts a subtree loose from its current ancestors, keeping the pairs inside the subtree.
+     * @param category The root of the subtree.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM CategoryClosure cc " +
+           "WHERE cc.descendant IN (SELECT d.descendant FROM CategoryClosure d WHERE d.ancestor = :category) " +
+           "AND cc.ancestor NOT IN (SELECT d.descendant FROM CategoryClosure d WHERE d.ancestor = :category)")
+    int detachSubtree(@Param("category") Category category);
+
+    /**
+     * Checks whether one category lies in the subtree of another (or is the same category).
+     */
+    boolean existsByAncestorAndDescendant(Category ancestor, Category descendant);
+
+    /**
+     * Lists a category and all of its descendants.
+     * @param category The category.
+     * @return The category IDs of the subtree, the category itself included.
+     */
+    @Query("SELECT cc.descendant.categoryId FROM CategoryClosure cc WHERE cc.ancestor = :category")
+    List<Integer> findSubtreeIds(@Param("category") Category category);
+
+    /**
+     * Checks whether a category has an active descendant at any depth.
+     */
+    @Query("SELECT CASE WHEN COUNT(cc) > 0 THEN true ELSE false END FROM CategoryClosure cc " +
+           "WHERE cc.ancestor = :category AND cc.depth > 0 AND cc.descendant.isActive = true")
+    boolean existsActiveDescendant(@Param("category") Category category);
+
+    /**
+     * Checks whether a category has an inactive ancestor at any depth.
+     */
+    @Query("SELECT CASE WHEN COUNT(cc) > 0 THEN true ELSE false END FROM CategoryClosure cc " +
+           "WHERE cc.descendant = :category AND cc.depth > 0 AND cc.ancestor.isActive = false")
+    boolean existsInactiveAncestor(@Param("category") Category category);
+
+    /**
+     * Lists the proper ancestors of a category, nearest first.
+     * @param category The category.
+     * @return The ancestor category IDs.
+     */
+    @Query("SELECT cc.ancestor.categoryId FROM CategoryClosure cc " +
+           "WHERE cc.descendant = :category AND cc.depth > 0 " +
+           "ORDER BY cc.depth")
+    List<Integer> findAncestorIds(@Param("category") Category category);
+
+    /**
+     * Deletes all closure rows of a user's categories, before rebuilding them from the parent links.
+     */
+    @Modifying
+    @Query("DELETE FROM CategoryClosure cc " +
+           "WHERE cc.descendant IN (SELECT c FROM Category c WHERE c.user = :user)")
+    int deleteAllByUser(@Param("user") User user);
+
+    /**
+     * Returns the users that have categories without a closure row, e.g. categories created before the closure
+     * table existed.
+     * @return A list of user IDs.
+     */
+    @Query("SELECT DISTINCT c.user.userId FROM Category c " +
+           "WHERE NOT EXISTS (SELECT cc FROM CategoryClosure cc WHERE cc.ancestor = c AND cc.descendant = c)")
+    List<Integer> findUserIdsWithMissingRows();
+}
@@ -3,13 +3,16 @@ package com.spentoo.category.repository;
 import com.spentoo.category.model.Category;
 import com.spentoo.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Integer> {
+public interface CategoryRepository extends JpaRepository<Category, Integer>, CategoryBatchInsertRepository {
 
     /**
      * Finds a category by its name, ignoring case.
@@ -35,6 +38,14 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
      */
     List<Category> findAllByUser(User user);
 
+    /**
+     * Finds specific categories of a user (both active and inactive).
+     * @param user The user.
+     * @param categoryIds The category IDs to load.
+     * @return The matching categories.
+     */
+    List<Category> findAllByUserAndCategoryIdIn(User user, Collection<Integer> categoryIds);
+
     /**
      * Finds an active category by its name, ignoring case.
      * Used to prevent name conflicts when restoring or creating a category.
@@ -84,4 +95,24 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
      * @return A list of active subcategories.
      */
     List<Category> findAllByUserAndParentCategoryAndIsActiveTrue(User user, Category parentCategory);
+
+    /**
+     * Lists the parent link of every category of a user, for rebuilding the category closure table.
+     * @param user The user whose categories to list.
+     * @return One Object[] per category: category ID, parent category ID (null for top-level categories).
+     */
+    @Query("SELECT c.categoryId, p.categoryId FROM Category c LEFT JOIN c.parentCategory p WHERE c.user = :user")
+    List<Object[]> findParentLinksByUser(@Param("user") User user);
+
+    /**
+     * Finds a user's system-generated categories by name (case-insensitive), e.g. all of the fixed reference
+     * categories in one query.
+     * @param userId The user ID.
+     * @param lowerCaseNames The names, in lower case.
+     * @return The matching system-generated categories.
+     */
+    @Query("SELECT c FROM Category c WHERE c.user.userId = :userId AND c.isSystemGenerated = true " +
+           "AND LOWER(c.categoryName) IN :lowerCaseNames")
+    List<Category> findSystemGeneratedByUserIdAndLowerCaseNameIn(@Param("userId") Integer userId,
+                                                                 @Param("lowerCaseNames") Collection<String> lowerCaseNames);
 }
@@ -0,0 +1,177 @@
+package com.spentoo.category.service;
+
+import com.spentoo.category.model.Category;
+import com.spentoo.category.model.CategoryClosure;
+import com.spentoo.category.repository.CategoryClosureRepository;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the CategoryClosure table.
+ * Writes join the caller's transaction, so the closure commits or rolls back together with the category change.
+ */
+@Service
+public class CategoryClosureService {
+
+    private final CategoryClosureRepository closureRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CategoryClosureService(CategoryClosureRepository closureRepository, CategoryRepository categoryRepository,
+                                  UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.closureRepository = closureRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adds the closure rows of a newly saved category.
+     * @param category The category, already saved (its ID is needed).
+     */
+    @Transactional
+    public void addCategory(Category category) {
+        closureRepository.insertSelf(category);
+        if (category.getParentCategory() != null) {
+            closureRepository.insertSubtreeUnder(category.getParentCategory(), category);
+        }
+    }
+
+    /**
+     * Adds the closure rows of many newly saved categories with two statements.
+     * Parents must already have their rows, so callers pass one tree level at a time, top level first.
+     * @param categoryIds The category IDs of one tree level.
+     */
+    @Transactional
+    public void addCategories(Collection<Integer> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        closureRepository.insertSelfAll(categoryIds);
+        closureRepository.insertUnderParentsAll(categoryIds);
+    }
+
+    /**
+     * Moves a category and its subtree under a new parent.
+     * @param category The category to move.
+     * @param newParent The new parent.
+     * @throws IllegalStateException If the new parent lies inside the category's own subtree.
+     */
+    @Transactional
+    public void moveCategory(Category category, Category newParent) {
+        if (closureRepository.existsByAncestorAndDescendant(category, newParent)) {
+            throw new IllegalStateException("A category cannot be moved under itself or one of its sub-categories.");
+        }
+        closureRepository.detachSubtree(category);
+        closureRepository.insertSubtreeUnder(newParent, category);
+    }
+
+    /**
+     * Lists the proper ancestors of a category, nearest first.
+     * @param category The category.
+     * @return The ancestor category IDs.
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> getAncestorIds(Category category) {
+        return closureRepository.findAncestorIds(category);
+    }
+
+    /**
+     * Lists a category and all of its descendants, for aggregates over a subtree.
+     * @param category The category.
+     * @return The category IDs of the subtree, the category itself included.
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> getSubtreeIds(Category category) {
+        return closureRepository.findSubtreeIds(category);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasActiveDescendant(Category category) {
+        return closureRepository.existsActiveDescendant(category);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasInactiveAncestor(Category category) {
+        return closureRepository.existsInactiveAncestor(category);
+    }
+
+    /**
+     * Rebuilds the closure rows of one user from the parent links.
+     * @param user The user.
+     * @return The number of closure rows created.
+     */
+    @Transactional
+    public int rebuildForUser(User user) {
+        Map<Integer, Integer> parentById = new HashMap<>();
+        for (Object[] row : categoryRepository.findParentLinksByUser(user)) {
+            parentById.put((Integer) row[0], (Integer) row[1]);
+        }
+        closureRepository.deleteAllByUser(user);
+
+        List<CategoryClosure> rows = new ArrayList<>();
+        for (Integer categoryId : parentById.keySet()) {
+            Category descendant = categoryRepository.getReferenceById(categoryId);
+            Set<Integer> seen = new HashSet<>(); // Guards against parent cycles left by older data
+            Integer ancestorId = categoryId;
+            int depth = 0;
+            while (ancestorId != null && seen.add(ancestorId)) {
+                CategoryClosure row = new CategoryClosure();
+                row.setAncestor(categoryRepository.getReferenceById(ancestorId));
+                row.setDescendant(descendant);
+                row.setDepth(depth++);
+                rows.add(row);
+                ancestorId = parentById.get(ancestorId);
+            }
+        }
+        closureRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    /**
+     * Rebuilds the closure for the given users, one transaction per user.
+     * @param userIds The users to rebuild.
+     */
+    public void rebuild(List<Integer> userIds) {
+        long rows = 0;
+        for (Integer userId : userIds) {
+            Integer created = transactionTemplate.execute(status -> rebuildForUser(userRepository.getReferenceById(userId)));
+            rows += created != null ? created : 0;
+        }
+        System.out.println("Category closure rebuilt for " + userIds.size() + " users (" + rows + " rows).");
+    }
+
+    /**
+     * Rebuilds the closure for every user. Disabled unless spentoo.category.closure-rebuild-cron is set.
+     */
+    @Scheduled(cron = "${spentoo.category.closure-rebuild-cron:-}")
+    public void rebuildAll() {
+        rebuild(userRepository.findAllUserIds());
+    }
+
+    // Backfills users whose categories predate the closure table; a no-op once every category has its row
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        List<Integer> userIds = closureRepository.findUserIdsWithMissingRows();
+        if (!userIds.isEmpty()) {
+            rebuild(userIds);
+        }
+    }
+}
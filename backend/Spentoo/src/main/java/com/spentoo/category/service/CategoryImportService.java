@@ -0,0 +1,403 @@
+package com.spentoo.category.service;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.spentoo.category.dto.CategoryImportReportDTO;
+import com.spentoo.category.dto.CategoryImportRowDTO;
+import com.spentoo.category.model.Category;
+import com.spentoo.category.model.CategoryType;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.events.CategoryTreeChangedEvent;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Imports categories from CSV.
+ * The user's categories are loaded once and every name and parent is resolved in memory, so the reads do not
+ * grow with the file. Parents may be named in the same file, in any order; new categories are written one
+ * tree level at a time, in chunks, so each parent exists before its children. Rows that fail validation are
+ * reported individually and do not abort the import.
+ */
+@Service
+public class CategoryImportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int NAME_MAX_LENGTH = 100;
+
+    // Positions of the original export layout, used when the file has no recognisable header
+    private static final int LEGACY_NAME_COLUMN = 1;
+    private static final int LEGACY_TYPE_COLUMN = 2;
+    private static final int LEGACY_ICON_COLUMN = 3;
+    private static final int LEGACY_COLOR_COLUMN = 4;
+    private static final int LEGACY_SORT_ORDER_COLUMN = 5;
+    private static final int LEGACY_PARENT_ID_COLUMN = 6;
+
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final CategoryClosureService closureService;
+    private final ChangeLogService changeLogService;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryImportService(UserRepository userRepository, CategoryRepository categoryRepository,
+                                 CategoryService categoryService, CategoryClosureService closureService,
+                                 ChangeLogService changeLogService, DataVersionService dataVersionService,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryService = categoryService;
+        this.closureService = closureService;
+        this.changeLogService = changeLogService;
+        this.dataVersionService = dataVersionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public CategoryImportReportDTO importCategories(MultipartFile file, String userEmail)
+            throws IOException, CsvValidationException {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        // Inactive categories are included: the name is unique per user regardless of state
+        Map<String, Category> existingByName = new HashMap<>();
+        Map<Integer, Category> existingById = new HashMap<>();
+        for (Category category : categoryRepository.findAllByUser(user)) {
+            existingByName.put(normalizeName(category.getCategoryName()), category);
+            existingById.put(category.getCategoryId(), category);
+        }
+
+        CategoryImportReportDTO report = new CategoryImportReportDTO();
+        List<ImportRow> rows = new ArrayList<>();
+        Map<String, ImportRow> pendingByName = new HashMap<>();
+        Set<String> failedNames = new HashSet<>();
+
+        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+             CSVReader csvReader = new CSVReader(reader)) {
+            ColumnIndexes columns = resolveColumns(csvReader.readNext());
+            String[] line;
+            while ((line = csvReader.readNext()) != null) {
+                if (isBlankLine(line)) {
+                    continue;
+                }
+                ImportRow row = new ImportRow(csvReader.getLinesRead(), cell(line, columns.name));
+                rows.add(row);
+                try {
+                    parseRow(row, line, columns, existingById);
+                } catch (IllegalStateException e) {
+                    row.fail(e.getMessage());
+                    if (row.key != null) {
+                        failedNames.add(row.key);
+                    }
+                    continue;
+                }
+                if (existingByName.containsKey(row.key)) {
+                    row.skip("Category already exists.");
+                } else if (pendingByName.containsKey(row.key)) {
+                    row.skip("Duplicate of row " + pendingByName.get(row.key).rowNumber + ".");
+                } else {
+                    pendingByName.put(row.key, row);
+                }
+            }
+        }
+
+        linkParents(pendingByName, existingByName, failedNames);
+        List<Integer> savedIds = saveByLevel(user, pendingByName.values());
+
+        if (!savedIds.isEmpty()) {
+            if (pendingByName.values().stream().anyMatch(row -> row.result == null && row.hasParent())) {
+                eventPublisher.publishEvent(new CategoryTreeChangedEvent(this, user.getUserId(), List.of()));
+            }
+            changeLogService.recordAll(user, ChangeEntityType.CATEGORY, savedIds, ChangeOperation.CREATED);
+            categoryService.evictCategoryTree(user.getUserId());
+        }
+        dataVersionService.bump(userEmail);
+
+        for (ImportRow row : rows) {
+            CategoryImportRowDTO result = row.result != null ? row.result
+                    : new CategoryImportRowDTO(row.rowNumber, row.name, CategoryImportRowDTO.Status.IMPORTED,
+                            row.category.getCategoryId(), null);
+            if (result.getStatus() == CategoryImportRowDTO.Status.IMPORTED) {
+                report.setImportedRows(report.getImportedRows() + 1);
+            } else if (result.getStatus() == CategoryImportRowDTO.Status.SKIPPED) {
+                report.setSkippedRows(report.getSkippedRows() + 1);
+            } else {
+                report.setFailedRows(report.getFailedRows() + 1);
+            }
+            report.getRows().add(result);
+        }
+        report.setTotalRows(rows.size());
+        return report;
+    }
+
+    private void parseRow(ImportRow row, String[] line, ColumnIndexes columns, Map<Integer, Category> existingById) {
+        if (row.name == null) {
+            throw new IllegalStateException("Category name is required.");
+        }
+        row.name = categoryService.formatCategoryName(row.name);
+        row.key = normalizeName(row.name);
+        if (row.name.length() > NAME_MAX_LENGTH) {
+            throw new IllegalStateException("Category name must be at most " + NAME_MAX_LENGTH + " characters.");
+        }
+
+        String type = cell(line, columns.type);
+        if (type == null) {
+            throw new IllegalStateException("Category type is required.");
+        }
+        try {
+            row.type = CategoryType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid category type: " + type);
+        }
+
+        row.icon = cell(line, columns.icon);
+        row.color = cell(line, columns.color);
+        String sortOrder = cell(line, columns.sortOrder);
+        if (sortOrder != null) {
+            try {
+                row.sortOrder = Integer.parseInt(sortOrder);
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Invalid sort order: " + sortOrder);
+            }
+        }
+
+        String parentName = cell(line, columns.parentName);
+        if (parentName != null) {
+            row.parentKey = normalizeName(categoryService.formatCategoryName(parentName));
+        }
+        String parentId = cell(line, columns.parentId);
+        if (row.parentKey == null && parentId != null) {
+            // Legacy files reference the parent by ID; only the user's own categories can match
+            Category parent;
+            try {
+                parent = existingById.get(Integer.parseInt(parentId));
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Invalid parent category ID: " + parentId);
+            }
+            if (parent == null) {
+                throw new IllegalStateException("Parent category not found: " + parentId);
+            }
+            row.existingParent = parent;
+        }
+    }
+
+    // Resolves every parent name against the user's categories, then the file itself, and gives each row its
+    // level below the nearest existing category; chains that end in a failed row or loop back are failed whole
+    private void linkParents(Map<String, ImportRow> pendingByName, Map<String, Category> existingByName,
+                             Set<String> failedNames) {
+        for (ImportRow row : pendingByName.values()) {
+            if (row.parentKey == null) {
+                continue;
+            }
+            Category existingParent = existingByName.get(row.parentKey);
+            if (existingParent != null) {
+                row.existingParent = existingParent;
+            } else if (pendingByName.containsKey(row.parentKey)) {
+                row.pendingParent = pendingByName.get(row.parentKey);
+            } else if (failedNames.contains(row.parentKey)) {
+                row.fail("Parent category '" + row.parentKey + "' could not be imported.");
+            } else {
+                row.fail("Parent category '" + row.parentKey + "' not found.");
+            }
+        }
+
+        for (ImportRow row : pendingByName.values()) {
+            Deque<ImportRow> chain = new ArrayDeque<>();
+            ImportRow current = row;
+            while (current != null && current.level < 0 && current.result == null && !current.visiting) {
+                current.visiting = true;
+                chain.push(current);
+                current = current.pendingParent;
+            }
+
+            String error = null;
+            int level = -1;
+            if (current != null) {
+                if (current.visiting) {
+                    error = "Parent categories form a cycle.";
+                } else if (current.result != null) {
+                    error = "Parent category '" + current.name + "' could not be imported.";
+                } else {
+                    level = current.level;
+                }
+            }
+            while (!chain.isEmpty()) {
+                ImportRow link = chain.pop();
+                link.visiting = false;
+                if (error != null) {
+                    link.fail(error);
+                } else {
+                    link.level = ++level;
+                }
+            }
+        }
+    }
+
+    // Saves the rows top level first, so every pending parent has its ID (and closure rows) before its children.
+    // Each chunk is written with multi-row statements rather than one INSERT per category
+    private List<Integer> saveByLevel(User user, Iterable<ImportRow> pending) {
+        TreeMap<Integer, List<ImportRow>> levels = new TreeMap<>();
+        for (ImportRow row : pending) {
+            if (row.result == null) {
+                levels.computeIfAbsent(row.level, level -> new ArrayList<>()).add(row);
+            }
+        }
+
+        List<Integer> savedIds = new ArrayList<>();
+        for (List<ImportRow> level : levels.values()) {
+            for (int start = 0; start < level.size(); start += CHUNK_SIZE) {
+                List<ImportRow> chunk = level.subList(start, Math.min(start + CHUNK_SIZE, level.size()));
+                List<Category> categories = new ArrayList<>(chunk.size());
+                for (ImportRow row : chunk) {
+                    row.category = toCategory(row, user);
+                    categories.add(row.category);
+                }
+                List<Integer> chunkIds = categoryRepository.insertAll(categories).stream()
+                        .map(Category::getCategoryId)
+                        .toList();
+                closureService.addCategories(chunkIds);
+                savedIds.addAll(chunkIds);
+            }
+        }
+        return savedIds;
+    }
+
+    private Category toCategory(ImportRow row, User user) {
+        Category category = new Category();
+        category.setCategoryName(row.name);
+        category.setType(row.type);
+        category.setUser(user);
+        category.setIcon(row.icon);
+        category.setColor(row.color);
+        category.setSortOrder(row.sortOrder);
+        category.setParentCategory(row.pendingParent != null ? row.pendingParent.category : row.existingParent);
+        category.setActive(true);
+        category.setDefault(false);
+        category.setSystemGenerated(false); // Imported categories are not system generated
+        return category;
+    }
+
+    // Columns are matched by header name (case, spaces and underscores ignored); files without a known
+    // header are read with the legacy layout, whose first row is always skipped
+    private ColumnIndexes resolveColumns(String[] header) {
+        ColumnIndexes columns = new ColumnIndexes();
+        if (header != null) {
+            for (int i = 0; i < header.length; i++) {
+                String name = header[i] == null ? "" : header[i].replaceAll("[\\s_\\-]", "").toLowerCase();
+                if (name.equals("categoryname") || name.equals("name")) {
+                    columns.name = i;
+                } else if (name.equals("type") || name.equals("categorytype")) {
+                    columns.type = i;
+                } else if (name.equals("icon")) {
+                    columns.icon = i;
+                } else if (name.equals("color") || name.equals("colour")) {
+                    columns.color = i;
+                } else if (name.equals("sortorder")) {
+                    columns.sortOrder = i;
+                } else if (name.equals("parent") || name.equals("parentcategory") || name.equals("parentcategoryname")) {
+                    columns.parentName = i;
+                } else if (name.equals("parentid") || name.equals("parentcategoryid")) {
+                    columns.parentId = i;
+                }
+            }
+        }
+        if (columns.name == null) {
+            columns = new ColumnIndexes();
+            columns.name = LEGACY_NAME_COLUMN;
+            columns.type = LEGACY_TYPE_COLUMN;
+            columns.icon = LEGACY_ICON_COLUMN;
+            columns.color = LEGACY_COLOR_COLUMN;
+            columns.sortOrder = LEGACY_SORT_ORDER_COLUMN;
+            columns.parentId = LEGACY_PARENT_ID_COLUMN;
+        }
+        return columns;
+    }
+
+    private String cell(String[] line, Integer index) {
+        if (index == null || index >= line.length || line[index] == null) {
+            return null;
+        }
+        String value = line[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private boolean isBlankLine(String[] line) {
+        for (String value : line) {
+            if (value != null && !value.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String normalizeName(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    private static final class ColumnIndexes {
+        private Integer name;
+        private Integer type;
+        private Integer icon;
+        private Integer color;
+        private Integer sortOrder;
+        private Integer parentName;
+        private Integer parentId;
+    }
+
+    private static final class ImportRow {
+        private final long rowNumber;
+        private String name;
+        private String key;
+        private CategoryType type;
+        private String icon;
+        private String color;
+        private Integer sortOrder;
+        private String parentKey;
+        private Category existingParent;
+        private ImportRow pendingParent;
+        private int level = -1; // Distance below the nearest existing category; 0 saves first
+        private boolean visiting;
+        private Category category; // Set once saved
+        private CategoryImportRowDTO result; // Set when the row is skipped or failed
+
+        private ImportRow(long rowNumber, String name) {
+            this.rowNumber = rowNumber;
+            this.name = name;
+        }
+
+        private boolean hasParent() {
+            return existingParent != null || pendingParent != null;
+        }
+
+        private void skip(String message) {
+            result = new CategoryImportRowDTO(rowNumber, name, CategoryImportRowDTO.Status.SKIPPED, null, message);
+        }
+
+        private void fail(String message) {
+            result = new CategoryImportRowDTO(rowNumber, name, CategoryImportRowDTO.Status.FAILED, null, message);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.spentoo.category.service;
+
+import com.spentoo.budget.repository.BudgetRepository;
+import com.spentoo.budget.repository.BudgetTemplateRepository;
+import com.spentoo.category.dto.CategoryMergeResultDTO;
+import com.spentoo.category.model.Category;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.events.CategoryTreeChangedEvent;
+import com.spentoo.expense.repository.ExpenseRepository;
+import com.spentoo.expense.service.ExpenseRollupService;
+import com.spentoo.income.repository.IncomeRepository;
+import com.spentoo.recurring.repository.RecurringTransactionRepository;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Merges one category into another, e.g. when a user cleans up duplicates.
+ * Every row referencing the source is moved with one UPDATE per table in a single transaction, the source is
+ * soft-deleted, and the affected budgets are recomputed once at the end instead of once per moved expense.
+ */
+@Service
+public class CategoryMergeService {
+
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+    private final BudgetRepository budgetRepository;
+    private final BudgetTemplateRepository budgetTemplateRepository;
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final ExpenseRollupService rollupService;
+    private final CategoryService categoryService;
+    private final CategoryClosureService closureService;
+    private final ChangeLogService changeLogService;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryMergeService(CategoryRepository categoryRepository, UserRepository userRepository,
+                                ExpenseRepository expenseRepository, IncomeRepository incomeRepository,
+                                BudgetRepository budgetRepository, BudgetTemplateRepository budgetTemplateRepository,
+                                RecurringTransactionRepository recurringTransactionRepository,
+                                ExpenseRollupService rollupService, CategoryService categoryService,
+                                CategoryClosureService closureService, ChangeLogService changeLogService,
+                                DataVersionService dataVersionService, ApplicationEventPublisher eventPublisher) {
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.expenseRepository = expenseRepository;
+        this.incomeRepository = incomeRepository;
+        this.budgetRepository = budgetRepository;
+        this.budgetTemplateRepository = budgetTemplateRepository;
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.rollupService = rollupService;
+        this.categoryService = categoryService;
+        this.closureService = closureService;
+        this.changeLogService = changeLogService;
+        this.dataVersionService = dataVersionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Moves every expense, income record, budget, budget template and recurring transaction of a category to
+     * another category of the same type, then soft-deletes the source.
+     * @param sourceCategoryId The category to merge away.
+     * @param targetCategoryId The category that receives the rows.
+     * @param userEmail The user's email.
+     * @return The target category and the number of rows moved per table.
+     */
+    @Transactional
+    public CategoryMergeResultDTO mergeCategory(Integer sourceCategoryId, Integer targetCategoryId, String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+        if (sourceCategoryId.equals(targetCategoryId)) {
+            throw new IllegalStateException("A category cannot be merged into itself.");
+        }
+        Category source = categoryRepository.findById(sourceCategoryId)
+                .filter(cat -> cat.getUser().getUserId().equals(user.getUserId()))
+                .orElseThrow(() -> new IllegalStateException("Category not found or access denied."));
+        Category target = categoryRepository.findById(targetCategoryId)
+                .filter(cat -> cat.getUser().getUserId().equals(user.getUserId()))
+                .orElseThrow(() -> new IllegalStateException("Target category not found or access denied."));
+        validateMerge(source, target);
+
+        // Budgets on the source's and the target's ancestors gain or lose the moved spending
+        Set<Integer> affectedCategoryIds = new LinkedHashSet<>();
+        affectedCategoryIds.add(sourceCategoryId);
+        affectedCategoryIds.addAll(closureService.getAncestorIds(source));
+        affectedCategoryIds.add(targetCategoryId);
+        affectedCategoryIds.addAll(closureService.getAncestorIds(target));
+
+        // IDs are read before the move so sync clients get a change entry for each moved row
+        List<Integer> expenseIds = expenseRepository.findIdsByCategory(source);
+        List<Integer> incomeIds = incomeRepository.findIdsByCategory(source);
+
+        LocalDateTime now = LocalDateTime.now();
+        CategoryMergeResultDTO result = new CategoryMergeResultDTO();
+        result.setMergedCategoryId(sourceCategoryId);
+        result.setExpensesMoved(expenseRepository.reassignCategory(source, target));
+        result.setIncomesMoved(incomeRepository.reassignCategory(source, target));
+        result.setBudgetsMoved(budgetRepository.reassignCategory(source, target, now));
+        result.setBudgetTemplatesMoved(budgetTemplateRepository.reassignCategory(source, target, now));
+        result.setRecurringTransactionsMoved(recurringTransactionRepository.reassignCategory(source, target, now));
+
+        if (result.getExpensesMoved() > 0) {
+            // Rollup buckets are keyed by category, so the source's buckets are folded into the target's
+            rollupService.mergeCategory(user, source, target);
+        }
+
+        source.setActive(false);
+        categoryRepository.save(source);
+
+        // Drops the budget interval index and recomputes (and logs) the moved budgets and those on either
+        // ancestor chain, once
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(this, user.getUserId(), affectedCategoryIds));
+
+        changeLogService.record(user, ChangeEntityType.CATEGORY, sourceCategoryId, ChangeOperation.UPDATED); // Soft delete
+        changeLogService.recordAll(user, ChangeEntityType.EXPENSE, expenseIds, ChangeOperation.UPDATED);
+        changeLogService.recordAll(user, ChangeEntityType.INCOME, incomeIds, ChangeOperation.UPDATED);
+        categoryService.evictCategoryTree(user.getUserId());
+        dataVersionService.bump(userEmail);
+
+        result.setTargetCategory(categoryService.convertToDTO(target));
+        return result;
+    }
+
+    private void validateMerge(Category source, Category target) {
+        if (source.isSystemGenerated() || target.isSystemGenerated()) {
+            throw new IllegalStateException("System-generated categories cannot be merged.");
+        }
+        if (source.isDefault()) {
+            throw new IllegalStateException("Default categories cannot be merged into another category.");
+        }
+        if (!target.isActive()) {
+            throw new IllegalStateException("Cannot merge into an inactive category.");
+        }
+        if (source.getType() != target.getType()) {
+            throw new IllegalStateException("Only categories of the same type can be merged.");
+        }
+        if (source.isBudgetable() && !target.isBudgetable()) {
+            throw new IllegalStateException("Cannot merge a budgetable category into a non-budgetable category.");
+        }
+        if (closureService.hasActiveDescendant(source)) {
+            throw new IllegalStateException("Cannot merge a category with active sub-categories.");
+        }
+    }
+}
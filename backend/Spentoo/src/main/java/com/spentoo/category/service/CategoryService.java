@@ -1,6 +1,8 @@
 package com.spentoo.category.service;
 
-import com.opencsv.CSVReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spentoo.cache.CacheInvalidation;
 import com.spentoo.category.dto.CategoryDTO;
 import com.spentoo.category.dto.CreateCategoryRequestDTO;
 import com.spentoo.category.dto.RenameCategoryRequestDTO;
@@ -8,28 +10,64 @@ import com.spentoo.category.dto.UpdateCategoryRequestDTO;
 import com.spentoo.category.model.Category;
 import com.spentoo.category.model.CategoryType;
 import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.events.CategoryTreeChangedEvent;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
 import com.spentoo.user.model.User;
 import com.spentoo.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
 
+    private static final long MAX_CACHED_USERS = 1000;
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(30);
+
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
+    private final ChangeLogService changeLogService;
+    private final CategoryClosureService closureService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Per user: the assembled category listings returned by getAllCategories (read-only, shared between requests)
+    private final Cache<Integer, CategoryListing> categoryTrees;
 
-    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository) {
+    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository,
+                           DataVersionService dataVersionService,
+                           ChangeLogService changeLogService,
+                           CategoryClosureService closureService,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.dataVersionService = dataVersionService;
+        this.changeLogService = changeLogService;
+        this.closureService = closureService;
+        this.eventPublisher = eventPublisher;
+        this.categoryTrees = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_USERS)
+                .expireAfterAccess(IDLE_EXPIRY)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, categoryTrees, "categoryTrees");
     }
 
     @Transactional
@@ -53,6 +91,7 @@ public class CategoryService {
         Category parentCategory = null;
         if (requestDTO.getParentCategoryId() != null) {
             parentCategory = categoryRepository.findById(requestDTO.getParentCategoryId())
+                    .filter(cat -> cat.getUser().getUserId().equals(user.getUserId()))
                     .orElseThrow(() -> new IllegalStateException("Parent category not found."));
         }
         Category newCategory = new Category();
@@ -67,6 +106,14 @@ public class CategoryService {
         newCategory.setDefault(false);
         newCategory.setSystemGenerated(false); // New categories are not system generated by default
         Category savedCategory = categoryRepository.save(newCategory);
+        closureService.addCategory(savedCategory);
+        if (parentCategory != null) {
+            // The new category has no expenses yet, so no budget totals change; only the subtrees grew
+            eventPublisher.publishEvent(new CategoryTreeChangedEvent(this, user.getUserId(), List.of()));
+        }
+        changeLogService.record(user, ChangeEntityType.CATEGORY, savedCategory.getCategoryId(), ChangeOperation.CREATED);
+        evictCategoryTree(user.getUserId());
+        dataVersionService.bump(userEmail);
         return convertToDTO(savedCategory);
     }
 
@@ -95,16 +142,42 @@ public class CategoryService {
         newCategory.setActive(true);
         newCategory.setDefault(true); // System-generated categories are considered defaults
         newCategory.setSystemGenerated(true); // Mark as system generated
-        return categoryRepository.save(newCategory);
+        Category savedCategory = categoryRepository.save(newCategory);
+        closureService.addCategory(savedCategory);
+        changeLogService.record(user, ChangeEntityType.CATEGORY, savedCategory.getCategoryId(), ChangeOperation.CREATED);
+        evictCategoryTree(user.getUserId());
+        return savedCategory;
     }
 
 
+    /**
+     * Lists all categories of a user (active and inactive, so users can restore deleted ones).
+     * @param userEmail The user's email.
+     * @param tree True for the top-level categories with their sub-categories nested, false for a flat list in
+     *             which each category carries its parentCategoryId.
+     * @return The categories.
+     */
     @Transactional(readOnly = true)
-    public List<CategoryDTO> getAllCategories(String userEmail) {
+    public List<CategoryDTO> getAllCategories(String userEmail, boolean tree) {
         User user = userRepository.findByEmailIgnoreCase(userEmail)
                 .orElseThrow(() -> new IllegalStateException("User not found.")); // Corrected
-        // Return all categories (active and inactive) so users can restore deleted ones
-        return categoryRepository.findAllByUser(user)
+        CategoryListing listing = categoryTrees.get(user.getUserId(),
+                userId -> assembleListing(categoryRepository.findAllByUser(user)));
+        return tree ? listing.roots : listing.flat;
+    }
+
+    /**
+     * Loads specific categories of a user, e.g. the records a sync reports as changed.
+     * @param user The user who owns the categories.
+     * @param categoryIds The IDs to load.
+     * @return The DTOs of the categories that still exist.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryDTO> getCategoriesByIds(User user, Collection<Integer> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return categoryRepository.findAllByUserAndCategoryIdIn(user, categoryIds)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -172,12 +245,22 @@ public class CategoryService {
         if (requestDTO.getSortOrder() != null) {
             category.setSortOrder(requestDTO.getSortOrder());
         }
-        if (requestDTO.getParentCategoryId() != null) {
+        if (requestDTO.getParentCategoryId() != null && (category.getParentCategory() == null
+                || !requestDTO.getParentCategoryId().equals(category.getParentCategory().getCategoryId()))) {
             Category parentCategory = categoryRepository.findById(requestDTO.getParentCategoryId())
+                    .filter(cat -> cat.getUser().getUserId().equals(user.getUserId()))
                     .orElseThrow(() -> new IllegalStateException("Parent category not found."));
+            // Budgets on the old and the new ancestors gain or lose the moved subtree's spending
+            Set<Integer> affectedCategoryIds = new LinkedHashSet<>(closureService.getAncestorIds(category));
+            closureService.moveCategory(category, parentCategory);
             category.setParentCategory(parentCategory);
+            affectedCategoryIds.addAll(closureService.getAncestorIds(category));
+            eventPublisher.publishEvent(new CategoryTreeChangedEvent(this, user.getUserId(), affectedCategoryIds));
         }
         Category updatedCategory = categoryRepository.save(category);
+        changeLogService.record(user, ChangeEntityType.CATEGORY, categoryId, ChangeOperation.UPDATED);
+        evictCategoryTree(user.getUserId());
+        dataVersionService.bump(userEmail);
         return convertToDTO(updatedCategory);
     }
 
@@ -195,12 +278,14 @@ public class CategoryService {
         if (category.isDefault()) {
             throw new IllegalStateException("Default categories cannot be deleted.");
         }
-        boolean hasActiveSubCategories = category.getSubCategories().stream().anyMatch(Category::isActive);
-        if (hasActiveSubCategories) {
+        if (closureService.hasActiveDescendant(category)) {
             throw new IllegalStateException("Cannot delete a category with active sub-categories.");
         }
         category.setActive(false);
         categoryRepository.save(category);
+        changeLogService.record(user, ChangeEntityType.CATEGORY, categoryId, ChangeOperation.UPDATED); // Soft delete
+        evictCategoryTree(user.getUserId());
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional
@@ -224,11 +309,14 @@ public class CategoryService {
                 throw new IllegalStateException("An active category with this name already exists for your account.");
             }
         });
-        if (category.getParentCategory() != null && !category.getParentCategory().isActive()) {
+        if (closureService.hasInactiveAncestor(category)) {
             throw new IllegalStateException("Cannot restore a category whose parent is inactive.");
         }
         category.setActive(true);
         Category restoredCategory = categoryRepository.save(category);
+        changeLogService.record(user, ChangeEntityType.CATEGORY, categoryId, ChangeOperation.UPDATED);
+        evictCategoryTree(user.getUserId());
+        dataVersionService.bump(userEmail);
         return convertToDTO(restoredCategory);
     }
 
@@ -260,53 +348,37 @@ public class CategoryService {
         });
         category.setCategoryName(formattedNewName);
         Category renamedCategory = categoryRepository.save(category);
+        changeLogService.record(user, ChangeEntityType.CATEGORY, categoryId, ChangeOperation.UPDATED);
+        evictCategoryTree(user.getUserId());
+        dataVersionService.bump(userEmail);
         return convertToDTO(renamedCategory);
     }
 
-    @Transactional
-    public void importCategories(MultipartFile file, String userEmail) throws Exception {
-        User user = userRepository.findByEmailIgnoreCase(userEmail)
-                .orElseThrow(() -> new IllegalStateException("User not found.")); // Corrected
-        List<Category> categoriesToSave = new ArrayList<>();
-        try (Reader reader = new InputStreamReader(file.getInputStream());
-             CSVReader csvReader = new CSVReader(reader)) {
-            csvReader.skip(1); // Skip header row
-            String[] line;
-            while ((line = csvReader.readNext()) != null) {
-                String categoryName = line[1];
-                String typeStr = line[2];
-                if (categoryName == null || categoryName.trim().isEmpty() || typeStr == null || typeStr.trim().isEmpty()) {
-                    throw new IllegalStateException("Category name and type are required.");
-                }
-                String formattedCategoryName = formatCategoryName(categoryName);
-
-                if (categoryRepository.findByUserAndCategoryNameIgnoreCase(user, formattedCategoryName).isPresent()) {
-                    continue; // Skip if an active category with this name already exists
-                }
-                Category newCategory = new Category();
-                newCategory.setCategoryName(formattedCategoryName);
-                newCategory.setType(CategoryType.valueOf(typeStr.toUpperCase()));
-                newCategory.setUser(user);
-                newCategory.setIcon(line[3]);
-                newCategory.setColor(line[4]);
-                if (line[5] != null && !line[5].isEmpty()) {
-                    newCategory.setSortOrder(Integer.parseInt(line[5]));
-                }
-                if (line[6] != null && !line[6].isEmpty()) {
-                    Category parent = categoryRepository.findById(Integer.parseInt(line[6])).orElse(null);
-                    newCategory.setParentCategory(parent);
-                }
-                newCategory.setActive(true);
-                newCategory.setDefault(false);
-                newCategory.setSystemGenerated(false); // Imported categories are not system generated
-                categoriesToSave.add(newCategory);
-            }
+    // Builds both listings from one flat query result; children are linked through an ID index, so no lazy
+    // subCategories collection is ever loaded and every category is converted exactly once per listing
+    private CategoryListing assembleListing(List<Category> categories) {
+        List<CategoryDTO> flat = new ArrayList<>(categories.size());
+        Map<Integer, CategoryDTO> treeNodesById = new HashMap<>();
+        for (Category category : categories) {
+            flat.add(convertToDTO(category));
+            CategoryDTO node = convertToDTO(category);
+            node.setSubCategories(new ArrayList<>());
+            treeNodesById.put(node.getCategoryId(), node);
         }
-        if (!categoriesToSave.isEmpty()) {
-            categoryRepository.saveAll(categoriesToSave);
+        List<CategoryDTO> roots = new ArrayList<>();
+        for (CategoryDTO node : flat) {
+            CategoryDTO treeNode = treeNodesById.get(node.getCategoryId());
+            CategoryDTO parent = node.getParentCategoryId() != null ? treeNodesById.get(node.getParentCategoryId()) : null;
+            if (parent != null) {
+                parent.getSubCategories().add(treeNode);
+            } else {
+                roots.add(treeNode); // Top-level, or a parent that is not in the user's list
+            }
         }
+        return new CategoryListing(List.copyOf(flat), List.copyOf(roots));
     }
 
+    // Converts a single category without sub-categories; the parent is referenced by ID only
     public CategoryDTO convertToDTO(Category category) { // Changed to public
         if (category == null) {
             return null;
@@ -325,17 +397,15 @@ public class CategoryService {
         if (category.getParentCategory() != null) {
             dto.setParentCategoryId(category.getParentCategory().getCategoryId());
         }
-        if (category.getSubCategories() != null && !category.getSubCategories().isEmpty()) {
-            dto.setSubCategories(
-                category.getSubCategories().stream()
-                        .map(this::convertToDTO)
-                        .collect(Collectors.toSet())
-            );
-        }
         return dto;
     }
 
-    private String formatCategoryName(String name) {
+    // Drops the user's cached category list
+    void evictCategoryTree(Integer userId) {
+        CacheInvalidation.invalidateNowAndAfterCommit(categoryTrees, userId);
+    }
+
+    String formatCategoryName(String name) {
         if (name == null || name.trim().isEmpty()) {
             return name;
         }
@@ -345,4 +415,14 @@ public class CategoryService {
         }
         return trimmedName.substring(0, 1).toUpperCase() + trimmedName.substring(1).toLowerCase();
     }
+
+    private static final class CategoryListing {
+        private final List<CategoryDTO> flat;
+        private final List<CategoryDTO> roots;
+
+        private CategoryListing(List<CategoryDTO> flat, List<CategoryDTO> roots) {
+            this.flat = flat;
+            this.roots = roots;
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package com.spentoo.config;
+
+import com.spentoo.sync.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+
+/**
+ * Serves weak ETags on authenticated GET requests from the user's data version and answers
+ * 304 Not Modified when the client's If-None-Match still matches, before any controller or query runs.
+ */
+@Component
+public class DataVersionInterceptor implements HandlerInterceptor {
+
+    private final DataVersionService dataVersionService;
+
+    public DataVersionInterceptor(DataVersionService dataVersionService) {
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof String userEmail)) {
+            return true;
+        }
+
+        String etag = dataVersionService.etag(userEmail, LocalDate.now().toEpochDay());
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // Responses are per user, so shared caches must not keep them and browsers must revalidate
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    // If-None-Match may list several tags; weak comparison ignores the W/ prefix
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
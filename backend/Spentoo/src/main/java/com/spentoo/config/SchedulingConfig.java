@@ -0,0 +1,13 @@
+package com.spentoo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled jobs (status sweep, budget rollover and reconciliation, rollup and closure rebuilds).
+ * Recurring transaction processing is scheduled too, but stays disabled unless spentoo.recurring.process-cron is set.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,7 @@
 package com.spentoo.config;
 
 import com.spentoo.security.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import com.spentoo.user.service.CustomUserDetailsService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -85,7 +86,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Next-Cursor", "ETag"));
         configuration.setMaxAge(3600L); // Cache preflight requests for 1 hour
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -99,6 +100,7 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable()) // Disable CSRF for stateless APIs
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Allow all OPTIONS requests (preflight)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Streaming responses complete on an async dispatch of an already authorized request
                 .requestMatchers("/api/auth/**").permitAll() // Public endpoints for authentication
                 .anyRequest().authenticated() // All other requests must be authenticated
             )
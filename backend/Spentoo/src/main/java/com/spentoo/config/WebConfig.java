@@ -5,6 +5,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
@@ -12,6 +13,22 @@ import java.util.List;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final DataVersionInterceptor dataVersionInterceptor;
+
+    public WebConfig(DataVersionInterceptor dataVersionInterceptor) {
+        this.dataVersionInterceptor = dataVersionInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // ETag / 304 handling for the authenticated data endpoints.
+        // Sync responses depend on the since token and the database-wide committed watermark
+        // (MIN_ACTIVE_ROWVERSION), not on the per-user data version, so they are always computed.
+        registry.addInterceptor(dataVersionInterceptor)
+            .addPathPatterns("/api/**")
+            .excludePathPatterns("/api/auth/**", "/api/test/**", "/api/sync/**", "/api/sync");
+    }
+
     @Override
     public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
         configurer
@@ -0,0 +1,25 @@
+package com.spentoo.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+
+/**
+ * Published inside the category transaction when a user's category tree changes shape (a category is created
+ * under a parent, moved to another parent, or merged into another category), so listeners that aggregate over
+ * subtrees can refresh.
+ */
+@Getter
+public class CategoryTreeChangedEvent extends ApplicationEvent {
+
+    private final Integer userId;
+    // Categories whose set of descendants changed; budgets on these categories need their totals recomputed
+    private final Collection<Integer> affectedCategoryIds;
+
+    public CategoryTreeChangedEvent(Object source, Integer userId, Collection<Integer> affectedCategoryIds) {
+        super(source);
+        this.userId = userId;
+        this.affectedCategoryIds = affectedCategoryIds;
+    }
+}
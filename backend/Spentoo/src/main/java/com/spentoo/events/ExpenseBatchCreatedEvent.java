@@ -0,0 +1,22 @@
+package com.spentoo.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Published once for a batch of newly created expenses, so listeners can do their
+ * work once per batch instead of once per expense.
+ * Carries snapshots rather than entities, so after-commit listeners never touch a detached entity.
+ */
+@Getter
+public class ExpenseBatchCreatedEvent extends ApplicationEvent {
+
+    private final List<ExpenseSnapshot> expenses;
+
+    public ExpenseBatchCreatedEvent(Object source, List<ExpenseSnapshot> expenses) {
+        super(source);
+        this.expenses = List.copyOf(expenses);
+    }
+}
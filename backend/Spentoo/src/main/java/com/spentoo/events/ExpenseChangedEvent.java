@@ -1,13 +1,18 @@
 package com.spentoo.events;
 
-import com.spentoo.expense.model.Expense;
 import lombok.Getter;
 import org.springframework.context.ApplicationEvent;
 
+/**
+ * Published when a single expense is created, updated or deleted.
+ * Carries value snapshots instead of the entity: {@code before} is null for CREATED and {@code after} is null
+ * for DELETED. For UPDATED both are set, so listeners can move amounts out of the old budget/bucket and into the new one.
+ */
 @Getter
 public class ExpenseChangedEvent extends ApplicationEvent {
 
-    private final Expense expense;
+    private final ExpenseSnapshot before;
+    private final ExpenseSnapshot after;
     private final ChangeType changeType;
 
     public enum ChangeType {
@@ -16,9 +21,15 @@ public class ExpenseChangedEvent extends ApplicationEvent {
         DELETED
     }
 
-    public ExpenseChangedEvent(Object source, Expense expense, ChangeType changeType) {
+    public ExpenseChangedEvent(Object source, ExpenseSnapshot before, ExpenseSnapshot after, ChangeType changeType) {
         super(source);
-        this.expense = expense;
+        this.before = before;
+        this.after = after;
         this.changeType = changeType;
     }
+
+    // The latest known state: after for creates and updates, before for deletes
+    public ExpenseSnapshot getCurrent() {
+        return after != null ? after : before;
+    }
 }
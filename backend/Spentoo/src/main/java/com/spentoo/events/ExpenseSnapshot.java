@@ -0,0 +1,53 @@
+package com.spentoo.events;
+
+import com.spentoo.expense.model.Expense;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable copy of the fields of an expense that listeners care about, taken at a point in time.
+ * Holds only IDs and values, so it stays valid after the transaction ends and the entity changes or is gone.
+ */
+@Getter
+public final class ExpenseSnapshot {
+
+    private final Integer expenseId;
+    private final Integer userId;
+    private final Integer categoryId;
+    private final Integer paymentMethodId;
+    private final BigDecimal amount;
+    private final LocalDate transactionDate;
+    private final String description;
+
+    public ExpenseSnapshot(Integer expenseId, Integer userId, Integer categoryId, Integer paymentMethodId,
+                           BigDecimal amount, LocalDate transactionDate, String description) {
+        this.expenseId = expenseId;
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.paymentMethodId = paymentMethodId;
+        this.amount = amount;
+        this.transactionDate = transactionDate;
+        this.description = description;
+    }
+
+    public static ExpenseSnapshot of(Expense expense) {
+        return new ExpenseSnapshot(
+                expense.getExpenseId(),
+                expense.getUser().getUserId(),
+                expense.getCategory().getCategoryId(),
+                expense.getPaymentMethod().getMethodId(),
+                expense.getAmount(),
+                expense.getTransactionDate(),
+                expense.getDescription());
+    }
+
+    // True when both snapshots fall into the same daily rollup bucket (category, payment method, day)
+    public boolean sameBucketAs(ExpenseSnapshot other) {
+        return Objects.equals(categoryId, other.categoryId)
+                && Objects.equals(paymentMethodId, other.paymentMethodId)
+                && Objects.equals(transactionDate, other.transactionDate);
+    }
+}
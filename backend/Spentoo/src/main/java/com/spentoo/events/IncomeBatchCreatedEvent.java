@@ -0,0 +1,22 @@
+package com.spentoo.events;
+
+import com.spentoo.income.model.Income;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Published once for a batch of newly created income records, so listeners can do their
+ * work once per batch instead of once per record.
+ */
+@Getter
+public class IncomeBatchCreatedEvent extends ApplicationEvent {
+
+    private final List<Income> incomes;
+
+    public IncomeBatchCreatedEvent(Object source, List<Income> incomes) {
+        super(source);
+        this.incomes = incomes;
+    }
+}
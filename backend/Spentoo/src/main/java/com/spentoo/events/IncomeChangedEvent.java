@@ -0,0 +1,24 @@
+package com.spentoo.events;
+
+import com.spentoo.income.model.Income;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class IncomeChangedEvent extends ApplicationEvent {
+
+    private final Income income;
+    private final ChangeType changeType;
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public IncomeChangedEvent(Object source, Income income, ChangeType changeType) {
+        super(source);
+        this.income = income;
+        this.changeType = changeType;
+    }
+}
@@ -1,14 +1,21 @@
 package com.spentoo.expense.controller;
 
+import com.spentoo.expense.dto.BatchCreateExpenseRequestDTO;
+import com.spentoo.expense.dto.ExpenseAggregateDTO;
 import com.spentoo.expense.dto.CreateExpenseRequestDTO;
 import com.spentoo.expense.dto.ExpenseDTO;
 import com.spentoo.expense.dto.UpdateExpenseRequestDTO;
 import com.spentoo.expense.service.ExpenseService;
+import com.spentoo.pagination.KeysetPage;
+import com.spentoo.search.dto.SearchPageDTO;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -30,6 +37,14 @@ public class ExpenseController {
         return new ResponseEntity<>(createdExpense, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ExpenseDTO>> addExpenses(
+            @Valid @RequestBody BatchCreateExpenseRequestDTO requestDTO,
+            @AuthenticationPrincipal String userEmail) {
+        List<ExpenseDTO> createdExpenses = expenseService.addExpenses(requestDTO.getExpenses(), userEmail);
+        return new ResponseEntity<>(createdExpenses, HttpStatus.CREATED);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ExpenseDTO> editExpense(
             @PathVariable("id") Integer id,
@@ -47,6 +62,69 @@ public class ExpenseController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(defaultValue = "csv") String format,
+            @AuthenticationPrincipal String userEmail) {
+        StreamingResponseBody body;
+        MediaType contentType;
+        String fileName;
+        switch (format.toLowerCase()) {
+            case "csv":
+                body = outputStream -> expenseService.exportExpensesCsv(userEmail, outputStream);
+                contentType = MediaType.parseMediaType("text/csv");
+                fileName = "expenses.csv";
+                break;
+            case "ndjson":
+                body = outputStream -> expenseService.exportExpensesNdjson(userEmail, outputStream);
+                contentType = MediaType.parseMediaType("application/x-ndjson");
+                fileName = "expenses.ndjson";
+                break;
+            default:
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/aggregate")
+    public ResponseEntity<List<ExpenseAggregateDTO>> aggregateExpenses(
+            @RequestParam(defaultValue = "category") String groupBy,
+            @RequestParam(defaultValue = "none") String period,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) Integer categoryId,
+            @AuthenticationPrincipal String userEmail) {
+        java.time.LocalDate start = null;
+        java.time.LocalDate end = null;
+        if (startDate != null && !startDate.trim().isEmpty() && endDate != null && !endDate.trim().isEmpty()) {
+            try {
+                start = java.time.LocalDate.parse(startDate.trim());
+                end = java.time.LocalDate.parse(endDate.trim());
+            } catch (java.time.format.DateTimeParseException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        // categoryId limits the sums to that category including all its sub-categories
+        List<ExpenseAggregateDTO> rows = expenseService.aggregateExpenses(userEmail, groupBy, period, filter, start, end, categoryId);
+        return new ResponseEntity<>(rows, HttpStatus.OK);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchPageDTO<ExpenseDTO>> searchExpenses(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal String userEmail) {
+        SearchPageDTO<ExpenseDTO> results = expenseService.searchExpenses(userEmail, query, page, size);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ExpenseDTO> getSingleExpense(
             @PathVariable("id") Integer id,
@@ -60,7 +138,14 @@ public class ExpenseController {
             @RequestParam(required = false) String filter,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal String userEmail) {
+        // Keyset pagination is opt-in: the unpaginated response is kept for existing clients
+        if (cursor != null || limit != null) {
+            return listExpensesPage(filter, startDate, endDate, cursor, limit, userEmail);
+        }
+
         List<ExpenseDTO> expenses;
         
         // If custom date range is provided, use it (takes priority over filter)
@@ -104,4 +189,25 @@ public class ExpenseController {
         
         return new ResponseEntity<>(expenses, HttpStatus.OK);
     }
+
+    private ResponseEntity<List<ExpenseDTO>> listExpensesPage(String filter, String startDate, String endDate,
+                                                         String cursor, Integer limit, String userEmail) {
+        java.time.LocalDate start = null;
+        java.time.LocalDate end = null;
+        if (startDate != null && !startDate.trim().isEmpty() && endDate != null && !endDate.trim().isEmpty()) {
+            try {
+                start = java.time.LocalDate.parse(startDate.trim());
+                end = java.time.LocalDate.parse(endDate.trim());
+            } catch (java.time.format.DateTimeParseException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        KeysetPage<ExpenseDTO> page = expenseService.listExpensesPage(userEmail, filter, start, end, cursor, limit);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            headers.set(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return new ResponseEntity<>(page.getItems(), headers, HttpStatus.OK);
+    }
 }
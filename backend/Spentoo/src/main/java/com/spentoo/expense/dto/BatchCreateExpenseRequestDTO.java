@@ -0,0 +1,17 @@
+package com.spentoo.expense.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchCreateExpenseRequestDTO {
+
+    @NotEmpty(message = "At least one expense is required.")
+    @Size(max = 500, message = "A batch can contain at most 500 expenses.")
+    @Valid
+    private List<CreateExpenseRequestDTO> expenses;
+}
@@ -0,0 +1,23 @@
+package com.spentoo.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One aggregated spending row: the total and number of expenses for a group (category, parent category
+ * or payment method) within a period bucket. {@code groupId}/{@code groupName} are null when not grouping
+ * by a dimension, and {@code periodStart} is null when not bucketing by period.
+ */
+@Data
+@AllArgsConstructor
+public class ExpenseAggregateDTO {
+
+    private Integer groupId;
+    private String groupName;
+    private LocalDate periodStart; // First day of the day/week/month bucket
+    private BigDecimal totalAmount;
+    private long expenseCount;
+}
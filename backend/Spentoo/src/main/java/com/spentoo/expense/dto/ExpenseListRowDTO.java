@@ -0,0 +1,46 @@
+package com.spentoo.expense.dto;
+
+import com.spentoo.category.model.CategoryType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model for expense listings, filled by a JPQL constructor expression.
+ * Carries the expense together with its category and payment method columns so listings
+ * never load managed entities. Constructor argument order must match ExpenseRepository.LIST_ROW_SELECT.
+ */
+@Data
+@AllArgsConstructor
+public class ExpenseListRowDTO {
+
+    private Integer expenseId;
+    private Integer userId;
+    private BigDecimal amount;
+    private String description;
+    private LocalDate transactionDate;
+
+    private Integer categoryId;
+    private String categoryName;
+    private CategoryType categoryType;
+    private String categoryIcon;
+    private String categoryColor;
+    private Integer categorySortOrder;
+    private Boolean categoryDefault;
+    private Boolean categoryActive;
+    private Integer parentCategoryId;
+    private LocalDateTime categoryCreatedAt;
+    private LocalDateTime categoryUpdatedAt;
+
+    private Integer paymentMethodId;
+    private Integer paymentMethodUserId;
+    private String paymentMethodName;
+    private String paymentMethodProvider;
+    private String paymentMethodAccountNumberMasked;
+    private Boolean paymentMethodActive;
+    private LocalDateTime paymentMethodCreatedAt;
+    private LocalDateTime paymentMethodUpdatedAt;
+}
@@ -0,0 +1,49 @@
+package com.spentoo.expense.model;
+
+import com.spentoo.category.model.Category;
+import com.spentoo.payment.model.PaymentMethod;
+import com.spentoo.user.model.User;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated spending per user, category, payment method and day.
+ * Kept up to date incrementally from expense change events, so analytics and budgets read
+ * at most one row per day per category instead of every raw expense.
+ */
+@Data
+@Entity
+@Table(name = "ExpenseDailyRollup", uniqueConstraints = {
+    @UniqueConstraint(name = "UQ_ExpenseDailyRollup_Bucket", columnNames = {"UserID", "CategoryID", "PaymentMethodID", "RollupDate"})
+})
+public class ExpenseDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "RollupID")
+    private Long rollupId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "UserID", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "CategoryID", nullable = false)
+    private Category category;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "PaymentMethodID", nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "RollupDate", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "TotalAmount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "ExpenseCount", nullable = false)
+    private Integer expenseCount = 0;
+}
@@ -0,0 +1,40 @@
+package com.spentoo.expense.repository;
+
+import com.spentoo.expense.dto.ExpenseAggregateDTO;
+import com.spentoo.user.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Custom ExpenseRepository fragment for spending aggregates computed in the database.
+ */
+public interface ExpenseAggregateRepository {
+
+    enum GroupBy {
+        NONE,
+        CATEGORY,
+        PARENT_CATEGORY, // Subcategory spending at any depth rolls up into its top-level category
+        PAYMENT_METHOD
+    }
+
+    enum Period {
+        NONE,
+        DAY,
+        WEEK, // ISO weeks starting on Monday
+        MONTH
+    }
+
+    /**
+     * Sums a user's expenses grouped by a dimension and period bucket.
+     * @param user The user.
+     * @param groupBy The dimension to group by.
+     * @param period The period bucket.
+     * @param startDate The start date of the range (inclusive), or null for no lower bound.
+     * @param endDate The end date of the range (inclusive), or null for no upper bound.
+     * @param categoryId Restricts the sums to this category and all of its sub-categories, or null for all categories.
+     * @return One row per group and bucket, ordered by bucket and then by total descending.
+     */
+    List<ExpenseAggregateDTO> aggregateByUser(User user, GroupBy groupBy, Period period, LocalDate startDate, LocalDate endDate,
+                                              Integer categoryId);
+}
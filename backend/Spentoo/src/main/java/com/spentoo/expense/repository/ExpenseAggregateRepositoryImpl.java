@@ -0,0 +1,156 @@
+package com.spentoo.expense.repository;
+
+import com.spentoo.expense.dto.ExpenseAggregateDTO;
+import com.spentoo.user.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the aggregate query for the requested dimension and period, so only the
+ * joins and GROUP BY columns that are actually needed are sent to the database.
+ * Reads the ExpenseDailyRollup table, so a year touches at most 365 rows per category and payment method.
+ * Category subtrees are resolved through the CategoryClosure table, so tree depth never adds queries.
+ */
+public class ExpenseAggregateRepositoryImpl implements ExpenseAggregateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ExpenseAggregateDTO> aggregateByUser(User user, GroupBy groupBy, Period period,
+                                                     LocalDate startDate, LocalDate endDate, Integer categoryId) {
+        List<String> groupColumns = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        StringBuilder from = new StringBuilder(" FROM ExpenseDailyRollup r");
+        switch (groupBy) {
+            case CATEGORY:
+                from.append(" JOIN r.category c");
+                groupColumns.add("c.categoryId");
+                groupColumns.add("c.categoryName");
+                break;
+            case PARENT_CATEGORY:
+                // Exactly one ancestor of each category (possibly the category itself) has no parent
+                from.append(" JOIN CategoryClosure cc ON cc.descendant = r.category JOIN cc.ancestor top");
+                conditions.add("top.parentCategory IS NULL");
+                groupColumns.add("top.categoryId");
+                groupColumns.add("top.categoryName");
+                break;
+            case PAYMENT_METHOD:
+                from.append(" JOIN r.paymentMethod pm");
+                groupColumns.add("pm.methodId");
+                groupColumns.add("pm.name");
+                break;
+            default:
+                break;
+        }
+        switch (period) {
+            case DAY:
+            case WEEK:
+                // Weeks are folded from daily sums below; week numbering differs between databases
+                groupColumns.add("r.rollupDate");
+                break;
+            case MONTH:
+                groupColumns.add("EXTRACT(YEAR FROM r.rollupDate)");
+                groupColumns.add("EXTRACT(MONTH FROM r.rollupDate)");
+                break;
+            default:
+                break;
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (String column : groupColumns) {
+            jpql.append(column).append(", ");
+        }
+        jpql.append("SUM(r.totalAmount), SUM(r.expenseCount)").append(from).append(" WHERE r.user = :user");
+        if (startDate != null) {
+            jpql.append(" AND r.rollupDate >= :startDate");
+        }
+        if (endDate != null) {
+            jpql.append(" AND r.rollupDate <= :endDate");
+        }
+        if (categoryId != null) {
+            jpql.append(" AND r.category IN (SELECT sub.descendant FROM CategoryClosure sub WHERE sub.ancestor.categoryId = :categoryId)");
+        }
+        for (String condition : conditions) {
+            jpql.append(" AND ").append(condition);
+        }
+        if (!groupColumns.isEmpty()) {
+            jpql.append(" GROUP BY ").append(String.join(", ", groupColumns));
+        }
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        query.setParameter("user", user);
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+        }
+        if (endDate != null) {
+            query.setParameter("endDate", endDate);
+        }
+        if (categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+
+        List<ExpenseAggregateDTO> rows = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            rows.add(toAggregate(row, groupBy, period));
+        }
+        if (period == Period.WEEK) {
+            rows = foldIntoWeeks(rows);
+        }
+        rows.sort(Comparator.comparing(ExpenseAggregateDTO::getPeriodStart, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()))
+                .thenComparing(ExpenseAggregateDTO::getTotalAmount, Comparator.reverseOrder()));
+        return rows;
+    }
+
+    private ExpenseAggregateDTO toAggregate(Object[] row, GroupBy groupBy, Period period) {
+        int column = 0;
+        Integer groupId = null;
+        String groupName = null;
+        if (groupBy != GroupBy.NONE) {
+            groupId = (Integer) row[column++];
+            groupName = (String) row[column++];
+        }
+        LocalDate periodStart = null;
+        if (period == Period.DAY || period == Period.WEEK) {
+            periodStart = (LocalDate) row[column++];
+        } else if (period == Period.MONTH) {
+            Number year = (Number) row[column++];
+            Number month = (Number) row[column++];
+            if (year != null && month != null) {
+                periodStart = LocalDate.of(year.intValue(), month.intValue(), 1);
+            }
+        }
+        BigDecimal total = row[column] != null ? (BigDecimal) row[column] : BigDecimal.ZERO;
+        long count = ((Number) row[column + 1]).longValue();
+        return new ExpenseAggregateDTO(groupId, groupName, periodStart, total, count);
+    }
+
+    // Merges daily rows of the same group into the Monday that starts their week
+    private List<ExpenseAggregateDTO> foldIntoWeeks(List<ExpenseAggregateDTO> dailyRows) {
+        Map<List<Object>, ExpenseAggregateDTO> weeks = new LinkedHashMap<>();
+        for (ExpenseAggregateDTO day : dailyRows) {
+            LocalDate weekStart = day.getPeriodStart() != null ? day.getPeriodStart().with(DayOfWeek.MONDAY) : null;
+            List<Object> key = Arrays.asList(day.getGroupId(), weekStart);
+            ExpenseAggregateDTO week = weeks.get(key);
+            if (week == null) {
+                weeks.put(key, new ExpenseAggregateDTO(day.getGroupId(), day.getGroupName(), weekStart,
+                        day.getTotalAmount(), day.getExpenseCount()));
+            } else {
+                week.setTotalAmount(week.getTotalAmount().add(day.getTotalAmount()));
+                week.setExpenseCount(week.getExpenseCount() + day.getExpenseCount());
+            }
+        }
+        return new ArrayList<>(weeks.values());
+    }
+}
@@ -0,0 +1,19 @@
+package com.spentoo.expense.repository;
+
+import com.spentoo.expense.model.Expense;
+
+import java.util.List;
+
+/**
+ * Custom ExpenseRepository fragment for inserting many expenses with few statements.
+ */
+public interface ExpenseBatchInsertRepository {
+
+    /**
+     * Inserts new expenses with multi-row statements and sets their generated IDs.
+     * The expenses are not attached to the persistence context; user, category and payment method only need IDs.
+     * @param expenses The expenses to insert, all without an ID.
+     * @return The same expenses, in the same order, with their IDs set.
+     */
+    List<Expense> insertAll(List<Expense> expenses);
+}
@@ -0,0 +1,66 @@
+package com.spentoo.expense.repository;
+
+import com.spentoo.expense.model.Expense;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts expenses with one multi-row statement per chunk instead of one INSERT per row.
+ * Expenses has an IDENTITY key, which keeps Hibernate from batching inserts. A MERGE that never matches inserts
+ * every source row and, unlike INSERT, may return source columns from its OUTPUT clause, so each generated ID comes
+ * back paired with the position of its row.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+public class ExpenseBatchInsertRepositoryImpl implements ExpenseBatchInsertRepository {
+
+    // SQL Server accepts at most 2100 parameters per statement; 7 per row
+    private static final int ROWS_PER_STATEMENT = 250;
+    private static final int[] ROW_TYPES = {
+            Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.DECIMAL, Types.NVARCHAR, Types.DATE
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpenseBatchInsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Expense> insertAll(List<Expense> expenses) {
+        for (int from = 0; from < expenses.size(); from += ROWS_PER_STATEMENT) {
+            insertChunk(expenses.subList(from, Math.min(from + ROWS_PER_STATEMENT, expenses.size())));
+        }
+        return expenses;
+    }
+
+    private void insertChunk(List<Expense> chunk) {
+        StringBuilder sql = new StringBuilder("MERGE INTO Expenses AS e USING (VALUES ");
+        List<Object> args = new ArrayList<>(chunk.size() * ROW_TYPES.length);
+        int[] argTypes = new int[chunk.size() * ROW_TYPES.length];
+        for (int i = 0; i < chunk.size(); i++) {
+            Expense expense = chunk.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?)");
+            args.add(i);
+            args.add(expense.getUser().getUserId());
+            args.add(expense.getCategory().getCategoryId());
+            args.add(expense.getPaymentMethod().getMethodId());
+            args.add(expense.getAmount());
+            args.add(expense.getDescription());
+            args.add(Date.valueOf(expense.getTransactionDate()));
+            System.arraycopy(ROW_TYPES, 0, argTypes, i * ROW_TYPES.length, ROW_TYPES.length);
+        }
+        sql.append(") AS s (RowIndex, UserID, CategoryID, PaymentMethodID, Amount, Description, TransactionDate) ")
+                .append("ON 1 = 0 ")
+                .append("WHEN NOT MATCHED THEN INSERT (UserID, CategoryID, PaymentMethodID, Amount, Description, transactionDate) ")
+                .append("VALUES (s.UserID, s.CategoryID, s.PaymentMethodID, s.Amount, s.Description, s.TransactionDate) ")
+                .append("OUTPUT s.RowIndex, INSERTED.ExpenseID;");
+
+        jdbcTemplate.query(sql.toString(), args.toArray(), argTypes,
+                (RowCallbackHandler) rs -> chunk.get(rs.getInt(1)).setExpenseId(rs.getInt(2)));
+    }
+}
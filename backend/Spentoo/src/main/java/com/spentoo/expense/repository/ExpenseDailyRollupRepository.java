@@ -0,0 +1,141 @@
+package com.spentoo.expense.repository;
+
+import com.spentoo.category.model.Category;
+import com.spentoo.expense.model.ExpenseDailyRollup;
+import com.spentoo.user.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExpenseDailyRollupRepository extends JpaRepository<ExpenseDailyRollup, Long> {
+
+    /**
+     * Atomically adds a signed amount and count to one rollup bucket, creating the bucket when a positive count
+     * arrives for a day that has none yet.
+     * One SQL Server MERGE under HOLDLOCK, so two concurrent first writes to the same bucket serialize on the key
+     * range instead of both inserting and failing on UQ_ExpenseDailyRollup_Bucket.
+     * Takes IDs so listeners can call it from event snapshots without loading entities.
+     * @return The number of rows updated or inserted.
+     */
+    @Modifying
+    @Query(value = "MERGE ExpenseDailyRollup WITH (HOLDLOCK) AS r " +
+           "USING (SELECT :userId AS UserID, :categoryId AS CategoryID, :paymentMethodId AS PaymentMethodID, " +
+           ":rollupDate AS RollupDate) AS s " +
+           "ON r.UserID = s.UserID AND r.CategoryID = s.CategoryID " +
+           "AND r.PaymentMethodID = s.PaymentMethodID AND r.RollupDate = s.RollupDate " +
+           "WHEN MATCHED THEN UPDATE SET TotalAmount = r.TotalAmount + :amount, ExpenseCount = r.ExpenseCount + :count " +
+           "WHEN NOT MATCHED AND :count > 0 THEN " +
+           "INSERT (UserID, CategoryID, PaymentMethodID, RollupDate, TotalAmount, ExpenseCount) " +
+           "VALUES (s.UserID, s.CategoryID, s.PaymentMethodID, s.RollupDate, :amount, :count);", nativeQuery = true)
+    int upsertBucket(@Param("userId") Integer userId,
+                    @Param("categoryId") Integer categoryId,
+                    @Param("paymentMethodId") Integer paymentMethodId,
+                    @Param("rollupDate") LocalDate rollupDate,
+                    @Param("amount") BigDecimal amount,
+                    @Param("count") int count);
+
+    /**
+     * Removes a bucket once its last expense is gone, so the table only holds days with spending.
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseDailyRollup r " +
+           "WHERE r.user.userId = :userId AND r.category.categoryId = :categoryId " +
+           "AND r.paymentMethod.methodId = :paymentMethodId AND r.rollupDate = :rollupDate " +
+           "AND r.expenseCount <= 0")
+    int deleteEmptyBucket(@Param("userId") Integer userId,
+                          @Param("categoryId") Integer categoryId,
+                          @Param("paymentMethodId") Integer paymentMethodId,
+                          @Param("rollupDate") LocalDate rollupDate);
+
+    /**
+     * Sums a user's spending in a category and all of its sub-categories between two dates from the rollup.
+     * Used for budget spent amounts; the subtree comes from the CategoryClosure table, so this is one indexed query.
+     * @return The total spent, or zero when there is no spending.
+     */
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM ExpenseDailyRollup r " +
+           "WHERE r.user = :user " +
+           "AND r.category IN (SELECT cc.descendant FROM CategoryClosure cc WHERE cc.ancestor = :category) " +
+           "AND r.rollupDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumByUserAndCategorySubtreeAndDateBetween(@Param("user") User user,
+                                                  @Param("category") Category category,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    /**
+     * Adds the totals of a category's buckets into the buckets another category already has for the same payment
+     * method and day. First step of folding one category's rollup into another's when categories are merged.
+     * @return The number of target buckets updated.
+     */
+    @Modifying
+    @Query("UPDATE ExpenseDailyRollup t SET " +
+           "t.totalAmount = t.totalAmount + (SELECT s.totalAmount FROM ExpenseDailyRollup s " +
+           "WHERE s.user = t.user AND s.category = :source AND s.paymentMethod = t.paymentMethod AND s.rollupDate = t.rollupDate), " +
+           "t.expenseCount = t.expenseCount + (SELECT s.expenseCount FROM ExpenseDailyRollup s " +
+           "WHERE s.user = t.user AND s.category = :source AND s.paymentMethod = t.paymentMethod AND s.rollupDate = t.rollupDate) " +
+           "WHERE t.user = :user AND t.category = :target " +
+           "AND EXISTS (SELECT s FROM ExpenseDailyRollup s " +
+           "WHERE s.user = t.user AND s.category = :source AND s.paymentMethod = t.paymentMethod AND s.rollupDate = t.rollupDate)")
+    int addIntoMatchingBuckets(@Param("user") User user,
+                               @Param("source") Category source,
+                               @Param("target") Category target);
+
+    /**
+     * Deletes a category's buckets whose totals were added into another category's buckets by
+     * addIntoMatchingBuckets.
+     * @return The number of buckets deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseDailyRollup s " +
+           "WHERE s.user = :user AND s.category = :source " +
+           "AND EXISTS (SELECT t FROM ExpenseDailyRollup t " +
+           "WHERE t.user = s.user AND t.category = :target AND t.paymentMethod = s.paymentMethod AND t.rollupDate = s.rollupDate)")
+    int deleteMatchingBuckets(@Param("user") User user,
+                              @Param("source") Category source,
+                              @Param("target") Category target);
+
+    /**
+     * Moves a category's remaining buckets to another category. Only safe once buckets the target already has
+     * for the same payment method and day are folded away, otherwise UQ_ExpenseDailyRollup_Bucket is violated.
+     * @return The number of buckets moved.
+     */
+    @Modifying
+    @Query("UPDATE ExpenseDailyRollup r SET r.category = :target WHERE r.user = :user AND r.category = :source")
+    int reassignCategory(@Param("user") User user,
+                         @Param("source") Category source,
+                         @Param("target") Category target);
+
+    /**
+     * Deletes all rollup rows of a user, before rebuilding them from raw expenses.
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseDailyRollup r WHERE r.user = :user")
+    int deleteAllByUser(@Param("user") User user);
+
+    /**
+     * Recreates all rollup rows of a user from the raw expenses with one INSERT ... SELECT.
+     * @return The number of rollup rows created.
+     */
+    @Modifying
+    @Query("INSERT INTO ExpenseDailyRollup (user, category, paymentMethod, rollupDate, totalAmount, expenseCount) " +
+           "SELECT e.user, e.category, e.paymentMethod, e.transactionDate, SUM(e.amount), CAST(COUNT(e) AS Integer) " +
+           "FROM Expense e " +
+           "WHERE e.user = :user " +
+           "GROUP BY e.user, e.category, e.paymentMethod, e.transactionDate")
+    int insertFromExpensesByUser(@Param("user") User user);
+
+    /**
+     * Returns the users that have expenses but no rollup rows, e.g. expenses recorded before the rollup table
+     * existed.
+     * @return A list of user IDs.
+     */
+    @Query("SELECT DISTINCT e.user.userId FROM Expense e " +
+           "WHERE NOT EXISTS (SELECT r FROM ExpenseDailyRollup r WHERE r.user = e.user)")
+    List<Integer> findUserIdsWithMissingRows();
+}
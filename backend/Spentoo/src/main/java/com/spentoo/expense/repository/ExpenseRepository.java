@@ -1,32 +1,55 @@
 package com.spentoo.expense.repository;
 
 import com.spentoo.category.model.Category;
+import com.spentoo.expense.dto.ExpenseListRowDTO;
 import com.spentoo.expense.model.Expense;
+import com.spentoo.payment.model.PaymentMethod;
 import com.spentoo.user.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Integer> {
+public interface ExpenseRepository extends JpaRepository<Expense, Integer>, ExpenseAggregateRepository,
+        ExpenseBatchInsertRepository {
 
     /**
-     * Finds all expenses for a specific user with eager fetching of category and payment method.
-     * This prevents N+1 query problems.
+     * Constructor expression shared by the listing queries.
+     * Listings are read-only, so rows are projected straight into ExpenseListRowDTO instead of
+     * hydrating managed Expense, Category and PaymentMethod entities.
+     */
+    String LIST_ROW_SELECT = "SELECT new com.spentoo.expense.dto.ExpenseListRowDTO(" +
+            "e.expenseId, e.user.userId, e.amount, e.description, e.transactionDate, " +
+            "c.categoryId, c.categoryName, c.type, c.icon, c.color, c.sortOrder, c.isDefault, c.isActive, " +
+            "pc.categoryId, c.createdAt, c.updatedAt, " +
+            "pm.methodId, pm.user.userId, pm.name, pm.provider, pm.accountNumberMasked, pm.isActive, " +
+            "pm.createdAt, pm.updatedAt) " +
+            "FROM Expense e " +
+            "LEFT JOIN e.category c " +
+            "LEFT JOIN c.parentCategory pc " +
+            "LEFT JOIN e.paymentMethod pm ";
+
+    /**
+     * Lists all expenses for a specific user as flat rows (category and payment method columns included).
      * @param user The user whose expenses to find.
-     * @return A list of expenses for the given user.
+     * @return A list of expense rows for the given user.
      */
-    @Query("SELECT e FROM Expense e " +
-           "LEFT JOIN FETCH e.category " +
-           "LEFT JOIN FETCH e.paymentMethod " +
+    @Query(LIST_ROW_SELECT +
            "WHERE e.user = :user " +
            "ORDER BY e.transactionDate DESC")
-    List<Expense> findAllByUser(@Param("user") User user);
+    List<ExpenseListRowDTO> findAllByUser(@Param("user") User user);
 
     /**
      * Finds an expense by ID and user with eager fetching.
@@ -67,19 +90,171 @@ public interface ExpenseRepository extends JpaRepository<Expense, Integer> {
     List<Expense> findAllByUserAndCategoryAndTransactionDateBetween(User user, Category category, LocalDate startDate, LocalDate endDate);
 
     /**
-     * Finds all expenses for a user within a specific date range with eager fetching of category and payment method.
+     * Lists all expenses for a user within a specific date range as flat rows.
      * @param user The user.
      * @param startDate The start date of the period (inclusive).
      * @param endDate The end date of the period (inclusive).
-     * @return A list of expenses matching the criteria.
+     * @return A list of expense rows matching the criteria.
      */
-    @Query("SELECT e FROM Expense e " +
-           "LEFT JOIN FETCH e.category " +
-           "LEFT JOIN FETCH e.paymentMethod " +
+    @Query(LIST_ROW_SELECT +
            "WHERE e.user = :user " +
            "AND e.transactionDate BETWEEN :startDate AND :endDate " +
            "ORDER BY e.transactionDate DESC")
-    List<Expense> findAllByUserAndTransactionDateBetween(@Param("user") User user, 
+    List<ExpenseListRowDTO> findAllByUserAndTransactionDateBetween(@Param("user") User user, 
                                                            @Param("startDate") LocalDate startDate, 
                                                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Finds the first page of a user's expenses for keyset pagination.
+     * Ordered by transaction date and ID descending so the last row can seed the next cursor.
+     * @param user The user whose expenses to find.
+     * @param pageable The page size (offset is always 0 for keyset pages).
+     * @return Up to pageable.getPageSize() expense rows.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE e.user = :user " +
+           "ORDER BY e.transactionDate DESC, e.expenseId DESC")
+    List<ExpenseListRowDTO> findPageByUser(@Param("user") User user, Pageable pageable);
+
+    /**
+     * Finds the next page of a user's expenses after the given cursor position.
+     * @param user The user whose expenses to find.
+     * @param cursorDate The transaction date of the last row of the previous page.
+     * @param cursorId The expense ID of the last row of the previous page.
+     * @param pageable The page size.
+     * @return Up to pageable.getPageSize() expense rows that sort after the cursor.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE e.user = :user " +
+           "AND (e.transactionDate < :cursorDate " +
+           "OR (e.transactionDate = :cursorDate AND e.expenseId < :cursorId)) " +
+           "ORDER BY e.transactionDate DESC, e.expenseId DESC")
+    List<ExpenseListRowDTO> findPageByUserAfter(@Param("user") User user,
+                                      @Param("cursorDate") LocalDate cursorDate,
+                                      @Param("cursorId") Integer cursorId,
+                                      Pageable pageable);
+
+    /**
+     * Finds the first page of a user's expenses within a date range for keyset pagination.
+     * @param user The user.
+     * @param startDate The start date of the period (inclusive).
+     * @param endDate The end date of the period (inclusive).
+     * @param pageable The page size.
+     * @return Up to pageable.getPageSize() expense rows.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE e.user = :user " +
+           "AND e.transactionDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY e.transactionDate DESC, e.expenseId DESC")
+    List<ExpenseListRowDTO> findPageByUserAndTransactionDateBetween(@Param("user") User user,
+                                                          @Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate,
+                                                          Pageable pageable);
+
+    /**
+     * Finds the next page of a user's expenses within a date range after the given cursor position.
+     * @param user The user.
+     * @param startDate The start date of the period (inclusive).
+     * @param endDate The end date of the period (inclusive).
+     * @param cursorDate The transaction date of the last row of the previous page.
+     * @param cursorId The expense ID of the last row of the previous page.
+     * @param pageable The page size.
+     * @return Up to pageable.getPageSize() expense rows that sort after the cursor.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE e.user = :user " +
+           "AND e.transactionDate BETWEEN :startDate AND :endDate " +
+           "AND (e.transactionDate < :cursorDate " +
+           "OR (e.transactionDate = :cursorDate AND e.expenseId < :cursorId)) " +
+           "ORDER BY e.transactionDate DESC, e.expenseId DESC")
+    List<ExpenseListRowDTO> findPageByUserAndTransactionDateBetweenAfter(@Param("user") User user,
+                                                               @Param("startDate") LocalDate startDate,
+                                                               @Param("endDate") LocalDate endDate,
+                                                               @Param("cursorDate") LocalDate cursorDate,
+                                                               @Param("cursorId") Integer cursorId,
+                                                               Pageable pageable);
+
+    /**
+     * Streams all expenses for a user, most recent first, for exports.
+     * Rows are read through a JDBC cursor with a fetch size hint instead of being collected into a list,
+     * and are loaded read-only so Hibernate keeps no dirty-checking snapshots.
+     * Must be consumed inside a transaction and closed after use.
+     * @param user The user whose expenses to stream.
+     * @return A stream of the user's expenses.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Expense e " +
+           "LEFT JOIN FETCH e.category " +
+           "LEFT JOIN FETCH e.paymentMethod " +
+           "WHERE e.user = :user " +
+           "ORDER BY e.transactionDate DESC, e.expenseId DESC")
+    Stream<Expense> streamAllByUser(@Param("user") User user);
+
+    /**
+     * Returns the (transactionDate, amount, description) content of a user's expense records within a date range.
+     * Used by the statement importer to detect rows that were already imported, without loading entities.
+     * @param user The user.
+     * @param startDate The start date of the period (inclusive).
+     * @param endDate The end date of the period (inclusive).
+     * @param maxId The highest ID to include, so rows written after that point are left out.
+     * @return One Object[] per row: transactionDate, amount, description.
+     */
+    @Query("SELECT e.transactionDate, e.amount, e.description FROM Expense e " +
+           "WHERE e.user = :user " +
+           "AND e.transactionDate BETWEEN :startDate AND :endDate " +
+           "AND e.expenseId <= :maxId")
+    List<Object[]> findContentByUserAndTransactionDateBetween(@Param("user") User user,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate,
+                                                              @Param("maxId") Integer maxId);
+
+    /**
+     * Finds the highest expense ID of a user.
+     * @param user The user.
+     * @return The highest ID, or null if the user has no expense records.
+     */
+    @Query("SELECT MAX(e.expenseId) FROM Expense e WHERE e.user = :user")
+    Integer findMaxIdByUser(@Param("user") User user);
+
+    /**
+     * Lists specific expenses of a user as flat rows, e.g. one page of search hits.
+     * @param user The user who owns the expenses.
+     * @param expenseIds The expense IDs to load.
+     * @return The matching expense rows, in no particular order.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE e.user = :user AND e.expenseId IN :expenseIds")
+    List<ExpenseListRowDTO> findListRowsByUserAndExpenseIdIn(@Param("user") User user,
+                                                           @Param("expenseIds") Collection<Integer> expenseIds);
+
+    /**
+     * Returns the (expenseId, description, transactionDate) of every expense of a user.
+     * Used to build the in-memory search index without loading entities.
+     * @param userId The user's ID.
+     * @return One Object[] per expense: expenseId, description, transactionDate.
+     */
+    @Query("SELECT e.expenseId, e.description, e.transactionDate FROM Expense e " +
+           "WHERE e.user.userId = :userId")
+    List<Object[]> findSearchDocumentsByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Lists the IDs of every expense in a category.
+     * @param category The category.
+     * @return The expense IDs.
+     */
+    @Query("SELECT e.expenseId FROM Expense e WHERE e.category = :category")
+    List<Integer> findIdsByCategory(@Param("category") Category category);
+
+    /**
+     * Moves every expense of one category to another, e.g. when categories are merged.
+     * @param source The category the expenses leave.
+     * @param target The category the expenses move to.
+     * @return The number of expenses updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Expense e SET e.category = :target WHERE e.category = :source")
+    int reassignCategory(@Param("source") Category source, @Param("target") Category target);
 }
@@ -0,0 +1,158 @@
+package com.spentoo.expense.service;
+
+import com.spentoo.category.model.Category;
+import com.spentoo.events.ExpenseBatchCreatedEvent;
+import com.spentoo.events.ExpenseChangedEvent;
+import com.spentoo.events.ExpenseSnapshot;
+import com.spentoo.expense.repository.ExpenseDailyRollupRepository;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the ExpenseDailyRollup table.
+ * Listeners run inside the expense transaction, so the rollup commits or rolls back together with the expense change.
+ */
+@Service
+public class ExpenseRollupService {
+
+    private final ExpenseDailyRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DataVersionService dataVersionService;
+
+    public ExpenseRollupService(ExpenseDailyRollupRepository rollupRepository, UserRepository userRepository,
+                                PlatformTransactionManager transactionManager, DataVersionService dataVersionService) {
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataVersionService = dataVersionService;
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void handleExpenseChangedEvent(ExpenseChangedEvent event) {
+        ExpenseSnapshot before = event.getBefore();
+        ExpenseSnapshot after = event.getAfter();
+        if (before != null && after != null && before.sameBucketAs(after)) {
+            // Edit within the same day, category and payment method: only the amount can differ
+            addToBucket(after, after.getAmount().subtract(before.getAmount()), 0);
+            return;
+        }
+        if (before != null) {
+            addToBucket(before, before.getAmount().negate(), -1);
+        }
+        if (after != null) {
+            addToBucket(after, after.getAmount(), 1);
+        }
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void handleExpenseBatchCreatedEvent(ExpenseBatchCreatedEvent event) {
+        // Merge the batch per bucket first so each bucket is written once
+        Map<List<Object>, Bucket> buckets = new LinkedHashMap<>();
+        for (ExpenseSnapshot expense : event.getExpenses()) {
+            List<Object> key = Arrays.asList(expense.getCategoryId(), expense.getPaymentMethodId(), expense.getTransactionDate());
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(expense));
+            bucket.amount = bucket.amount.add(expense.getAmount());
+            bucket.count++;
+        }
+        for (Bucket bucket : buckets.values()) {
+            addToBucket(bucket.expense, bucket.amount, bucket.count);
+        }
+    }
+
+    /**
+     * Folds one category's rollup buckets into another's after its expenses were moved there.
+     * Three set-based statements instead of a rebuild from raw expenses: overlapping buckets are added into the
+     * target's and deleted, then the rest are re-pointed to the target.
+     * @param user The owner of both categories.
+     * @param source The category whose expenses were moved away.
+     * @param target The category that received them.
+     */
+    @Transactional
+    public void mergeCategory(User user, Category source, Category target) {
+        rollupRepository.addIntoMatchingBuckets(user, source, target);
+        rollupRepository.deleteMatchingBuckets(user, source, target);
+        rollupRepository.reassignCategory(user, source, target);
+        dataVersionService.bump(user.getEmail()); // Aggregates served from the rollup may have changed
+    }
+
+    /**
+     * Rebuilds all rollup rows of one user from the raw expenses.
+     * @param user The user.
+     * @return The number of rollup rows created.
+     */
+    @Transactional
+    public int rebuildForUser(User user) {
+        rollupRepository.deleteAllByUser(user);
+        int rows = rollupRepository.insertFromExpensesByUser(user);
+        dataVersionService.bump(user.getEmail()); // Aggregates served from the rollup may have changed
+        return rows;
+    }
+
+    /**
+     * Rebuilds the rollup for every user, one transaction per user so a long backfill never holds
+     * locks on the whole table. Disabled unless spentoo.rollup.rebuild-cron is set.
+     */
+    @Scheduled(cron = "${spentoo.rollup.rebuild-cron:-}")
+    public void rebuildAll() {
+        rebuild(userRepository.findAllUserIds());
+    }
+
+    // Backfills users whose expenses predate the rollup table; a no-op once every user with expenses has rows
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        List<Integer> userIds = rollupRepository.findUserIdsWithMissingRows();
+        if (!userIds.isEmpty()) {
+            rebuild(userIds);
+        }
+    }
+
+    private void rebuild(List<Integer> userIds) {
+        long rows = 0;
+        for (Integer userId : userIds) {
+            Integer created = transactionTemplate.execute(status -> rebuildForUser(userRepository.getReferenceById(userId)));
+            rows += created != null ? created : 0;
+        }
+        System.out.println("Expense rollup rebuilt for " + userIds.size() + " users (" + rows + " rows).");
+    }
+
+    private void addToBucket(ExpenseSnapshot expense, BigDecimal amount, int count) {
+        int updated = rollupRepository.upsertBucket(expense.getUserId(), expense.getCategoryId(), expense.getPaymentMethodId(),
+                expense.getTransactionDate(), amount, count);
+        if (updated > 0 && count < 0) {
+            rollupRepository.deleteEmptyBucket(expense.getUserId(), expense.getCategoryId(), expense.getPaymentMethodId(),
+                    expense.getTransactionDate());
+        }
+    }
+
+    private static final class Bucket {
+        private final ExpenseSnapshot expense; // Any expense of the bucket, for its user/category/payment method/date
+        private BigDecimal amount = BigDecimal.ZERO;
+        private int count;
+
+        private Bucket(ExpenseSnapshot expense) {
+            this.expense = expense;
+        }
+    }
+}
@@ -1,47 +1,97 @@
 package com.spentoo.expense.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVWriter;
 import com.spentoo.category.dto.CategoryDTO;
 import com.spentoo.category.model.Category;
 import com.spentoo.category.model.CategoryType;
 import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.events.ExpenseBatchCreatedEvent;
 import com.spentoo.events.ExpenseChangedEvent;
+import com.spentoo.events.ExpenseSnapshot;
 import com.spentoo.expense.dto.CreateExpenseRequestDTO;
+import com.spentoo.expense.dto.ExpenseAggregateDTO;
 import com.spentoo.expense.dto.ExpenseDTO;
+import com.spentoo.expense.dto.ExpenseListRowDTO;
 import com.spentoo.expense.dto.UpdateExpenseRequestDTO;
 import com.spentoo.expense.model.Expense;
+import com.spentoo.expense.repository.ExpenseAggregateRepository;
 import com.spentoo.expense.repository.ExpenseRepository;
+import com.spentoo.pagination.KeysetCursor;
+import com.spentoo.pagination.KeysetPage;
 import com.spentoo.payment.dto.PaymentMethodDTO;
 import com.spentoo.payment.model.PaymentMethod;
 import com.spentoo.payment.repository.PaymentMethodRepository;
+import com.spentoo.search.SearchIndex;
+import com.spentoo.search.dto.SearchPageDTO;
+import com.spentoo.search.service.TransactionSearchService;
+import com.spentoo.sync.service.DataVersionService;
 import com.spentoo.user.model.User;
 import com.spentoo.user.repository.UserRepository;
+import com.spentoo.user.service.SystemReferenceRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ExpenseService {
 
+    private static final String[] EXPORT_HEADER = {
+            "ExpenseID", "TransactionDate", "Amount", "Category", "PaymentMethod", "Description"
+    };
+
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final PaymentMethodRepository paymentMethodRepository;
     private final ApplicationEventPublisher eventPublisher; // For publishing events
+    private final ObjectMapper objectMapper;
+    private final TransactionSearchService transactionSearchService;
+    private final DataVersionService dataVersionService;
+    private final SystemReferenceRegistry systemReferenceRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public ExpenseService(ExpenseRepository expenseRepository, UserRepository userRepository,
                           CategoryRepository categoryRepository, PaymentMethodRepository paymentMethodRepository,
-                          ApplicationEventPublisher eventPublisher) {
+                          ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                          TransactionSearchService transactionSearchService,
+                          DataVersionService dataVersionService,
+                          SystemReferenceRegistry systemReferenceRegistry) {
         this.expenseRepository = expenseRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.paymentMethodRepository = paymentMethodRepository;
         this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionSearchService = transactionSearchService;
+        this.dataVersionService = dataVersionService;
+        this.systemReferenceRegistry = systemReferenceRegistry;
     }
 
     @Transactional
@@ -55,22 +105,13 @@ public class ExpenseService {
                 .filter(cat -> cat.getUser().getUserId().equals(user.getUserId()))
                 .orElseThrow(() -> new IllegalStateException("Category not found or access denied."));
 
-        if (!category.isActive()) {
-            throw new IllegalStateException("Cannot add expenses to inactive categories.");
-        }
-        if (!category.isBudgetable()) { // Check if category is budgetable
-            throw new IllegalStateException("Expenses cannot be added to non-budgetable categories.");
-        }
-        if (category.getType() != CategoryType.EXPENSE) {
-            throw new IllegalStateException("Transactions can only be added to categories of type EXPENSE.");
-        }
+        validateExpenseCategory(category);
 
         // 3. Handle Payment Method
         PaymentMethod paymentMethod;
         if (requestDTO.getPaymentMethodId() == null) {
-            // Default to "Cash" if no payment method is provided - use case-insensitive lookup
-            paymentMethod = paymentMethodRepository.findByUserAndNameIgnoreCase(user, "Cash")
-                    .orElseThrow(() -> new IllegalStateException("Default 'Cash' payment method not found for user."));
+            // Default to "Cash" if no payment method is provided - the ID comes from the per-user registry
+            paymentMethod = paymentMethodRepository.getReferenceById(systemReferenceRegistry.getCashMethodId(user));
         } else {
             // Find and validate the provided payment method - verify user ownership
             paymentMethod = paymentMethodRepository.findById(requestDTO.getPaymentMethodId())
@@ -97,12 +138,96 @@ public class ExpenseService {
         Expense savedExpense = expenseRepository.save(newExpense);
 
         // Publish event
-        eventPublisher.publishEvent(new ExpenseChangedEvent(this, savedExpense, ExpenseChangedEvent.ChangeType.CREATED));
+        eventPublisher.publishEvent(new ExpenseChangedEvent(this, null, ExpenseSnapshot.of(savedExpense), ExpenseChangedEvent.ChangeType.CREATED));
 
+        dataVersionService.bump(userEmail);
         // 6. Convert to DTO and return
         return convertToDTO(savedExpense);
     }
 
+    /**
+     * Creates many expenses in one transaction, e.g. when a mobile client syncs its offline queue.
+     * The user, categories and payment methods are resolved once per batch, every row is validated
+     * before anything is written, and a single batch event is published so budgets are recalculated
+     * once per affected budget instead of once per expense.
+     * @param requests The expenses to create.
+     * @param userEmail The user's email.
+     * @return The created expenses, in request order.
+     */
+    @Transactional
+    public List<ExpenseDTO> addExpenses(List<CreateExpenseRequestDTO> requests, String userEmail) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        // 1. Resolve every referenced category and payment method with one query each
+        Set<Integer> categoryIds = requests.stream()
+                .map(CreateExpenseRequestDTO::getCategoryId)
+                .collect(Collectors.toSet());
+        Map<Integer, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                .filter(cat -> cat.getUser().getUserId().equals(user.getUserId()))
+                .collect(Collectors.toMap(Category::getCategoryId, Function.identity()));
+
+        Set<Integer> paymentMethodIds = requests.stream()
+                .map(CreateExpenseRequestDTO::getPaymentMethodId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, PaymentMethod> paymentMethods = paymentMethodRepository.findAllById(paymentMethodIds).stream()
+                .filter(pm -> pm.getUser().getUserId().equals(user.getUserId()))
+                .filter(pm -> pm.isActive())
+                .collect(Collectors.toMap(PaymentMethod::getMethodId, Function.identity()));
+
+        PaymentMethod cash = null;
+        if (requests.stream().anyMatch(request -> request.getPaymentMethodId() == null)) {
+            cash = paymentMethodRepository.getReferenceById(systemReferenceRegistry.getCashMethodId(user));
+        }
+
+        // 2. Validate every row before writing anything
+        List<Expense> newExpenses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateExpenseRequestDTO requestDTO = requests.get(i);
+            String row = "Expense #" + (i + 1) + ": ";
+
+            Category category = categories.get(requestDTO.getCategoryId());
+            if (category == null) {
+                throw new IllegalStateException(row + "Category not found or access denied.");
+            }
+            try {
+                validateExpenseCategory(category);
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException(row + e.getMessage());
+            }
+
+            PaymentMethod paymentMethod = requestDTO.getPaymentMethodId() == null
+                    ? cash
+                    : paymentMethods.get(requestDTO.getPaymentMethodId());
+            if (paymentMethod == null) {
+                throw new IllegalStateException(row + "Payment method not found, inactive, or access denied.");
+            }
+            if (requestDTO.getAmount() == null || requestDTO.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalStateException(row + "Expense amount must be positive.");
+            }
+
+            Expense newExpense = new Expense();
+            newExpense.setUser(user);
+            newExpense.setCategory(category);
+            newExpense.setPaymentMethod(paymentMethod);
+            newExpense.setAmount(requestDTO.getAmount());
+            newExpense.setDescription(requestDTO.getDescription());
+            newExpense.setTransactionDate(requestDTO.getTransactionDate() != null ? requestDTO.getTransactionDate() : LocalDate.now());
+            newExpenses.add(newExpense);
+        }
+
+        // 3. Insert all rows with multi-row statements, then publish one event for the whole batch
+        List<Expense> savedExpenses = expenseRepository.insertAll(newExpenses);
+        eventPublisher.publishEvent(new ExpenseBatchCreatedEvent(this,
+                savedExpenses.stream().map(ExpenseSnapshot::of).toList()));
+
+        dataVersionService.bump(userEmail);
+        return savedExpenses.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public ExpenseDTO editExpense(Integer expenseId, UpdateExpenseRequestDTO requestDTO, String userEmail) {
         User user = userRepository.findByEmailIgnoreCase(userEmail)
@@ -110,6 +235,7 @@ public class ExpenseService {
 
         Expense expense = expenseRepository.findByIdAndUser(expenseId, user)
                 .orElseThrow(() -> new IllegalStateException("Expense record not found or access denied."));
+        ExpenseSnapshot before = ExpenseSnapshot.of(expense); // Listeners need the old values to adjust what the expense leaves
 
         // Update category if provided
         if (requestDTO.getCategoryId() != null) {
@@ -154,8 +280,9 @@ public class ExpenseService {
         Expense updatedExpense = expenseRepository.save(expense);
 
         // Publish event
-        eventPublisher.publishEvent(new ExpenseChangedEvent(this, updatedExpense, ExpenseChangedEvent.ChangeType.UPDATED));
+        eventPublisher.publishEvent(new ExpenseChangedEvent(this, before, ExpenseSnapshot.of(updatedExpense), ExpenseChangedEvent.ChangeType.UPDATED));
 
+        dataVersionService.bump(userEmail);
         return convertToDTO(updatedExpense);
     }
 
@@ -170,7 +297,8 @@ public class ExpenseService {
         expenseRepository.delete(expense); // Hard delete as per specification
 
         // Publish event
-        eventPublisher.publishEvent(new ExpenseChangedEvent(this, expense, ExpenseChangedEvent.ChangeType.DELETED));
+        eventPublisher.publishEvent(new ExpenseChangedEvent(this, ExpenseSnapshot.of(expense), null, ExpenseChangedEvent.ChangeType.DELETED));
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional(readOnly = true)
@@ -194,6 +322,23 @@ public class ExpenseService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads specific expenses of a user, e.g. the records a sync reports as changed.
+     * @param user The user who owns the expenses.
+     * @param expenseIds The IDs to load.
+     * @return The DTOs of the expenses that still exist.
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseDTO> getExpensesByIds(User user, Collection<Integer> expenseIds) {
+        if (expenseIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return expenseRepository.findListRowsByUserAndExpenseIdIn(user, expenseIds)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public List<ExpenseDTO> listExpensesLastWeek(String userEmail) {
         User user = userRepository.findByEmailIgnoreCase(userEmail)
@@ -259,6 +404,248 @@ public class ExpenseService {
     }
 
 
+    /**
+     * Lists one page of expense records using keyset pagination on (transactionDate DESC, expenseId DESC).
+     * A custom date range takes priority over the filter, matching the unpaginated listing.
+     * @param userEmail The user's email.
+     * @param filter Optional relative filter (lastweek, lastmonth, lastyear).
+     * @param startDate Optional custom range start (inclusive).
+     * @param endDate Optional custom range end (inclusive).
+     * @param cursor Opaque cursor from the previous page, or null for the first page.
+     * @param limit Requested page size.
+     * @return The page together with the cursor for the next page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ExpenseDTO> listExpensesPage(String userEmail, String filter, LocalDate startDate, LocalDate endDate,
+                                              String cursor, Integer limit) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        int pageSize = KeysetPage.clampLimit(limit);
+        // Fetch one extra row to find out whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        KeysetCursor after = (cursor != null && !cursor.trim().isEmpty()) ? KeysetCursor.decode(cursor) : null;
+        LocalDate[] range = resolveDateRange(filter, startDate, endDate);
+
+        List<ExpenseListRowDTO> rows;
+        if (range == null) {
+            rows = after == null
+                    ? expenseRepository.findPageByUser(user, pageable)
+                    : expenseRepository.findPageByUserAfter(user, after.getTransactionDate(), after.getId(), pageable);
+        } else {
+            rows = after == null
+                    ? expenseRepository.findPageByUserAndTransactionDateBetween(user, range[0], range[1], pageable)
+                    : expenseRepository.findPageByUserAndTransactionDateBetweenAfter(user, range[0], range[1],
+                            after.getTransactionDate(), after.getId(), pageable);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ExpenseListRowDTO> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ExpenseListRowDTO last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(last.getTransactionDate(), last.getExpenseId()).encode();
+        }
+        List<ExpenseDTO> items = pageRows.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return new KeysetPage<>(items, nextCursor);
+    }
+
+    /**
+     * Searches the user's expense descriptions using the in-memory search index.
+     * Hits are ranked by match quality and recency; only the requested page is loaded from the database.
+     * @param userEmail The user's email.
+     * @param query The search text; every term must match (as a word, word prefix or substring).
+     * @param page Zero-based page number.
+     * @param size Requested page size.
+     * @return The page of ranked results together with the total number of hits.
+     */
+    @Transactional(readOnly = true)
+    public SearchPageDTO<ExpenseDTO> searchExpenses(String userEmail, String query, int page, Integer size) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        if (query == null || SearchIndex.tokenize(query).isEmpty()) {
+            throw new IllegalStateException("Search query must contain at least one letter or digit.");
+        }
+        if (page < 0) {
+            throw new IllegalStateException("Page must not be negative.");
+        }
+
+        int pageSize = SearchPageDTO.clampSize(size);
+        SearchIndex.Hits hits = transactionSearchService.searchExpenses(user.getUserId(), query, SearchPageDTO.offset(page, pageSize), pageSize);
+        if (hits.getIds().isEmpty()) {
+            return new SearchPageDTO<>(new ArrayList<>(), page, pageSize, hits.getTotal());
+        }
+
+        // Load the page in one query, then restore the ranking order
+        Map<Integer, ExpenseDTO> byId = expenseRepository.findListRowsByUserAndExpenseIdIn(user, hits.getIds())
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toMap(ExpenseDTO::getExpenseId, Function.identity()));
+        List<ExpenseDTO> items = hits.getIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new SearchPageDTO<>(items, page, pageSize, hits.getTotal());
+    }
+
+    /**
+     * Aggregates the user's spending in the database, grouped by a dimension and period bucket.
+     * Only the aggregated rows are returned, so charts do not need to download every expense.
+     * @param userEmail The user's email.
+     * @param groupBy none, category, parentCategory or paymentMethod.
+     * @param period none, day, week or month.
+     * @param filter Optional relative filter (lastweek, lastmonth, lastyear).
+     * @param startDate Optional custom range start (inclusive).
+     * @param endDate Optional custom range end (inclusive).
+     * @param categoryId Optional category; only spending in it and its sub-categories is summed.
+     * @return The aggregated rows, ordered by bucket and then by total descending.
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseAggregateDTO> aggregateExpenses(String userEmail, String groupBy, String period, String filter,
+                                                       LocalDate startDate, LocalDate endDate, Integer categoryId) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        ExpenseAggregateRepository.GroupBy groupByValue;
+        switch (groupBy == null ? "category" : groupBy.toLowerCase()) {
+            case "none":
+                groupByValue = ExpenseAggregateRepository.GroupBy.NONE;
+                break;
+            case "category":
+                groupByValue = ExpenseAggregateRepository.GroupBy.CATEGORY;
+                break;
+            case "parentcategory":
+                groupByValue = ExpenseAggregateRepository.GroupBy.PARENT_CATEGORY;
+                break;
+            case "paymentmethod":
+                groupByValue = ExpenseAggregateRepository.GroupBy.PAYMENT_METHOD;
+                break;
+            default:
+                throw new IllegalStateException("groupBy must be one of: none, category, parentCategory, paymentMethod.");
+        }
+
+        ExpenseAggregateRepository.Period periodValue;
+        switch (period == null ? "none" : period.toLowerCase()) {
+            case "none":
+                periodValue = ExpenseAggregateRepository.Period.NONE;
+                break;
+            case "day":
+                periodValue = ExpenseAggregateRepository.Period.DAY;
+                break;
+            case "week":
+                periodValue = ExpenseAggregateRepository.Period.WEEK;
+                break;
+            case "month":
+                periodValue = ExpenseAggregateRepository.Period.MONTH;
+                break;
+            default:
+                throw new IllegalStateException("period must be one of: none, day, week, month.");
+        }
+
+        LocalDate[] range = resolveDateRange(filter, startDate, endDate);
+        return expenseRepository.aggregateByUser(user, groupByValue, periodValue,
+                range != null ? range[0] : null, range != null ? range[1] : null, categoryId);
+    }
+
+    // Resolves the listing period: custom range first, then relative filter, otherwise null (all time)
+    private LocalDate[] resolveDateRange(String filter, LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null) {
+            if (endDate.isBefore(startDate)) {
+                throw new IllegalStateException("End date cannot be before start date.");
+            }
+            return new LocalDate[]{startDate, endDate};
+        }
+        if (filter == null) {
+            return null;
+        }
+        LocalDate today = LocalDate.now();
+        switch (filter.toLowerCase()) {
+            case "lastweek":
+            case "week":
+                return new LocalDate[]{today.minusDays(6), today};
+            case "lastmonth":
+            case "month":
+                return new LocalDate[]{today.minusDays(29), today};
+            case "lastyear":
+            case "year":
+                return new LocalDate[]{today.minusDays(364), today};
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Writes the user's full expense history as CSV.
+     * Rows are streamed from the database and written one at a time, so memory use does not grow with history size.
+     * @param userEmail The user's email.
+     * @param outputStream The response stream to write to (not closed by this method).
+     */
+    @Transactional(readOnly = true)
+    public void exportExpensesCsv(String userEmail, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        CSVWriter csvWriter = new CSVWriter(writer);
+        csvWriter.writeNext(EXPORT_HEADER);
+        forEachExpense(userEmail, expense -> csvWriter.writeNext(new String[]{
+                String.valueOf(expense.getExpenseId()),
+                String.valueOf(expense.getTransactionDate()),
+                expense.getAmount().toPlainString(),
+                expense.getCategory().getCategoryName(),
+                expense.getPaymentMethod().getName(),
+                expense.getDescription()
+        }));
+        csvWriter.flush();
+    }
+
+    /**
+     * Writes the user's full expense history as newline-delimited JSON, one ExpenseDTO per line.
+     * @param userEmail The user's email.
+     * @param outputStream The response stream to write to (not closed by this method).
+     */
+    @Transactional(readOnly = true)
+    public void exportExpensesNdjson(String userEmail, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        forEachExpense(userEmail, expense -> {
+            try {
+                writer.write(objectMapper.writeValueAsString(convertToDTO(expense)));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    // Streams the user's expenses and detaches each row once written so the persistence context stays small
+    private void forEachExpense(String userEmail, Consumer<Expense> rowWriter) throws IOException {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        try (Stream<Expense> expenses = expenseRepository.streamAllByUser(user)) {
+            expenses.forEach(expense -> {
+                rowWriter.accept(expense);
+                entityManager.detach(expense);
+            });
+        } catch (java.io.UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Checks that expenses may be booked to the category (active, budgetable, EXPENSE type)
+    private void validateExpenseCategory(Category category) {
+        if (!category.isActive()) {
+            throw new IllegalStateException("Cannot add expenses to inactive categories.");
+        }
+        if (!category.isBudgetable()) { // Check if category is budgetable
+            throw new IllegalStateException("Expenses cannot be added to non-budgetable categories.");
+        }
+        if (category.getType() != CategoryType.EXPENSE) {
+            throw new IllegalStateException("Transactions can only be added to categories of type EXPENSE.");
+        }
+    }
+
     // Helper method to convert Expense entity to DTO
     private ExpenseDTO convertToDTO(Expense expense) {
         if (expense == null) {
@@ -285,6 +672,55 @@ public class ExpenseService {
         return dto;
     }
 
+    // Maps a projected listing row to the DTO without touching any managed entity
+    private ExpenseDTO convertToDTO(ExpenseListRowDTO row) {
+        ExpenseDTO dto = new ExpenseDTO();
+        dto.setExpenseId(row.getExpenseId());
+        dto.setUserId(row.getUserId());
+        dto.setCategory(convertRowCategoryToDTO(row));
+        dto.setPaymentMethod(convertRowPaymentMethodToDTO(row));
+        dto.setAmount(row.getAmount());
+        dto.setDescription(row.getDescription());
+        // Same fallback as convertToDTO(Expense) for legacy rows without a transaction date
+        dto.setTransactionDate(row.getTransactionDate() != null ? row.getTransactionDate() : LocalDate.now());
+        return dto;
+    }
+
+    private CategoryDTO convertRowCategoryToDTO(ExpenseListRowDTO row) {
+        if (row.getCategoryId() == null) {
+            return null;
+        }
+        CategoryDTO dto = new CategoryDTO();
+        dto.setCategoryId(row.getCategoryId());
+        dto.setCategoryName(row.getCategoryName());
+        dto.setType(row.getCategoryType());
+        dto.setIcon(row.getCategoryIcon());
+        dto.setColor(row.getCategoryColor());
+        dto.setSortOrder(row.getCategorySortOrder());
+        dto.setDefault(Boolean.TRUE.equals(row.getCategoryDefault()));
+        dto.setActive(Boolean.TRUE.equals(row.getCategoryActive()));
+        dto.setParentCategoryId(row.getParentCategoryId());
+        dto.setCreatedAt(row.getCategoryCreatedAt());
+        dto.setUpdatedAt(row.getCategoryUpdatedAt());
+        return dto;
+    }
+
+    private PaymentMethodDTO convertRowPaymentMethodToDTO(ExpenseListRowDTO row) {
+        if (row.getPaymentMethodId() == null) {
+            return null;
+        }
+        PaymentMethodDTO dto = new PaymentMethodDTO();
+        dto.setMethodId(row.getPaymentMethodId());
+        dto.setUserId(row.getPaymentMethodUserId());
+        dto.setName(row.getPaymentMethodName());
+        dto.setProvider(row.getPaymentMethodProvider());
+        dto.setAccountNumberMasked(row.getPaymentMethodAccountNumberMasked());
+        dto.setActive(Boolean.TRUE.equals(row.getPaymentMethodActive()));
+        dto.setCreatedAt(row.getPaymentMethodCreatedAt());
+        dto.setUpdatedAt(row.getPaymentMethodUpdatedAt());
+        return dto;
+    }
+
     // Helper method to convert Category entity to DTO (optimized - no recursive subcategories for expense context)
     private CategoryDTO convertCategoryToDTO(Category category) {
         if (category == null) {
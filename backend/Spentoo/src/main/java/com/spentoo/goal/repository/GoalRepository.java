@@ -2,11 +2,16 @@ package com.spentoo.goal.repository;
 
 import com.spentoo.goal.model.Goal;
 import com.spentoo.user.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,4 +54,28 @@ public interface GoalRepository extends JpaRepository<Goal, Integer> {
            "LEFT JOIN FETCH g.user " +
            "WHERE g.goalId = :goalId AND g.user = :user")
     Optional<Goal> findByIdAndUser(@Param("goalId") Integer goalId, @Param("user") User user);
+
+    /**
+     * Finds open goals whose deadline has passed without reaching the target, for the status sweep.
+     * @param today Today's date.
+     * @param pageable The batch size (always the first page, since updated rows drop out of the result).
+     * @return One Object[] per goal: goal ID, user ID, user email.
+     */
+    @Query("SELECT g.goalId, g.user.userId, g.user.email FROM Goal g " +
+           "WHERE (g.status = com.spentoo.goal.model.GoalStatus.ACTIVE OR g.status IS NULL) " +
+           "AND g.deadlineDate < :today AND g.savedAmount < g.targetAmount " +
+           "ORDER BY g.goalId")
+    List<Object[]> findMissedActive(@Param("today") LocalDate today, Pageable pageable);
+
+    /**
+     * Moves open goals to FAILED.
+     * @param goalIds The goals to fail.
+     * @param now The update timestamp.
+     * @return The number of goals updated.
+     */
+    @Modifying
+    @Query("UPDATE Goal g SET g.status = com.spentoo.goal.model.GoalStatus.FAILED, g.updatedAt = :now " +
+           "WHERE g.goalId IN :goalIds " +
+           "AND (g.status = com.spentoo.goal.model.GoalStatus.ACTIVE OR g.status IS NULL)")
+    int markFailed(@Param("goalIds") Collection<Integer> goalIds, @Param("now") LocalDateTime now);
 }
@@ -6,6 +6,7 @@ import com.spentoo.goal.dto.UpdateGoalRequestDTO;
 import com.spentoo.goal.model.Goal;
 import com.spentoo.goal.model.GoalStatus;
 import com.spentoo.goal.repository.GoalRepository;
+import com.spentoo.sync.service.DataVersionService;
 import com.spentoo.user.model.User;
 import com.spentoo.user.repository.UserRepository;
 import jakarta.persistence.EntityManager;
@@ -25,13 +26,16 @@ public class GoalService {
 
     private final GoalRepository goalRepository;
     private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
     
     @PersistenceContext
     private EntityManager entityManager;
 
-    public GoalService(GoalRepository goalRepository, UserRepository userRepository) {
+    public GoalService(GoalRepository goalRepository, UserRepository userRepository,
+                       DataVersionService dataVersionService) {
         this.goalRepository = goalRepository;
         this.userRepository = userRepository;
+        this.dataVersionService = dataVersionService;
     }
 
     @Transactional
@@ -55,6 +59,7 @@ public class GoalService {
         // Fetch the goal with user to ensure it's loaded before converting to DTO
         Goal goalWithUser = goalRepository.findByIdAndUser(savedGoal.getGoalId(), user)
                 .orElseThrow(() -> new IllegalStateException("Failed to retrieve saved goal."));
+        dataVersionService.bump(userEmail);
         return convertToDTO(goalWithUser);
     }
 
@@ -91,6 +96,7 @@ public class GoalService {
         // Fetch the goal with user to ensure it's loaded before converting to DTO
         Goal goalWithUser = goalRepository.findByIdAndUser(updatedGoal.getGoalId(), user)
                 .orElseThrow(() -> new IllegalStateException("Failed to retrieve updated goal."));
+        dataVersionService.bump(userEmail);
         return convertToDTO(goalWithUser);
     }
 
@@ -102,21 +108,18 @@ public class GoalService {
                 .orElseThrow(() -> new IllegalStateException("Goal not found or access denied."));
 
         goalRepository.delete(goal);
+        dataVersionService.bump(userEmail);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public GoalDTO getSingleGoal(Integer goalId, String userEmail) {
         User user = userRepository.findByEmailIgnoreCase(userEmail)
                 .orElseThrow(() -> new IllegalStateException("User not found."));
-        Goal goal = goalRepository.findByIdAndUser(goalId, user)
+        // Progress and status are stored on every write and deadline failures are applied by StatusSweepService,
+        // so reading a goal never modifies it
+        return goalRepository.findByIdAndUser(goalId, user)
+                .map(this::convertToDTO)
                 .orElseThrow(() -> new IllegalStateException("Goal not found or access denied."));
-        
-        // Calculate progressPercent from existing savedAmount (without recalculating savedAmount from income/expenses)
-        // This ensures progress is up-to-date without overwriting user-entered savedAmount
-        calculateProgressFromSavedAmount(goal);
-        goalRepository.save(goal);
-        
-        return convertToDTO(goal);
     }
 
     @Transactional(readOnly = true)
@@ -179,13 +182,7 @@ public class GoalService {
                 return List.of();
             }
             
-            // Recalculate progress percentage and status from existing savedAmount (without recalculating savedAmount)
-            // This ensures progress is up-to-date without overwriting user-entered savedAmount
-            goals.forEach(goal -> {
-                calculateProgressFromSavedAmount(goal);
-            });
-            
-            // Convert to DTOs using the updated goal entities
+            // Convert to DTOs as stored; StatusSweepService keeps deadline-based statuses current
             return goals.stream()
                     .map(this::convertToDTO)
                     .filter(dto -> dto != null)
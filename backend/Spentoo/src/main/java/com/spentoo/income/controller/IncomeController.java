@@ -4,7 +4,10 @@ import com.spentoo.income.dto.CreateIncomeRequestDTO;
 import com.spentoo.income.dto.IncomeDTO;
 import com.spentoo.income.dto.UpdateIncomeRequestDTO;
 import com.spentoo.income.service.IncomeService;
+import com.spentoo.pagination.KeysetPage;
+import com.spentoo.search.dto.SearchPageDTO;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -47,6 +50,16 @@ public class IncomeController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<SearchPageDTO<IncomeDTO>> searchIncomes(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal String userEmail) {
+        SearchPageDTO<IncomeDTO> results = incomeService.searchIncomes(userEmail, query, page, size);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<IncomeDTO> getSingleIncome(
             @PathVariable("id") Integer id,
@@ -60,7 +73,14 @@ public class IncomeController {
             @RequestParam(required = false) String filter,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal String userEmail) {
+        // Keyset pagination is opt-in: the unpaginated response is kept for existing clients
+        if (cursor != null || limit != null) {
+            return listIncomesPage(filter, startDate, endDate, cursor, limit, userEmail);
+        }
+
         List<IncomeDTO> incomes;
         
         // If custom date range is provided, use it (takes priority over filter)
@@ -97,4 +117,25 @@ public class IncomeController {
         
         return new ResponseEntity<>(incomes, HttpStatus.OK);
     }
+
+    private ResponseEntity<List<IncomeDTO>> listIncomesPage(String filter, String startDate, String endDate,
+                                                         String cursor, Integer limit, String userEmail) {
+        java.time.LocalDate start = null;
+        java.time.LocalDate end = null;
+        if (startDate != null && !startDate.trim().isEmpty() && endDate != null && !endDate.trim().isEmpty()) {
+            try {
+                start = java.time.LocalDate.parse(startDate.trim());
+                end = java.time.LocalDate.parse(endDate.trim());
+            } catch (java.time.format.DateTimeParseException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        KeysetPage<IncomeDTO> page = incomeService.listIncomesPage(userEmail, filter, start, end, cursor, limit);
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            headers.set(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return new ResponseEntity<>(page.getItems(), headers, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,37 @@
+package com.spentoo.income.dto;
+
+import com.spentoo.category.model.CategoryType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model for income listings, filled by a JPQL constructor expression.
+ * Constructor argument order must match IncomeRepository.LIST_ROW_SELECT.
+ */
+@Data
+@AllArgsConstructor
+public class IncomeListRowDTO {
+
+    private Integer incomeId;
+    private Integer userId;
+    private BigDecimal amount;
+    private String source;
+    private String description;
+    private LocalDate transactionDate;
+
+    private Integer categoryId;
+    private String categoryName;
+    private CategoryType categoryType;
+    private String categoryIcon;
+    private String categoryColor;
+    private Integer categorySortOrder;
+    private Boolean categoryDefault;
+    private Boolean categoryActive;
+    private Integer parentCategoryId;
+    private LocalDateTime categoryCreatedAt;
+    private LocalDateTime categoryUpdatedAt;
+}
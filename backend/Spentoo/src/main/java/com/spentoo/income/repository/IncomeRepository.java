@@ -1,13 +1,18 @@
 package com.spentoo.income.repository;
 
+import com.spentoo.category.model.Category;
+import com.spentoo.income.dto.IncomeListRowDTO;
 import com.spentoo.income.model.Income;
 import com.spentoo.user.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,16 +20,27 @@ import java.util.Optional;
 public interface IncomeRepository extends JpaRepository<Income, Integer> {
 
     /**
-     * Finds all income records for a specific user with eager fetching of category.
-     * This prevents N+1 query problems.
+     * Constructor expression shared by the listing queries.
+     * Listings are read-only, so rows are projected straight into IncomeListRowDTO instead of
+     * hydrating managed Income and Category entities.
+     */
+    String LIST_ROW_SELECT = "SELECT new com.spentoo.income.dto.IncomeListRowDTO(" +
+            "i.incomeId, i.user.userId, i.amount, i.source, i.description, i.transactionDate, " +
+            "c.categoryId, c.categoryName, c.type, c.icon, c.color, c.sortOrder, c.isDefault, c.isActive, " +
+            "pc.categoryId, c.createdAt, c.updatedAt) " +
+            "FROM Income i " +
+            "LEFT JOIN i.category c " +
+            "LEFT JOIN c.parentCategory pc ";
+
+    /**
+     * Lists all income records for a specific user as flat rows (category columns included).
      * @param user The user whose income records to find.
-     * @return A list of income records for the given user.
+     * @return A list of income rows for the given user.
      */
-    @Query("SELECT i FROM Income i " +
-           "LEFT JOIN FETCH i.category " +
+    @Query(LIST_ROW_SELECT +
            "WHERE i.user = :user " +
            "ORDER BY i.transactionDate DESC")
-    List<Income> findAllByUser(@Param("user") User user);
+    List<IncomeListRowDTO> findAllByUser(@Param("user") User user);
 
     /**
      * Finds an income record by ID and user with eager fetching.
@@ -38,19 +54,152 @@ public interface IncomeRepository extends JpaRepository<Income, Integer> {
     Optional<Income> findByIdAndUser(@Param("incomeId") Integer incomeId, @Param("user") User user);
 
     /**
-     * Finds all income records for a user within a specific date range with eager fetching of category.
+     * Lists all income records for a user within a specific date range as flat rows.
      * @param user The user.
      * @param startDate The start date of the period (inclusive).
      * @param endDate The end date of the period (inclusive).
-     * @return A list of income records matching the criteria.
+     * @return A list of income rows matching the criteria.
      */
-    @Query("SELECT i FROM Income i " +
-           "LEFT JOIN FETCH i.category " +
+    @Query(LIST_ROW_SELECT +
            "WHERE i.user = :user " +
            "AND i.transactionDate BETWEEN :startDate AND :endDate " +
            "ORDER BY i.transactionDate DESC")
-    List<Income> findAllByUserAndTransactionDateBetween(@Param("user") User user,
+    List<IncomeListRowDTO> findAllByUserAndTransactionDateBetween(@Param("user") User user,
                                                           @Param("startDate") LocalDate startDate,
                                                           @Param("endDate") LocalDate endDate);
 
+    /**
+     * Finds the first page of a user's income records for keyset pagination.
+     * Ordered by transaction date and ID descending so the last row can seed the next cursor.
+     * @param user The user whose income records to find.
+     * @param pageable The page size (offset is always 0 for keyset pages).
+     * @return Up to pageable.getPageSize() income rows.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE i.user = :user " +
+           "ORDER BY i.transactionDate DESC, i.incomeId DESC")
+    List<IncomeListRowDTO> findPageByUser(@Param("user") User user, Pageable pageable);
+
+    /**
+     * Finds the next page of a user's income records after the given cursor position.
+     * @param user The user whose income records to find.
+     * @param cursorDate The transaction date of the last row of the previous page.
+     * @param cursorId The income ID of the last row of the previous page.
+     * @param pageable The page size.
+     * @return Up to pageable.getPageSize() income rows that sort after the cursor.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE i.user = :user " +
+           "AND (i.transactionDate < :cursorDate " +
+           "OR (i.transactionDate = :cursorDate AND i.incomeId < :cursorId)) " +
+           "ORDER BY i.transactionDate DESC, i.incomeId DESC")
+    List<IncomeListRowDTO> findPageByUserAfter(@Param("user") User user,
+                                     @Param("cursorDate") LocalDate cursorDate,
+                                     @Param("cursorId") Integer cursorId,
+                                     Pageable pageable);
+
+    /**
+     * Finds the first page of a user's income records within a date range for keyset pagination.
+     * @param user The user.
+     * @param startDate The start date of the period (inclusive).
+     * @param endDate The end date of the period (inclusive).
+     * @param pageable The page size.
+     * @return Up to pageable.getPageSize() income rows.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE i.user = :user " +
+           "AND i.transactionDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY i.transactionDate DESC, i.incomeId DESC")
+    List<IncomeListRowDTO> findPageByUserAndTransactionDateBetween(@Param("user") User user,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate,
+                                                         Pageable pageable);
+
+    /**
+     * Finds the next page of a user's income records within a date range after the given cursor position.
+     * @param user The user.
+     * @param startDate The start date of the period (inclusive).
+     * @param endDate The end date of the period (inclusive).
+     * @param cursorDate The transaction date of the last row of the previous page.
+     * @param cursorId The income ID of the last row of the previous page.
+     * @param pageable The page size.
+     * @return Up to pageable.getPageSize() income rows that sort after the cursor.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE i.user = :user " +
+           "AND i.transactionDate BETWEEN :startDate AND :endDate " +
+           "AND (i.transactionDate < :cursorDate " +
+           "OR (i.transactionDate = :cursorDate AND i.incomeId < :cursorId)) " +
+           "ORDER BY i.transactionDate DESC, i.incomeId DESC")
+    List<IncomeListRowDTO> findPageByUserAndTransactionDateBetweenAfter(@Param("user") User user,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate,
+                                                              @Param("cursorDate") LocalDate cursorDate,
+                                                              @Param("cursorId") Integer cursorId,
+                                                              Pageable pageable);
+
+    /**
+     * Returns the (transactionDate, amount, description) content of a user's income records within a date range.
+     * Used by the statement importer to detect rows that were already imported, without loading entities.
+     * @param user The user.
+     * @param startDate The start date of the period (inclusive).
+     * @param endDate The end date of the period (inclusive).
+     * @param maxId The highest ID to include, so rows written after that point are left out.
+     * @return One Object[] per row: transactionDate, amount, description.
+     */
+    @Query("SELECT i.transactionDate, i.amount, i.description FROM Income i " +
+           "WHERE i.user = :user " +
+           "AND i.transactionDate BETWEEN :startDate AND :endDate " +
+           "AND i.incomeId <= :maxId")
+    List<Object[]> findContentByUserAndTransactionDateBetween(@Param("user") User user,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate,
+                                                              @Param("maxId") Integer maxId);
+
+    /**
+     * Finds the highest income ID of a user.
+     * @param user The user.
+     * @return The highest ID, or null if the user has no income records.
+     */
+    @Query("SELECT MAX(i.incomeId) FROM Income i WHERE i.user = :user")
+    Integer findMaxIdByUser(@Param("user") User user);
+
+    /**
+     * Lists specific income records of a user as flat rows, e.g. one page of search hits.
+     * @param user The user who owns the income records.
+     * @param incomeIds The income IDs to load.
+     * @return The matching income rows, in no particular order.
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE i.user = :user AND i.incomeId IN :incomeIds")
+    List<IncomeListRowDTO> findListRowsByUserAndIncomeIdIn(@Param("user") User user,
+                                                         @Param("incomeIds") Collection<Integer> incomeIds);
+
+    /**
+     * Returns the (incomeId, source, description, transactionDate) of every income record of a user.
+     * Used to build the in-memory search index without loading entities.
+     * @param userId The user's ID.
+     * @return One Object[] per income record: incomeId, source, description, transactionDate.
+     */
+    @Query("SELECT i.incomeId, i.source, i.description, i.transactionDate FROM Income i " +
+           "WHERE i.user.userId = :userId")
+    List<Object[]> findSearchDocumentsByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Lists the IDs of every income record in a category.
+     * @param category The category.
+     * @return The income IDs.
+     */
+    @Query("SELECT i.incomeId FROM Income i WHERE i.category = :category")
+    List<Integer> findIdsByCategory(@Param("category") Category category);
+
+    /**
+     * Moves every income record of one category to another, e.g. when categories are merged.
+     * @param source The category the income records leave.
+     * @param target The category the income records move to.
+     * @return The number of income records updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Income i SET i.category = :target WHERE i.category = :source")
+    int reassignCategory(@Param("source") Category source, @Param("target") Category target);
 }
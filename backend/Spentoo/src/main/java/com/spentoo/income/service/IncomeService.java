@@ -4,20 +4,36 @@ import com.spentoo.category.dto.CategoryDTO;
 import com.spentoo.category.model.Category;
 import com.spentoo.category.model.CategoryType;
 import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.events.IncomeChangedEvent;
 import com.spentoo.income.dto.CreateIncomeRequestDTO;
 import com.spentoo.income.dto.IncomeDTO;
+import com.spentoo.income.dto.IncomeListRowDTO;
 import com.spentoo.income.dto.UpdateIncomeRequestDTO;
 import com.spentoo.income.model.Income;
 import com.spentoo.income.repository.IncomeRepository;
+import com.spentoo.pagination.KeysetCursor;
+import com.spentoo.pagination.KeysetPage;
+import com.spentoo.search.SearchIndex;
+import com.spentoo.search.dto.SearchPageDTO;
+import com.spentoo.search.service.TransactionSearchService;
+import com.spentoo.sync.service.DataVersionService;
 import com.spentoo.user.model.User;
 import com.spentoo.user.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,11 +42,19 @@ public class IncomeService {
     private final IncomeRepository incomeRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher; // For publishing events
+    private final TransactionSearchService transactionSearchService;
+    private final DataVersionService dataVersionService;
 
-    public IncomeService(IncomeRepository incomeRepository, UserRepository userRepository, CategoryRepository categoryRepository) {
+    public IncomeService(IncomeRepository incomeRepository, UserRepository userRepository, CategoryRepository categoryRepository,
+                         ApplicationEventPublisher eventPublisher, TransactionSearchService transactionSearchService,
+                         DataVersionService dataVersionService) {
         this.incomeRepository = incomeRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionSearchService = transactionSearchService;
+        this.dataVersionService = dataVersionService;
     }
 
     @Transactional
@@ -67,6 +91,11 @@ public class IncomeService {
         newIncome.setTransactionDate(requestDTO.getTransactionDate() != null ? requestDTO.getTransactionDate() : LocalDate.now());
 
         Income savedIncome = incomeRepository.save(newIncome);
+
+        // Publish event
+        eventPublisher.publishEvent(new IncomeChangedEvent(this, savedIncome, IncomeChangedEvent.ChangeType.CREATED));
+
+        dataVersionService.bump(userEmail);
         return convertToDTO(savedIncome);
     }
 
@@ -113,6 +142,11 @@ public class IncomeService {
         // Note: If transactionDate is null in request, we keep the existing income date unchanged
 
         Income updatedIncome = incomeRepository.save(income);
+
+        // Publish event
+        eventPublisher.publishEvent(new IncomeChangedEvent(this, updatedIncome, IncomeChangedEvent.ChangeType.UPDATED));
+
+        dataVersionService.bump(userEmail);
         return convertToDTO(updatedIncome);
     }
 
@@ -125,6 +159,10 @@ public class IncomeService {
                 .orElseThrow(() -> new IllegalStateException("Income record not found or access denied."));
 
         incomeRepository.delete(income);
+
+        // Publish event
+        eventPublisher.publishEvent(new IncomeChangedEvent(this, income, IncomeChangedEvent.ChangeType.DELETED));
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional(readOnly = true)
@@ -148,6 +186,23 @@ public class IncomeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads specific incomes of a user, e.g. the records a sync reports as changed.
+     * @param user The user who owns the incomes.
+     * @param incomeIds The IDs to load.
+     * @return The DTOs of the incomes that still exist.
+     */
+    @Transactional(readOnly = true)
+    public List<IncomeDTO> getIncomesByIds(User user, Collection<Integer> incomeIds) {
+        if (incomeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return incomeRepository.findListRowsByUserAndIncomeIdIn(user, incomeIds)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public List<IncomeDTO> listIncomesLastWeek(String userEmail) {
         User user = userRepository.findByEmailIgnoreCase(userEmail)
@@ -211,6 +266,120 @@ public class IncomeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lists one page of income records using keyset pagination on (transactionDate DESC, incomeId DESC).
+     * A custom date range takes priority over the filter, matching the unpaginated listing.
+     * @param userEmail The user's email.
+     * @param filter Optional relative filter (lastweek, lastmonth, lastyear).
+     * @param startDate Optional custom range start (inclusive).
+     * @param endDate Optional custom range end (inclusive).
+     * @param cursor Opaque cursor from the previous page, or null for the first page.
+     * @param limit Requested page size.
+     * @return The page together with the cursor for the next page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<IncomeDTO> listIncomesPage(String userEmail, String filter, LocalDate startDate, LocalDate endDate,
+                                              String cursor, Integer limit) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        int pageSize = KeysetPage.clampLimit(limit);
+        // Fetch one extra row to find out whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        KeysetCursor after = (cursor != null && !cursor.trim().isEmpty()) ? KeysetCursor.decode(cursor) : null;
+        LocalDate[] range = resolveDateRange(filter, startDate, endDate);
+
+        List<IncomeListRowDTO> rows;
+        if (range == null) {
+            rows = after == null
+                    ? incomeRepository.findPageByUser(user, pageable)
+                    : incomeRepository.findPageByUserAfter(user, after.getTransactionDate(), after.getId(), pageable);
+        } else {
+            rows = after == null
+                    ? incomeRepository.findPageByUserAndTransactionDateBetween(user, range[0], range[1], pageable)
+                    : incomeRepository.findPageByUserAndTransactionDateBetweenAfter(user, range[0], range[1],
+                            after.getTransactionDate(), after.getId(), pageable);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<IncomeListRowDTO> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            IncomeListRowDTO last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(last.getTransactionDate(), last.getIncomeId()).encode();
+        }
+        List<IncomeDTO> items = pageRows.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return new KeysetPage<>(items, nextCursor);
+    }
+
+    /**
+     * Searches the user's income descriptions using the in-memory search index.
+     * Hits are ranked by match quality and recency; only the requested page is loaded from the database.
+     * @param userEmail The user's email.
+     * @param query The search text; every term must match (as a word, word prefix or substring).
+     * @param page Zero-based page number.
+     * @param size Requested page size.
+     * @return The page of ranked results together with the total number of hits.
+     */
+    @Transactional(readOnly = true)
+    public SearchPageDTO<IncomeDTO> searchIncomes(String userEmail, String query, int page, Integer size) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        if (query == null || SearchIndex.tokenize(query).isEmpty()) {
+            throw new IllegalStateException("Search query must contain at least one letter or digit.");
+        }
+        if (page < 0) {
+            throw new IllegalStateException("Page must not be negative.");
+        }
+
+        int pageSize = SearchPageDTO.clampSize(size);
+        SearchIndex.Hits hits = transactionSearchService.searchIncomes(user.getUserId(), query, SearchPageDTO.offset(page, pageSize), pageSize);
+        if (hits.getIds().isEmpty()) {
+            return new SearchPageDTO<>(new ArrayList<>(), page, pageSize, hits.getTotal());
+        }
+
+        // Load the page in one query, then restore the ranking order
+        Map<Integer, IncomeDTO> byId = incomeRepository.findListRowsByUserAndIncomeIdIn(user, hits.getIds())
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toMap(IncomeDTO::getIncomeId, Function.identity()));
+        List<IncomeDTO> items = hits.getIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new SearchPageDTO<>(items, page, pageSize, hits.getTotal());
+    }
+
+    // Resolves the listing period: custom range first, then relative filter, otherwise null (all time)
+    private LocalDate[] resolveDateRange(String filter, LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null) {
+            if (endDate.isBefore(startDate)) {
+                throw new IllegalStateException("End date cannot be before start date.");
+            }
+            return new LocalDate[]{startDate, endDate};
+        }
+        if (filter == null) {
+            return null;
+        }
+        LocalDate today = LocalDate.now();
+        switch (filter.toLowerCase()) {
+            case "lastweek":
+            case "week":
+                return new LocalDate[]{today.minusDays(6), today};
+            case "lastmonth":
+            case "month":
+                return new LocalDate[]{today.minusDays(29), today};
+            case "lastyear":
+            case "year":
+                return new LocalDate[]{today.minusDays(364), today};
+            default:
+                return null;
+        }
+    }
+
     private IncomeDTO convertToDTO(Income income) {
         if (income == null) {
             return null;
@@ -226,6 +395,38 @@ public class IncomeService {
         return dto;
     }
 
+    // Maps a projected listing row to the DTO without touching any managed entity
+    private IncomeDTO convertToDTO(IncomeListRowDTO row) {
+        IncomeDTO dto = new IncomeDTO();
+        dto.setIncomeId(row.getIncomeId());
+        dto.setUserId(row.getUserId());
+        dto.setCategory(convertRowCategoryToDTO(row));
+        dto.setAmount(row.getAmount());
+        dto.setSource(row.getSource());
+        dto.setDescription(row.getDescription());
+        dto.setTransactionDate(row.getTransactionDate());
+        return dto;
+    }
+
+    private CategoryDTO convertRowCategoryToDTO(IncomeListRowDTO row) {
+        if (row.getCategoryId() == null) {
+            return null;
+        }
+        CategoryDTO dto = new CategoryDTO();
+        dto.setCategoryId(row.getCategoryId());
+        dto.setCategoryName(row.getCategoryName());
+        dto.setType(row.getCategoryType());
+        dto.setIcon(row.getCategoryIcon());
+        dto.setColor(row.getCategoryColor());
+        dto.setSortOrder(row.getCategorySortOrder());
+        dto.setDefault(Boolean.TRUE.equals(row.getCategoryDefault()));
+        dto.setActive(Boolean.TRUE.equals(row.getCategoryActive()));
+        dto.setParentCategoryId(row.getParentCategoryId());
+        dto.setCreatedAt(row.getCategoryCreatedAt());
+        dto.setUpdatedAt(row.getCategoryUpdatedAt());
+        return dto;
+    }
+
     // Helper method to convert Category entity to DTO (optimized - no recursive subcategories for income context)
     private CategoryDTO convertCategoryToDTO(Category category) {
         if (category == null) {
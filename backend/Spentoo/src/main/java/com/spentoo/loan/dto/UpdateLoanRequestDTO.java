@@ -24,5 +24,5 @@ public class UpdateLoanRequestDTO {
 
     private String notes;
 
-    private LoanStatus status; // To allow status toggle (ACTIVE/CLOSED)
+    private LoanStatus status; // To allow closing a loan (OVERDUE is set automatically)
 }
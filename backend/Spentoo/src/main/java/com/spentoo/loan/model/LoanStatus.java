@@ -2,5 +2,6 @@ package com.spentoo.loan.model;
 
 public enum LoanStatus {
     ACTIVE,
+    OVERDUE, // Still open with a due date in the past; set by StatusSweepService
     CLOSED
 }
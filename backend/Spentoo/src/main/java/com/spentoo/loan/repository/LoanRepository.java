@@ -2,12 +2,16 @@ package com.spentoo.loan.repository;
 
 import com.spentoo.loan.model.Loan;
 import com.spentoo.user.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -67,4 +71,26 @@ public interface LoanRepository extends JpaRepository<Loan, Integer> {
            "LEFT JOIN FETCH i.paymentMethod " +
            "WHERE l.loanId = :loanId AND l.user = :user")
     java.util.Optional<Loan> findByLoanIdAndUserWithInstallments(@Param("loanId") Integer loanId, @Param("user") User user);
+
+    /**
+     * Finds open loans whose due date has passed, for the status sweep.
+     * @param today Today's date.
+     * @param pageable The batch size (always the first page, since updated rows drop out of the result).
+     * @return One Object[] per loan: loan ID, user ID, user email.
+     */
+    @Query("SELECT l.loanId, l.user.userId, l.user.email FROM Loan l " +
+           "WHERE l.status = com.spentoo.loan.model.LoanStatus.ACTIVE AND l.dueDate < :today " +
+           "ORDER BY l.loanId")
+    List<Object[]> findPastDueActive(@Param("today") LocalDate today, Pageable pageable);
+
+    /**
+     * Moves open loans to OVERDUE.
+     * @param loanIds The loans to flag.
+     * @param now The update timestamp.
+     * @return The number of loans updated.
+     */
+    @Modifying
+    @Query("UPDATE Loan l SET l.status = com.spentoo.loan.model.LoanStatus.OVERDUE, l.updatedAt = :now " +
+           "WHERE l.loanId IN :loanIds AND l.status = com.spentoo.loan.model.LoanStatus.ACTIVE")
+    int markOverdue(@Param("loanIds") Collection<Integer> loanIds, @Param("now") LocalDateTime now);
 }
@@ -1,6 +1,5 @@
 package com.spentoo.loan.service;
 
-import com.spentoo.category.model.Category;
 import com.spentoo.category.repository.CategoryRepository;
 import com.spentoo.category.service.CategoryService;
 import com.spentoo.expense.dto.CreateExpenseRequestDTO;
@@ -22,8 +21,10 @@ import com.spentoo.loan.repository.LoanRepository;
 import com.spentoo.payment.model.PaymentMethod;
 import com.spentoo.payment.repository.PaymentMethodRepository;
 import com.spentoo.payment.service.PaymentMethodService;
+import com.spentoo.sync.service.DataVersionService;
 import com.spentoo.user.model.User;
 import com.spentoo.user.repository.UserRepository;
+import com.spentoo.user.service.SystemReferenceRegistry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -44,11 +45,14 @@ public class LoanService {
     private final IncomeService incomeService;
     // Removed CategoryService as it's not directly used in LoanService
     private final PaymentMethodService paymentMethodService;
+    private final DataVersionService dataVersionService;
+    private final SystemReferenceRegistry systemReferenceRegistry;
 
     public LoanService(LoanRepository loanRepository, LoanInstallmentRepository loanInstallmentRepository,
                        UserRepository userRepository, CategoryRepository categoryRepository,
                        PaymentMethodRepository paymentMethodRepository, ExpenseService expenseService,
-                       IncomeService incomeService, PaymentMethodService paymentMethodService) { // Removed CategoryService from constructor
+                       IncomeService incomeService, PaymentMethodService paymentMethodService, // Removed CategoryService from constructor
+                       DataVersionService dataVersionService, SystemReferenceRegistry systemReferenceRegistry) {
         this.loanRepository = loanRepository;
         this.loanInstallmentRepository = loanInstallmentRepository;
         this.userRepository = userRepository;
@@ -57,6 +61,8 @@ public class LoanService {
         this.expenseService = expenseService;
         this.incomeService = incomeService;
         this.paymentMethodService = paymentMethodService;
+        this.dataVersionService = dataVersionService;
+        this.systemReferenceRegistry = systemReferenceRegistry;
     }
 
     @Transactional
@@ -83,8 +89,10 @@ public class LoanService {
         newLoan.setDueDate(requestDTO.getDueDate());
         newLoan.setNotes(requestDTO.getNotes());
         newLoan.setStatus(LoanStatus.ACTIVE); // Default status
+        refreshOverdueStatus(newLoan);
 
         Loan savedLoan = loanRepository.save(newLoan);
+        dataVersionService.bump(userEmail);
         return convertToDTO(savedLoan);
     }
 
@@ -108,8 +116,7 @@ public class LoanService {
         PaymentMethod paymentMethod;
         if (requestDTO.getPaymentMethodId() == null) {
             // Default to "Cash" if no payment method is provided
-            paymentMethod = paymentMethodRepository.findByUserAndName(user, "Cash")
-                    .orElseThrow(() -> new IllegalStateException("Default 'Cash' payment method not found for user."));
+            paymentMethod = paymentMethodRepository.getReferenceById(systemReferenceRegistry.getCashMethodId(user));
         } else {
             // Find and validate the provided payment method
             paymentMethod = paymentMethodRepository.findById(requestDTO.getPaymentMethodId())
@@ -139,19 +146,15 @@ public class LoanService {
 
         // Create Expense/Income entry
         if (loan.getType() == LoanType.TAKEN) {
-            Category loanPaymentsCategory = categoryRepository.findByUserAndCategoryNameIgnoreCaseAndIsSystemGenerated(user, "Loan Payments", true)
-                    .orElseThrow(() -> new IllegalStateException("System-generated 'Loan Payments' category not found for user."));
             CreateExpenseRequestDTO expenseRequest = new CreateExpenseRequestDTO();
-            expenseRequest.setCategoryId(loanPaymentsCategory.getCategoryId());
+            expenseRequest.setCategoryId(systemReferenceRegistry.getLoanPaymentsCategoryId(user));
             expenseRequest.setPaymentMethodId(paymentMethod.getMethodId());
             expenseRequest.setAmount(requestDTO.getAmountPaid());
             expenseRequest.setDescription("Installment for loan with " + loan.getPersonName());
             expenseService.addExpense(expenseRequest, userEmail);
         } else if (loan.getType() == LoanType.GIVEN) {
-            Category loanRepaymentsCategory = categoryRepository.findByUserAndCategoryNameIgnoreCaseAndIsSystemGenerated(user, "Loan Repayments", true)
-                    .orElseThrow(() -> new IllegalStateException("System-generated 'Loan Repayments' category not found for user."));
             CreateIncomeRequestDTO incomeRequest = new CreateIncomeRequestDTO();
-            incomeRequest.setCategoryId(loanRepaymentsCategory.getCategoryId());
+            incomeRequest.setCategoryId(systemReferenceRegistry.getLoanRepaymentsCategoryId(user));
             incomeRequest.setAmount(requestDTO.getAmountPaid());
             incomeRequest.setSource("Repayment from " + loan.getPersonName());
             incomeRequest.setDescription("Repayment from " + loan.getPersonName());
@@ -166,6 +169,7 @@ public class LoanService {
         Loan loanWithInstallments = loanRepository.findByLoanIdAndUserWithInstallments(loanId, user)
                 .orElseThrow(() -> new IllegalStateException("Loan not found after saving installment."));
         
+        dataVersionService.bump(userEmail);
         return convertToDTO(loanWithInstallments);
     }
 
@@ -218,15 +222,16 @@ public class LoanService {
         }
         if (requestDTO.getDueDate() != null) {
             loan.setDueDate(requestDTO.getDueDate());
+            refreshOverdueStatus(loan);
         }
         if (requestDTO.getInterestRate() != null) {
             loan.setInterestRate(requestDTO.getInterestRate());
         }
-        // Allow closing active loans only (cannot reopen closed loans)
+        // Allow closing open loans only (cannot reopen closed loans)
         if (requestDTO.getStatus() != null) {
             if (requestDTO.getStatus() == LoanStatus.CLOSED) {
-                // Only allow closing if loan is currently ACTIVE
-                if (loan.getStatus() != LoanStatus.ACTIVE) {
+                // Only allow closing if loan is currently open (ACTIVE or OVERDUE)
+                if (loan.getStatus() == LoanStatus.CLOSED) {
                     throw new IllegalStateException("Cannot close a loan that is already closed.");
                 }
                 // When closing, set remaining amount to zero and close the loan
@@ -243,6 +248,7 @@ public class LoanService {
         Loan loanWithInstallments = loanRepository.findByLoanIdAndUserWithInstallments(loanId, user)
                 .orElseThrow(() -> new IllegalStateException("Loan not found after update."));
         
+        dataVersionService.bump(userEmail);
         return convertToDTO(loanWithInstallments);
     }
 
@@ -276,6 +282,7 @@ public class LoanService {
         // If loan was closed and now has remaining amount > 0, reopen it
         if (loan.getStatus() == LoanStatus.CLOSED && loan.getRemainingAmount().compareTo(BigDecimal.ZERO) > 0) {
             loan.setStatus(LoanStatus.ACTIVE);
+            refreshOverdueStatus(loan);
         }
 
         // Save the updated loan
@@ -285,6 +292,7 @@ public class LoanService {
         Loan loanWithInstallments = loanRepository.findByLoanIdAndUserWithInstallments(loanId, user)
                 .orElseThrow(() -> new IllegalStateException("Loan not found after deleting installment."));
 
+        dataVersionService.bump(userEmail);
         return convertToDTO(loanWithInstallments);
     }
 
@@ -302,6 +310,7 @@ public class LoanService {
         }
 
         loanRepository.delete(loan); // Hard delete
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional
@@ -318,6 +327,7 @@ public class LoanService {
         }
         loan.setStatus(LoanStatus.CLOSED);
         Loan closedLoan = loanRepository.save(loan);
+        dataVersionService.bump(userEmail);
         return convertToDTO(closedLoan);
     }
 
@@ -350,7 +360,7 @@ public class LoanService {
         
         if (!includeClosed) {
             loans = loans.stream()
-                    .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE)
+                    .filter(loan -> loan.getStatus() != LoanStatus.CLOSED)
                     .collect(Collectors.toList()); // Use toList() for Java 16+
         }
         return loans.stream()
@@ -372,7 +382,7 @@ public class LoanService {
         
         if (!includeClosed) {
             loans = loans.stream()
-                    .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE)
+                    .filter(loan -> loan.getStatus() != LoanStatus.CLOSED)
                     .collect(Collectors.toList());
         }
         
@@ -396,7 +406,7 @@ public class LoanService {
         
         if (!includeClosed) {
             loans = loans.stream()
-                    .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE)
+                    .filter(loan -> loan.getStatus() != LoanStatus.CLOSED)
                     .collect(Collectors.toList());
         }
         
@@ -419,7 +429,7 @@ public class LoanService {
         
         if (!includeClosed) {
             loans = loans.stream()
-                    .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE)
+                    .filter(loan -> loan.getStatus() != LoanStatus.CLOSED)
                     .collect(Collectors.toList());
         }
         
@@ -442,7 +452,7 @@ public class LoanService {
         
         if (!includeClosed) {
             loans = loans.stream()
-                    .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE)
+                    .filter(loan -> loan.getStatus() != LoanStatus.CLOSED)
                     .collect(Collectors.toList());
         }
         
@@ -489,6 +499,15 @@ public class LoanService {
     }
 
 
+    // Open loans are OVERDUE while their due date is in the past; the nightly sweep applies the same rule to untouched loans
+    private void refreshOverdueStatus(Loan loan) {
+        if (loan.getStatus() == LoanStatus.CLOSED) {
+            return;
+        }
+        boolean overdue = loan.getDueDate() != null && loan.getDueDate().isBefore(java.time.LocalDate.now());
+        loan.setStatus(overdue ? LoanStatus.OVERDUE : LoanStatus.ACTIVE);
+    }
+
     // Helper method to convert Loan entity to DTO
     private LoanDTO convertToDTO(Loan loan) {
         if (loan == null) {
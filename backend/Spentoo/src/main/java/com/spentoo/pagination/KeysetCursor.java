@@ -0,0 +1,54 @@
+package com.spentoo.pagination;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset (seek) pagination over rows ordered by
+ * {@code transactionDate DESC, id DESC}. Clients receive the encoded token and send it back unchanged.
+ */
+@Getter
+public final class KeysetCursor {
+
+    private final LocalDate transactionDate;
+    private final Integer id;
+
+    public KeysetCursor(LocalDate transactionDate, Integer id) {
+        this.transactionDate = transactionDate;
+        this.id = id;
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe token.
+     * @return The opaque cursor token.
+     */
+    public String encode() {
+        String raw = transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     * @param token The opaque cursor token.
+     * @return The decoded cursor.
+     * @throws IllegalStateException if the token is malformed.
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalStateException("Invalid cursor.");
+            }
+            LocalDate date = LocalDate.parse(raw.substring(0, separator));
+            Integer id = Integer.valueOf(raw.substring(separator + 1));
+            return new KeysetCursor(date, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalStateException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.spentoo.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * {@code nextCursor} is null when there are no more rows.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+    private String nextCursor;
+
+    /**
+     * Clamps a client-supplied page size to the allowed range.
+     * @param limit The requested page size, or null for the default.
+     * @return A page size between 1 and {@link #MAX_LIMIT}.
+     */
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
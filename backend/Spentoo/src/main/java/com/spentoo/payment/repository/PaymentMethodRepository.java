@@ -3,8 +3,11 @@ package com.spentoo.payment.repository;
 import com.spentoo.payment.model.PaymentMethod;
 import com.spentoo.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +37,14 @@ public interface PaymentMethodRepository extends JpaRepository<PaymentMethod, In
      */
     List<PaymentMethod> findAllByUser(User user);
 
+    /**
+     * Finds specific payment methods of a user (active and inactive).
+     * @param user The user.
+     * @param methodIds The payment method IDs to load.
+     * @return The matching payment methods.
+     */
+    List<PaymentMethod> findAllByUserAndMethodIdIn(User user, Collection<Integer> methodIds);
+
     /**
      * Finds all active payment methods for a specific user.
      * @param user The user.
@@ -50,4 +61,14 @@ public interface PaymentMethodRepository extends JpaRepository<PaymentMethod, In
      * @return An Optional containing the found payment method, or empty if not found.
      */
     Optional<PaymentMethod> findByUserAndNameAndIsSystemGenerated(User user, String name, boolean isSystemGenerated);
+
+    /**
+     * Finds a user's payment methods by name (case-insensitive), e.g. all of the fixed reference methods in one query.
+     * @param userId The user ID.
+     * @param lowerCaseNames The names, in lower case.
+     * @return The matching payment methods (active and inactive).
+     */
+    @Query("SELECT pm FROM PaymentMethod pm WHERE pm.user.userId = :userId AND LOWER(pm.name) IN :lowerCaseNames")
+    List<PaymentMethod> findAllByUserIdAndLowerCaseNameIn(@Param("userId") Integer userId,
+                                                          @Param("lowerCaseNames") Collection<String> lowerCaseNames);
 }
@@ -5,11 +5,17 @@ import com.spentoo.payment.dto.PaymentMethodDTO;
 import com.spentoo.payment.dto.UpdatePaymentMethodRequestDTO;
 import com.spentoo.payment.model.PaymentMethod;
 import com.spentoo.payment.repository.PaymentMethodRepository;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
 import com.spentoo.user.model.User;
 import com.spentoo.user.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,10 +25,16 @@ public class PaymentMethodService {
 
     private final PaymentMethodRepository paymentMethodRepository;
     private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
+    private final ChangeLogService changeLogService;
 
-    public PaymentMethodService(PaymentMethodRepository paymentMethodRepository, UserRepository userRepository) {
+    public PaymentMethodService(PaymentMethodRepository paymentMethodRepository, UserRepository userRepository,
+                                DataVersionService dataVersionService,
+                                ChangeLogService changeLogService) {
         this.paymentMethodRepository = paymentMethodRepository;
         this.userRepository = userRepository;
+        this.dataVersionService = dataVersionService;
+        this.changeLogService = changeLogService;
     }
 
     @Transactional
@@ -34,7 +46,8 @@ public class PaymentMethodService {
             cashMethod.setName("Cash");
             cashMethod.setActive(true);
             cashMethod.setSystemGenerated(false); // Not system generated
-            paymentMethodRepository.save(cashMethod);
+            PaymentMethod savedCash = paymentMethodRepository.save(cashMethod);
+            changeLogService.record(user, ChangeEntityType.PAYMENT_METHOD, savedCash.getMethodId(), ChangeOperation.CREATED);
         }
     }
 
@@ -51,7 +64,9 @@ public class PaymentMethodService {
         newMethod.setName(name);
         newMethod.setActive(true);
         newMethod.setSystemGenerated(true); // Mark as system generated
-        return paymentMethodRepository.save(newMethod);
+        PaymentMethod savedMethod = paymentMethodRepository.save(newMethod);
+        changeLogService.record(user, ChangeEntityType.PAYMENT_METHOD, savedMethod.getMethodId(), ChangeOperation.CREATED);
+        return savedMethod;
     }
 
     @Transactional
@@ -83,6 +98,8 @@ public class PaymentMethodService {
         newMethod.setActive(true);
         newMethod.setSystemGenerated(false); // User-added methods are not system generated
         PaymentMethod savedMethod = paymentMethodRepository.save(newMethod);
+        changeLogService.record(user, ChangeEntityType.PAYMENT_METHOD, savedMethod.getMethodId(), ChangeOperation.CREATED);
+        dataVersionService.bump(userEmail);
         return convertToDTO(savedMethod);
     }
 
@@ -134,6 +151,8 @@ public class PaymentMethodService {
         }
 
         PaymentMethod updatedMethod = paymentMethodRepository.save(method);
+        changeLogService.record(user, ChangeEntityType.PAYMENT_METHOD, methodId, ChangeOperation.UPDATED);
+        dataVersionService.bump(userEmail);
         return convertToDTO(updatedMethod);
     }
 
@@ -154,6 +173,8 @@ public class PaymentMethodService {
         }
 
         paymentMethodRepository.delete(method);
+        changeLogService.record(user, ChangeEntityType.PAYMENT_METHOD, methodId, ChangeOperation.DELETED);
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional(readOnly = true)
@@ -176,6 +197,23 @@ public class PaymentMethodService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads specific payment methods of a user, e.g. the records a sync reports as changed.
+     * @param user The user who owns the payment methods.
+     * @param methodIds The IDs to load.
+     * @return The DTOs of the payment methods that still exist.
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentMethodDTO> getPaymentMethodsByIds(User user, Collection<Integer> methodIds) {
+        if (methodIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return paymentMethodRepository.findAllByUserAndMethodIdIn(user, methodIds)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     public PaymentMethodDTO convertToDTO(PaymentMethod paymentMethod) {
         if (paymentMethod == null) {
             return null;
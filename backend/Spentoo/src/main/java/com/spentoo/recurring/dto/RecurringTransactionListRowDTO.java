@@ -0,0 +1,43 @@
+package com.spentoo.recurring.dto;
+
+import com.spentoo.category.model.CategoryType;
+import com.spentoo.recurring.model.RecurringTransactionFrequency;
+import com.spentoo.recurring.model.RecurringTransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model for recurring transaction listings, filled by a JPQL constructor expression.
+ * Constructor argument order must match RecurringTransactionRepository.findListRowsByUser.
+ */
+@Data
+@AllArgsConstructor
+public class RecurringTransactionListRowDTO {
+
+    private Integer recurringId;
+    private Integer userId;
+    private String title;
+    private BigDecimal amount;
+    private RecurringTransactionType type;
+    private RecurringTransactionFrequency frequency;
+    private LocalDate nextRunDate;
+    private Boolean autoPay;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    private Integer categoryId;
+    private String categoryName;
+    private CategoryType categoryType;
+    private String categoryIcon;
+    private String categoryColor;
+    private Integer categorySortOrder;
+    private Boolean categoryDefault;
+    private Boolean categoryActive;
+    private Integer parentCategoryId;
+    private LocalDateTime categoryCreatedAt;
+    private LocalDateTime categoryUpdatedAt;
+}
@@ -1,22 +1,38 @@
 package com.spentoo.recurring.repository;
 
+import com.spentoo.category.model.Category;
+import com.spentoo.recurring.dto.RecurringTransactionListRowDTO;
 import com.spentoo.recurring.model.RecurringTransaction;
 import com.spentoo.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface RecurringTransactionRepository extends JpaRepository<RecurringTransaction, Integer> {
 
     /**
-     * Finds all recurring transactions for a specific user.
+     * Lists all recurring transactions for a specific user as flat rows (category columns included).
+     * Rows are projected straight into RecurringTransactionListRowDTO, so no entities are loaded.
      * @param user The user whose recurring transactions to find.
-     * @return A list of recurring transactions for the given user.
+     * @return A list of recurring transaction rows for the given user.
      */
-    List<RecurringTransaction> findAllByUser(User user);
+    @Query("SELECT new com.spentoo.recurring.dto.RecurringTransactionListRowDTO(" +
+           "r.recurringId, r.user.userId, r.title, r.amount, r.type, r.frequency, r.nextRunDate, r.autoPay, " +
+           "r.createdAt, r.updatedAt, " +
+           "c.categoryId, c.categoryName, c.type, c.icon, c.color, c.sortOrder, c.isDefault, c.isActive, " +
+            "pc.categoryId, c.createdAt, c.updatedAt) " +
+           "FROM RecurringTransaction r " +
+           "LEFT JOIN r.category c " +
+           "LEFT JOIN c.parentCategory pc " +
+           "WHERE r.user = :user")
+    List<RecurringTransactionListRowDTO> findListRowsByUser(@Param("user") User user);
 
     /**
      * Finds all recurring transactions that are due to run on a specific date.
@@ -24,4 +40,16 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
      * @return A list of recurring transactions due on the given date.
      */
     List<RecurringTransaction> findAllByNextRunDate(LocalDate nextRunDate);
+
+    /**
+     * Moves every recurring transaction of one category to another, e.g. when categories are merged.
+     * @param source The category the recurring transactions leave.
+     * @param target The category the recurring transactions move to.
+     * @param now The update timestamp.
+     * @return The number of recurring transactions updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RecurringTransaction r SET r.category = :target, r.updatedAt = :now WHERE r.category = :source")
+    int reassignCategory(@Param("source") Category source, @Param("target") Category target,
+                         @Param("now") LocalDateTime now);
 }
@@ -1,5 +1,6 @@
 package com.spentoo.recurring.service;
 
+import com.spentoo.category.dto.CategoryDTO;
 import com.spentoo.category.model.Category;
 import com.spentoo.category.repository.CategoryRepository;
 import com.spentoo.category.service.CategoryService; // Import CategoryService
@@ -7,17 +8,19 @@ import com.spentoo.expense.dto.CreateExpenseRequestDTO;
 import com.spentoo.expense.service.ExpenseService;
 import com.spentoo.income.dto.CreateIncomeRequestDTO;
 import com.spentoo.income.service.IncomeService;
-import com.spentoo.payment.model.PaymentMethod;
 import com.spentoo.payment.repository.PaymentMethodRepository;
 import com.spentoo.recurring.dto.CreateRecurringTransactionRequestDTO;
 import com.spentoo.recurring.dto.RecurringTransactionDTO;
+import com.spentoo.recurring.dto.RecurringTransactionListRowDTO;
 import com.spentoo.recurring.dto.UpdateRecurringTransactionRequestDTO;
 import com.spentoo.recurring.model.RecurringTransaction;
 import com.spentoo.recurring.model.RecurringTransactionFrequency;
 import com.spentoo.recurring.model.RecurringTransactionType;
 import com.spentoo.recurring.repository.RecurringTransactionRepository;
+import com.spentoo.sync.service.DataVersionService;
 import com.spentoo.user.model.User;
 import com.spentoo.user.repository.UserRepository;
+import com.spentoo.user.service.SystemReferenceRegistry;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,11 +40,15 @@ public class RecurringTransactionService {
     private final ExpenseService expenseService;
     private final IncomeService incomeService;
     private final CategoryService categoryService; // Inject CategoryService
+    private final DataVersionService dataVersionService;
+    private final SystemReferenceRegistry systemReferenceRegistry;
 
     public RecurringTransactionService(RecurringTransactionRepository recurringTransactionRepository,
                                        UserRepository userRepository, CategoryRepository categoryRepository,
                                        PaymentMethodRepository paymentMethodRepository, ExpenseService expenseService,
-                                       IncomeService incomeService, CategoryService categoryService) { // Add CategoryService to constructor
+                                       IncomeService incomeService, CategoryService categoryService, // Add CategoryService to constructor
+                                       DataVersionService dataVersionService,
+                                       SystemReferenceRegistry systemReferenceRegistry) {
         this.recurringTransactionRepository = recurringTransactionRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
@@ -49,6 +56,8 @@ public class RecurringTransactionService {
         this.expenseService = expenseService;
         this.incomeService = incomeService;
         this.categoryService = categoryService; // Assign CategoryService
+        this.dataVersionService = dataVersionService;
+        this.systemReferenceRegistry = systemReferenceRegistry;
     }
 
     @Transactional
@@ -57,8 +66,7 @@ public class RecurringTransactionService {
                 .orElseThrow(() -> new IllegalStateException("User not found.")); // Corrected
 
         // Get the system-generated "Recurring Payments" category
-        Category recurringCategory = categoryRepository.findByUserAndCategoryNameIgnoreCaseAndIsSystemGenerated(user, "Recurring Payments", true)
-                .orElseThrow(() -> new IllegalStateException("System-generated 'Recurring Payments' category not found for user."));
+        Category recurringCategory = categoryRepository.getReferenceById(systemReferenceRegistry.getRecurringPaymentsCategoryId(user));
 
         // Validate nextRunDate (already handled by @FutureOrPresent, but good to ensure logic)
         LocalDate nextRunDate = requestDTO.getNextRunDate();
@@ -77,6 +85,7 @@ public class RecurringTransactionService {
         newRecurring.setAutoPay(requestDTO.isAutoPay());
 
         RecurringTransaction savedRecurring = recurringTransactionRepository.save(newRecurring);
+        dataVersionService.bump(userEmail);
         return convertToDTO(savedRecurring);
     }
 
@@ -114,6 +123,7 @@ public class RecurringTransactionService {
         }
 
         RecurringTransaction updatedRecurring = recurringTransactionRepository.save(recurring);
+        dataVersionService.bump(userEmail);
         return convertToDTO(updatedRecurring);
     }
 
@@ -127,6 +137,7 @@ public class RecurringTransactionService {
                 .orElseThrow(() -> new IllegalStateException("Recurring transaction not found or access denied."));
 
         recurringTransactionRepository.delete(recurring); // Hard delete
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional(readOnly = true)
@@ -145,7 +156,7 @@ public class RecurringTransactionService {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new IllegalStateException("User not found.")); // Corrected
 
-        return recurringTransactionRepository.findAllByUser(user)
+        return recurringTransactionRepository.findListRowsByUser(user)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -162,6 +173,7 @@ public class RecurringTransactionService {
         
         recurring.setAutoPay(false);
         recurringTransactionRepository.save(recurring);
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional
@@ -183,6 +195,7 @@ public class RecurringTransactionService {
         recurring.setNextRunDate(calculateNextRunDate(recurring.getNextRunDate(), recurring.getFrequency()));
         recurring.setUpdatedAt(LocalDateTime.now());
         recurringTransactionRepository.save(recurring);
+        dataVersionService.bump(userEmail);
     }
 
     @Transactional
@@ -204,11 +217,13 @@ public class RecurringTransactionService {
         recurring.setNextRunDate(calculateNextRunDate(recurring.getNextRunDate(), recurring.getFrequency()));
         recurring.setUpdatedAt(LocalDateTime.now());
         recurringTransactionRepository.save(recurring);
+        dataVersionService.bump(userEmail);
     }
 
 
     // Cron Job Logic
-    @Scheduled(cron = "0 0 0 * * *") // Runs every day at midnight (00:00)
+    // Creates real expenses and incomes, so it stays off until spentoo.recurring.process-cron is set (e.g. 0 0 0 * * *)
+    @Scheduled(cron = "${spentoo.recurring.process-cron:-}")
     @Transactional
     public void processDueRecurringTransactions() {
         LocalDate today = LocalDate.now();
@@ -228,18 +243,18 @@ public class RecurringTransactionService {
             recurring.setNextRunDate(calculateNextRunDate(recurring.getNextRunDate(), recurring.getFrequency()));
             recurring.setUpdatedAt(LocalDateTime.now());
             recurringTransactionRepository.save(recurring);
+            dataVersionService.bump(recurring.getUser().getEmail());
         }
     }
 
     private void processSingleRecurringTransaction(RecurringTransaction recurring) {
         // Get the system-generated "RECURRING_AUTO_PAY" payment method
-        PaymentMethod autoPayMethod = paymentMethodRepository.findByUserAndNameAndIsSystemGenerated(recurring.getUser(), "RECURRING_AUTO_PAY", true)
-                .orElseThrow(() -> new IllegalStateException("System-generated 'RECURRING_AUTO_PAY' payment method not found for user: " + recurring.getUser().getEmail()));
+        Integer autoPayMethodId = systemReferenceRegistry.getRecurringAutoPayMethodId(recurring.getUser());
 
         if (recurring.getType() == RecurringTransactionType.EXPENSE) {
             CreateExpenseRequestDTO expenseRequest = new CreateExpenseRequestDTO();
             expenseRequest.setCategoryId(recurring.getCategory().getCategoryId());
-            expenseRequest.setPaymentMethodId(autoPayMethod.getMethodId());
+            expenseRequest.setPaymentMethodId(autoPayMethodId);
             expenseRequest.setAmount(recurring.getAmount());
             expenseRequest.setDescription(recurring.getTitle());
             expenseService.addExpense(expenseRequest, recurring.getUser().getEmail());
@@ -264,6 +279,43 @@ public class RecurringTransactionService {
     }
 
 
+    // Maps a projected listing row to the DTO without touching any managed entity (subcategories are not included)
+    private RecurringTransactionDTO convertToDTO(RecurringTransactionListRowDTO row) {
+        RecurringTransactionDTO dto = new RecurringTransactionDTO();
+        dto.setRecurringId(row.getRecurringId());
+        dto.setUserId(row.getUserId());
+        dto.setCategory(convertRowCategoryToDTO(row));
+        dto.setTitle(row.getTitle());
+        dto.setDescription(null); // Description not in database schema
+        dto.setAmount(row.getAmount());
+        dto.setType(row.getType());
+        dto.setFrequency(row.getFrequency());
+        dto.setNextRunDate(row.getNextRunDate());
+        dto.setAutoPay(Boolean.TRUE.equals(row.getAutoPay()));
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpdatedAt(row.getUpdatedAt());
+        return dto;
+    }
+
+    private CategoryDTO convertRowCategoryToDTO(RecurringTransactionListRowDTO row) {
+        if (row.getCategoryId() == null) {
+            return null;
+        }
+        CategoryDTO dto = new CategoryDTO();
+        dto.setCategoryId(row.getCategoryId());
+        dto.setCategoryName(row.getCategoryName());
+        dto.setType(row.getCategoryType());
+        dto.setIcon(row.getCategoryIcon());
+        dto.setColor(row.getCategoryColor());
+        dto.setSortOrder(row.getCategorySortOrder());
+        dto.setDefault(Boolean.TRUE.equals(row.getCategoryDefault()));
+        dto.setActive(Boolean.TRUE.equals(row.getCategoryActive()));
+        dto.setParentCategoryId(row.getParentCategoryId());
+        dto.setCreatedAt(row.getCategoryCreatedAt());
+        dto.setUpdatedAt(row.getCategoryUpdatedAt());
+        return dto;
+    }
+
     // Helper method to convert RecurringTransaction entity to DTO
     private RecurringTransactionDTO convertToDTO(RecurringTransaction recurring) {
         if (recurring == null) {
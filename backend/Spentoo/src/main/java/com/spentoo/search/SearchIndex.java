@@ -0,0 +1,256 @@
+package com.spentoo.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the descriptions of one user's transactions.
+ * Text is split into lower-case tokens. A sorted token dictionary answers prefix matches, and a trigram index over
+ * the dictionary answers infix matches ("mart" finds "walmart") without scanning every token.
+ * Safe for concurrent use: searches share a read lock, updates take the write lock.
+ */
+public class SearchIndex {
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int INFIX_SCORE = 1;
+    private static final int GRAM_LENGTH = 3;
+
+    private final TreeMap<String, Set<Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> tokensByGram = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or replaces a document.
+     * @param id The transaction ID.
+     * @param text The searchable text (may be null).
+     * @param transactionDate The transaction date, used to rank equally scored matches newest first.
+     */
+    public void put(Integer id, String text, LocalDate transactionDate) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            Set<String> tokens = tokenize(text);
+            documents.put(id, new Document(tokens, transactionDate));
+            for (String token : tokens) {
+                Set<Integer> ids = postings.get(token);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(token, ids);
+                    for (String gram : grams(token)) {
+                        tokensByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(token);
+                    }
+                }
+                ids.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds documents matching every term of the query, best matches first.
+     * Per term, an exact token match scores highest, then a prefix match, then an infix match; a document's score
+     * is the sum of its best score for each term. Ties are broken by transaction date and then ID, newest first.
+     * @param query The raw query text.
+     * @param offset Number of ranked hits to skip.
+     * @param limit Maximum number of hits to return.
+     * @return The requested slice of the ranking together with the total number of hits.
+     */
+    public Hits search(String query, int offset, int limit) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new Hits(0, Collections.emptyList());
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = null;
+            for (String term : terms) {
+                Map<Integer, Integer> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Keep only documents that also match this term
+                    Map<Integer, Integer> combined = new HashMap<>();
+                    for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+                        Integer termScore = termScores.get(entry.getKey());
+                        if (termScore != null) {
+                            combined.put(entry.getKey(), entry.getValue() + termScore);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return new Hits(0, Collections.emptyList());
+                }
+            }
+
+            Map<Integer, Integer> finalScores = scores;
+            List<Integer> ranked = new ArrayList<>(finalScores.keySet());
+            ranked.sort(Comparator.<Integer>comparingInt(finalScores::get).reversed()
+                    .thenComparing(id -> documents.get(id).transactionDate,
+                            Comparator.nullsLast(Comparator.<LocalDate>reverseOrder()))
+                    .thenComparing(Comparator.<Integer>reverseOrder()));
+
+            int from = Math.min(offset, ranked.size());
+            int to = Math.min(from + limit, ranked.size());
+            return new Hits(ranked.size(), new ArrayList<>(ranked.subList(from, to)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Integer> scoreTerm(String term) {
+        Map<Integer, Integer> termScores = new HashMap<>();
+        // Exact and prefix matches are a range scan of the sorted dictionary
+        for (Map.Entry<String, Set<Integer>> entry : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            int score = entry.getKey().equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+            for (Integer id : entry.getValue()) {
+                termScores.merge(id, score, Math::max);
+            }
+        }
+        if (term.length() < GRAM_LENGTH) {
+            return termScores;
+        }
+        // Infix matches: tokens sharing every trigram of the term are candidates, then confirmed with contains()
+        for (String token : infixCandidates(term)) {
+            if (!token.startsWith(term) && token.contains(term)) {
+                for (Integer id : postings.get(token)) {
+                    termScores.merge(id, INFIX_SCORE, Math::max);
+                }
+            }
+        }
+        return termScores;
+    }
+
+    private Set<String> infixCandidates(String term) {
+        Set<String> candidates = null;
+        for (String gram : grams(term)) {
+            Set<String> tokens = tokensByGram.get(gram);
+            if (tokens == null) {
+                return Collections.emptySet();
+            }
+            if (candidates == null) {
+                candidates = new HashSet<>(tokens);
+            } else {
+                candidates.retainAll(tokens);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates == null ? Collections.emptySet() : candidates;
+    }
+
+    private void removeInternal(Integer id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String token : document.tokens) {
+            Set<Integer> ids = postings.get(token);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                // Drop tokens no document uses any more so the dictionary does not grow without bound
+                postings.remove(token);
+                for (String gram : grams(token)) {
+                    Set<String> tokens = tokensByGram.get(gram);
+                    if (tokens != null) {
+                        tokens.remove(token);
+                        if (tokens.isEmpty()) {
+                            tokensByGram.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Lower-cases and splits on anything that is not a letter or digit
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class Document {
+        private final Set<String> tokens;
+        private final LocalDate transactionDate;
+
+        private Document(Set<String> tokens, LocalDate transactionDate) {
+            this.tokens = tokens;
+            this.transactionDate = transactionDate;
+        }
+    }
+
+    /**
+     * One slice of a ranked result list.
+     */
+    public static final class Hits {
+        private final long total;
+        private final List<Integer> ids;
+
+        public Hits(long total, List<Integer> ids) {
+            this.total = total;
+            this.ids = ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<Integer> getIds() {
+            return ids;
+        }
+    }
+}
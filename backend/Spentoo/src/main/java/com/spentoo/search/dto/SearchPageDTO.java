@@ -0,0 +1,49 @@
+package com.spentoo.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results.
+ */
+@Data
+@AllArgsConstructor
+public class SearchPageDTO<T> {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private List<T> items;
+    private int page;
+    private int size;
+    private long totalHits;
+
+    /**
+     * Clamps a client-supplied page size to the allowed range.
+     * @param size The requested page size, or null for the default.
+     * @return A page size between 1 and {@link #MAX_SIZE}.
+     */
+    public static int clampSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Computes the offset of the first result of a page.
+     * @param page The zero-based page number, already checked to be non-negative.
+     * @param size The clamped page size.
+     * @return The number of results before the page.
+     * @throws IllegalStateException If the offset does not fit in an int.
+     */
+    public static int offset(int page, int size) {
+        try {
+            return Math.multiplyExact(page, size);
+        } catch (ArithmeticException e) {
+            throw new IllegalStateException("Page " + page + " is out of range.");
+        }
+    }
+}
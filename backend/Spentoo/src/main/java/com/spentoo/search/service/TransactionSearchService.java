@@ -0,0 +1,129 @@
+package com.spentoo.search.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spentoo.events.ExpenseBatchCreatedEvent;
+import com.spentoo.events.ExpenseChangedEvent;
+import com.spentoo.events.ExpenseSnapshot;
+import com.spentoo.events.IncomeBatchCreatedEvent;
+import com.spentoo.events.IncomeChangedEvent;
+import com.spentoo.expense.repository.ExpenseRepository;
+import com.spentoo.income.model.Income;
+import com.spentoo.income.repository.IncomeRepository;
+import com.spentoo.search.SearchIndex;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Keeps one search index per user for expense and income descriptions.
+ * An index is built from the database the first time the user searches and then kept current from the change
+ * events, so searching never falls back to LIKE '%x%' scans. Idle indexes are evicted and rebuilt on demand.
+ */
+@Service
+public class TransactionSearchService {
+
+    private static final long MAX_INDEXED_USERS = 500;
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(30);
+
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+
+    private final Cache<Integer, SearchIndex> expenseIndexes = Caffeine.newBuilder()
+            .maximumSize(MAX_INDEXED_USERS)
+            .expireAfterAccess(IDLE_EXPIRY)
+            .build();
+    private final Cache<Integer, SearchIndex> incomeIndexes = Caffeine.newBuilder()
+            .maximumSize(MAX_INDEXED_USERS)
+            .expireAfterAccess(IDLE_EXPIRY)
+            .build();
+
+    public TransactionSearchService(ExpenseRepository expenseRepository, IncomeRepository incomeRepository) {
+        this.expenseRepository = expenseRepository;
+        this.incomeRepository = incomeRepository;
+    }
+
+    public SearchIndex.Hits searchExpenses(Integer userId, String query, int offset, int limit) {
+        return expenseIndexes.get(userId, this::buildExpenseIndex).search(query, offset, limit);
+    }
+
+    public SearchIndex.Hits searchIncomes(Integer userId, String query, int offset, int limit) {
+        return incomeIndexes.get(userId, this::buildIncomeIndex).search(query, offset, limit);
+    }
+
+    // Index updates run after commit so rolled-back changes never become searchable.
+    // computeIfPresent waits for an index that is still being built, so a change committed mid-build is not lost.
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleExpenseChangedEvent(ExpenseChangedEvent event) {
+        ExpenseSnapshot expense = event.getCurrent();
+        expenseIndexes.asMap().computeIfPresent(expense.getUserId(), (userId, index) -> {
+            if (event.getChangeType() == ExpenseChangedEvent.ChangeType.DELETED) {
+                index.remove(expense.getExpenseId());
+            } else {
+                index.put(expense.getExpenseId(), expense.getDescription(), expense.getTransactionDate());
+            }
+            return index;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleExpenseBatchCreatedEvent(ExpenseBatchCreatedEvent event) {
+        for (ExpenseSnapshot expense : event.getExpenses()) {
+            expenseIndexes.asMap().computeIfPresent(expense.getUserId(), (userId, index) -> {
+                index.put(expense.getExpenseId(), expense.getDescription(), expense.getTransactionDate());
+                return index;
+            });
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleIncomeChangedEvent(IncomeChangedEvent event) {
+        Income income = event.getIncome();
+        incomeIndexes.asMap().computeIfPresent(income.getUser().getUserId(), (userId, index) -> {
+            if (event.getChangeType() == IncomeChangedEvent.ChangeType.DELETED) {
+                index.remove(income.getIncomeId());
+            } else {
+                index.put(income.getIncomeId(), incomeText(income.getSource(), income.getDescription()), income.getTransactionDate());
+            }
+            return index;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleIncomeBatchCreatedEvent(IncomeBatchCreatedEvent event) {
+        for (Income income : event.getIncomes()) {
+            incomeIndexes.asMap().computeIfPresent(income.getUser().getUserId(), (userId, index) -> {
+                index.put(income.getIncomeId(), incomeText(income.getSource(), income.getDescription()), income.getTransactionDate());
+                return index;
+            });
+        }
+    }
+
+    private SearchIndex buildExpenseIndex(Integer userId) {
+        SearchIndex index = new SearchIndex();
+        for (Object[] document : expenseRepository.findSearchDocumentsByUserId(userId)) {
+            index.put((Integer) document[0], (String) document[1], (LocalDate) document[2]);
+        }
+        return index;
+    }
+
+    private SearchIndex buildIncomeIndex(Integer userId) {
+        SearchIndex index = new SearchIndex();
+        for (Object[] document : incomeRepository.findSearchDocumentsByUserId(userId)) {
+            index.put((Integer) document[0], incomeText((String) document[1], (String) document[2]), (LocalDate) document[3]);
+        }
+        return index;
+    }
+
+    // Income is searchable by its source as well as its description
+    private String incomeText(String source, String description) {
+        if (source == null) {
+            return description;
+        }
+        return description == null ? source : source + " " + description;
+    }
+}
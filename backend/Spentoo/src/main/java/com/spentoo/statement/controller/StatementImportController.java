@@ -0,0 +1,35 @@
+package com.spentoo.statement.controller;
+
+import com.spentoo.statement.dto.StatementColumnMappingDTO;
+import com.spentoo.statement.dto.StatementImportReportDTO;
+import com.spentoo.statement.service.StatementImportService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/statements")
+public class StatementImportController {
+
+    private final StatementImportService statementImportService;
+
+    public StatementImportController(StatementImportService statementImportService) {
+        this.statementImportService = statementImportService;
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<StatementImportReportDTO> importStatement(
+            @RequestParam("file") MultipartFile file,
+            @Valid @ModelAttribute StatementColumnMappingDTO mapping,
+            @AuthenticationPrincipal String userEmail) throws Exception {
+        if (file.isEmpty()) {
+            throw new IllegalStateException("Please upload a CSV file.");
+        }
+
+        StatementImportReportDTO report = statementImportService.importStatement(file, mapping, userEmail);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,36 @@
+package com.spentoo.statement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * Describes how the columns of an uploaded bank statement map onto transactions.
+ * Each column is referenced either by its header name (case-insensitive) or by its zero-based index.
+ */
+@Data
+public class StatementColumnMappingDTO {
+
+    @NotBlank(message = "Date column is required.")
+    private String dateColumn;
+
+    @NotBlank(message = "Amount column is required.")
+    private String amountColumn;
+
+    private String descriptionColumn;
+
+    private String categoryColumn; // Category name; falls back to the default category for the row type
+
+    private String paymentMethodColumn; // Payment method name for expenses; falls back to Cash
+
+    private String typeColumn; // EXPENSE/INCOME (or DEBIT/CREDIT); when absent the sign of the amount decides
+
+    private String dateFormat = "yyyy-MM-dd";
+
+    private boolean hasHeader = true;
+
+    private char delimiter = ',';
+
+    private Integer defaultExpenseCategoryId;
+
+    private Integer defaultIncomeCategoryId;
+}
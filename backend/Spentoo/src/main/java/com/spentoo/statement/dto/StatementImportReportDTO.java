@@ -0,0 +1,18 @@
+package com.spentoo.statement.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class StatementImportReportDTO {
+
+    private long totalRows;
+    private long importedExpenses;
+    private long importedIncomes;
+    private long skippedDuplicates;
+    private long failedRows;
+    private List<StatementImportRowErrorDTO> errors = new ArrayList<>();
+    private boolean errorsTruncated; // True when more rows failed than are listed in errors
+}
@@ -0,0 +1,12 @@
+package com.spentoo.statement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StatementImportRowErrorDTO {
+
+    private long rowNumber; // 1-based line number in the uploaded file
+    private String message;
+}
@@ -0,0 +1,477 @@
+package com.spentoo.statement.service;
+
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import com.spentoo.category.model.Category;
+import com.spentoo.category.model.CategoryType;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.events.ExpenseBatchCreatedEvent;
+import com.spentoo.events.ExpenseSnapshot;
+import com.spentoo.events.IncomeBatchCreatedEvent;
+import com.spentoo.expense.model.Expense;
+import com.spentoo.expense.repository.ExpenseRepository;
+import com.spentoo.income.model.Income;
+import com.spentoo.income.repository.IncomeRepository;
+import com.spentoo.payment.model.PaymentMethod;
+import com.spentoo.payment.repository.PaymentMethodRepository;
+import com.spentoo.statement.dto.StatementColumnMappingDTO;
+import com.spentoo.statement.dto.StatementImportReportDTO;
+import com.spentoo.statement.dto.StatementImportRowErrorDTO;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports bank statements (CSV) as expenses and income.
+ * The file is parsed row by row and written in chunks, so memory use is bounded by the chunk size
+ * rather than the file size. Each chunk is committed in its own transaction; rows that fail validation
+ * are reported individually and do not abort the import.
+ */
+@Service
+public class StatementImportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int DESCRIPTION_MAX_LENGTH = 255;
+
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final PaymentMethodRepository paymentMethodRepository;
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DataVersionService dataVersionService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public StatementImportService(UserRepository userRepository, CategoryRepository categoryRepository,
+                                  PaymentMethodRepository paymentMethodRepository, ExpenseRepository expenseRepository,
+                                  IncomeRepository incomeRepository, ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  DataVersionService dataVersionService) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.paymentMethodRepository = paymentMethodRepository;
+        this.expenseRepository = expenseRepository;
+        this.incomeRepository = incomeRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataVersionService = dataVersionService;
+    }
+
+    public StatementImportReportDTO importStatement(MultipartFile file, StatementColumnMappingDTO mapping, String userEmail)
+            throws IOException, CsvValidationException {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        DateTimeFormatter dateFormatter;
+        try {
+            dateFormatter = DateTimeFormatter.ofPattern(mapping.getDateFormat());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid date format: " + mapping.getDateFormat());
+        }
+        ImportLookups lookups = loadLookups(user, mapping);
+
+        StatementImportReportDTO report = new StatementImportReportDTO();
+        DuplicateTracker duplicates = new DuplicateTracker(
+                nullToZero(expenseRepository.findMaxIdByUser(user)), nullToZero(incomeRepository.findMaxIdByUser(user)));
+        CSVParser parser = new CSVParserBuilder().withSeparator(mapping.getDelimiter()).build();
+
+        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+             CSVReader csvReader = new CSVReaderBuilder(reader).withCSVParser(parser).build()) {
+            String[] header = mapping.isHasHeader() ? csvReader.readNext() : null;
+            ColumnIndexes columns = resolveColumns(mapping, header);
+
+            List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            String[] line;
+            while ((line = csvReader.readNext()) != null) {
+                if (isBlankLine(line)) {
+                    continue;
+                }
+                long rowNumber = csvReader.getLinesRead();
+                report.setTotalRows(report.getTotalRows() + 1);
+                try {
+                    chunk.add(parseRow(line, rowNumber, columns, dateFormatter, lookups, user));
+                } catch (IllegalStateException e) {
+                    recordError(report, rowNumber, e.getMessage());
+                }
+                if (chunk.size() >= CHUNK_SIZE) {
+                    writeChunk(user, chunk, duplicates, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(user, chunk, duplicates, report);
+            }
+        }
+        return report;
+    }
+
+    // Builds the per-import lookup tables so rows resolve categories and payment methods without queries
+    private ImportLookups loadLookups(User user, StatementColumnMappingDTO mapping) {
+        ImportLookups lookups = new ImportLookups();
+        for (Category category : categoryRepository.findAllByUserAndIsActiveTrue(user)) {
+            String key = normalizeName(category.getCategoryName());
+            if (category.getType() == CategoryType.EXPENSE && category.isBudgetable()) {
+                lookups.expenseCategories.put(key, category);
+                lookups.expenseCategoriesById.put(category.getCategoryId(), category);
+            } else if (category.getType() == CategoryType.INCOME) {
+                lookups.incomeCategories.put(key, category);
+                lookups.incomeCategoriesById.put(category.getCategoryId(), category);
+            }
+        }
+        for (PaymentMethod paymentMethod : paymentMethodRepository.findAllByUserAndIsActiveTrue(user)) {
+            lookups.paymentMethods.put(normalizeName(paymentMethod.getName()), paymentMethod);
+        }
+        lookups.cash = lookups.paymentMethods.get("cash");
+
+        if (mapping.getDefaultExpenseCategoryId() != null) {
+            lookups.defaultExpenseCategory = lookups.expenseCategoriesById.get(mapping.getDefaultExpenseCategoryId());
+            if (lookups.defaultExpenseCategory == null) {
+                throw new IllegalStateException("Default expense category not found, inactive, or access denied.");
+            }
+        }
+        if (mapping.getDefaultIncomeCategoryId() != null) {
+            lookups.defaultIncomeCategory = lookups.incomeCategoriesById.get(mapping.getDefaultIncomeCategoryId());
+            if (lookups.defaultIncomeCategory == null) {
+                throw new IllegalStateException("Default income category not found, inactive, or access denied.");
+            }
+        }
+        return lookups;
+    }
+
+    private ColumnIndexes resolveColumns(StatementColumnMappingDTO mapping, String[] header) {
+        ColumnIndexes columns = new ColumnIndexes();
+        columns.date = resolveColumn(mapping.getDateColumn(), header);
+        columns.amount = resolveColumn(mapping.getAmountColumn(), header);
+        columns.description = resolveColumn(mapping.getDescriptionColumn(), header);
+        columns.category = resolveColumn(mapping.getCategoryColumn(), header);
+        columns.paymentMethod = resolveColumn(mapping.getPaymentMethodColumn(), header);
+        columns.type = resolveColumn(mapping.getTypeColumn(), header);
+        return columns;
+    }
+
+    // A column is referenced by header name (case-insensitive) or by zero-based index
+    private Integer resolveColumn(String column, String[] header) {
+        if (column == null || column.trim().isEmpty()) {
+            return null;
+        }
+        String wanted = column.trim();
+        if (header != null) {
+            for (int i = 0; i < header.length; i++) {
+                if (header[i] != null && header[i].trim().equalsIgnoreCase(wanted)) {
+                    return i;
+                }
+            }
+        }
+        int index;
+        try {
+            index = Integer.parseInt(wanted);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Column '" + wanted + "' not found in the statement header.");
+        }
+        if (index < 0) {
+            throw new IllegalStateException("Column index must not be negative: " + wanted);
+        }
+        return index;
+    }
+
+    private ParsedRow parseRow(String[] line, long rowNumber, ColumnIndexes columns, DateTimeFormatter dateFormatter,
+                               ImportLookups lookups, User user) {
+        String dateValue = cell(line, columns.date);
+        if (dateValue == null) {
+            throw new IllegalStateException("Date is required.");
+        }
+        LocalDate transactionDate;
+        try {
+            transactionDate = LocalDate.parse(dateValue, dateFormatter);
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException("Invalid date '" + dateValue + "'.");
+        }
+
+        BigDecimal signedAmount = parseAmount(cell(line, columns.amount));
+        if (signedAmount.signum() == 0) {
+            throw new IllegalStateException("Amount must not be zero.");
+        }
+        boolean isExpense = resolveIsExpense(cell(line, columns.type), signedAmount);
+        BigDecimal amount = signedAmount.abs().setScale(2, RoundingMode.HALF_UP);
+
+        String description = cell(line, columns.description);
+        if (description != null && description.length() > DESCRIPTION_MAX_LENGTH) {
+            description = description.substring(0, DESCRIPTION_MAX_LENGTH);
+        }
+        String categoryName = cell(line, columns.category);
+
+        ParsedRow row = new ParsedRow();
+        row.rowNumber = rowNumber;
+        row.contentHash = contentHash(isExpense, transactionDate, amount, description);
+        if (isExpense) {
+            Category category = resolveCategory(categoryName, lookups.expenseCategories, lookups.defaultExpenseCategory, "expense");
+            PaymentMethod paymentMethod = resolvePaymentMethod(cell(line, columns.paymentMethod), lookups);
+
+            Expense expense = new Expense();
+            expense.setUser(user);
+            expense.setCategory(category);
+            expense.setPaymentMethod(paymentMethod);
+            expense.setAmount(amount);
+            expense.setDescription(description);
+            expense.setTransactionDate(transactionDate);
+            row.expense = expense;
+        } else {
+            Category category = resolveCategory(categoryName, lookups.incomeCategories, lookups.defaultIncomeCategory, "income");
+
+            Income income = new Income();
+            income.setUser(user);
+            income.setCategory(category);
+            income.setAmount(amount);
+            income.setSource("Statement import");
+            income.setDescription(description);
+            income.setTransactionDate(transactionDate);
+            row.income = income;
+        }
+        return row;
+    }
+
+    private boolean resolveIsExpense(String typeValue, BigDecimal signedAmount) {
+        if (typeValue == null) {
+            // Without a type column, debits (negative amounts) are expenses and credits are income
+            return signedAmount.signum() < 0;
+        }
+        switch (typeValue.trim().toUpperCase()) {
+            case "EXPENSE":
+            case "DEBIT":
+            case "DR":
+                return true;
+            case "INCOME":
+            case "CREDIT":
+            case "CR":
+                return false;
+            default:
+                throw new IllegalStateException("Unknown transaction type '" + typeValue + "'.");
+        }
+    }
+
+    private Category resolveCategory(String categoryName, Map<String, Category> categories, Category defaultCategory, String kind) {
+        if (categoryName != null) {
+            Category category = categories.get(normalizeName(categoryName));
+            if (category != null) {
+                return category;
+            }
+            if (defaultCategory == null) {
+                throw new IllegalStateException("Unknown " + kind + " category '" + categoryName + "'.");
+            }
+        }
+        if (defaultCategory == null) {
+            throw new IllegalStateException("No category given and no default " + kind + " category configured.");
+        }
+        return defaultCategory;
+    }
+
+    private PaymentMethod resolvePaymentMethod(String paymentMethodName, ImportLookups lookups) {
+        if (paymentMethodName == null) {
+            if (lookups.cash == null) {
+                throw new IllegalStateException("Default 'Cash' payment method not found for user.");
+            }
+            return lookups.cash;
+        }
+        PaymentMethod paymentMethod = lookups.paymentMethods.get(normalizeName(paymentMethodName));
+        if (paymentMethod == null) {
+            throw new IllegalStateException("Unknown or inactive payment method '" + paymentMethodName + "'.");
+        }
+        return paymentMethod;
+    }
+
+    /**
+     * Writes one chunk in its own transaction. Rows whose content hash already exists for the user are skipped.
+     * Duplicates are counted, not just checked for presence: a file may legitimately contain two identical rows,
+     * and only as many copies as already existed before this import are treated as duplicates.
+     * Stored rows are read only up to the IDs that existed when the import started, so rows written by earlier
+     * chunks never count as pre-existing and only hashes that match a pre-existing row need to be tracked.
+     */
+    private void writeChunk(User user, List<ParsedRow> chunk, DuplicateTracker duplicates, StatementImportReportDTO report) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDate fromDate = chunk.stream().map(ParsedRow::transactionDate).min(LocalDate::compareTo).get();
+            LocalDate toDate = chunk.stream().map(ParsedRow::transactionDate).max(LocalDate::compareTo).get();
+
+            Map<String, Integer> storedCounts = new HashMap<>();
+            for (Object[] content : expenseRepository.findContentByUserAndTransactionDateBetween(user, fromDate, toDate,
+                    duplicates.maxExpenseId)) {
+                storedCounts.merge(contentHash(true, (LocalDate) content[0], (BigDecimal) content[1], (String) content[2]), 1, Integer::sum);
+            }
+            for (Object[] content : incomeRepository.findContentByUserAndTransactionDateBetween(user, fromDate, toDate,
+                    duplicates.maxIncomeId)) {
+                storedCounts.merge(contentHash(false, (LocalDate) content[0], (BigDecimal) content[1], (String) content[2]), 1, Integer::sum);
+            }
+
+            List<Expense> expenses = new ArrayList<>();
+            List<Income> incomes = new ArrayList<>();
+            for (ParsedRow row : chunk) {
+                int preExisting = storedCounts.getOrDefault(row.contentHash, 0);
+                // A row without a pre-existing match is always inserted, so only colliding hashes are counted
+                if (preExisting > 0 && duplicates.seenInFile.merge(row.contentHash, 1, Integer::sum) <= preExisting) {
+                    report.setSkippedDuplicates(report.getSkippedDuplicates() + 1);
+                    continue;
+                }
+                if (row.expense != null) {
+                    expenses.add(row.expense);
+                } else {
+                    incomes.add(row.income);
+                }
+            }
+
+            if (!expenses.isEmpty()) {
+                List<Expense> savedExpenses = expenseRepository.insertAll(expenses);
+                eventPublisher.publishEvent(new ExpenseBatchCreatedEvent(this,
+                        savedExpenses.stream().map(ExpenseSnapshot::of).toList()));
+            }
+            if (!incomes.isEmpty()) {
+                List<Income> savedIncomes = incomeRepository.saveAll(incomes);
+                eventPublisher.publishEvent(new IncomeBatchCreatedEvent(this, savedIncomes));
+            }
+            if (!expenses.isEmpty() || !incomes.isEmpty()) {
+                dataVersionService.bump(user.getEmail());
+            }
+            entityManager.flush();
+            entityManager.clear(); // Keep the persistence context from growing across chunks
+
+            report.setImportedExpenses(report.getImportedExpenses() + expenses.size());
+            report.setImportedIncomes(report.getImportedIncomes() + incomes.size());
+        });
+    }
+
+    private void recordError(StatementImportReportDTO report, long rowNumber, String message) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new StatementImportRowErrorDTO(rowNumber, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private BigDecimal parseAmount(String value) {
+        if (value == null) {
+            throw new IllegalStateException("Amount is required.");
+        }
+        String cleaned = value.trim();
+        boolean negative = cleaned.startsWith("(") && cleaned.endsWith(")"); // Accounting notation for negatives
+        cleaned = cleaned.replaceAll("[^0-9.\\-]", "");
+        try {
+            BigDecimal amount = new BigDecimal(cleaned);
+            return negative ? amount.abs().negate() : amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid amount '" + value + "'.");
+        }
+    }
+
+    // Hash of the fields that identify a transaction; descriptions are compared case- and whitespace-insensitively
+    private String contentHash(boolean isExpense, LocalDate transactionDate, BigDecimal amount, String description) {
+        String normalizedDescription = description == null ? "" : description.trim().replaceAll("\\s+", " ").toLowerCase();
+        String content = (isExpense ? "E" : "I") + "|" + transactionDate + "|"
+                + amount.setScale(2, RoundingMode.HALF_UP).toPlainString() + "|" + normalizedDescription;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available.", e);
+        }
+    }
+
+    private int nullToZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private String cell(String[] line, Integer index) {
+        if (index == null || index >= line.length || line[index] == null) {
+            return null;
+        }
+        String value = line[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private boolean isBlankLine(String[] line) {
+        for (String value : line) {
+            if (value != null && !value.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String normalizeName(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    private static final class ImportLookups {
+        private final Map<String, Category> expenseCategories = new HashMap<>();
+        private final Map<String, Category> incomeCategories = new HashMap<>();
+        private final Map<Integer, Category> expenseCategoriesById = new HashMap<>();
+        private final Map<Integer, Category> incomeCategoriesById = new HashMap<>();
+        private final Map<String, PaymentMethod> paymentMethods = new HashMap<>();
+        private PaymentMethod cash;
+        private Category defaultExpenseCategory;
+        private Category defaultIncomeCategory;
+    }
+
+    private static final class ColumnIndexes {
+        private Integer date;
+        private Integer amount;
+        private Integer description;
+        private Integer category;
+        private Integer paymentMethod;
+        private Integer type;
+    }
+
+    private static final class ParsedRow {
+        private long rowNumber;
+        private String contentHash;
+        private Expense expense;
+        private Income income;
+
+        private LocalDate transactionDate() {
+            return expense != null ? expense.getTransactionDate() : income.getTransactionDate();
+        }
+    }
+
+    // Per-import duplicate state: the IDs that existed before the import, and how often the file has repeated
+    // each hash that matches a pre-existing row
+    private static final class DuplicateTracker {
+        private final int maxExpenseId;
+        private final int maxIncomeId;
+        private final Map<String, Integer> seenInFile = new HashMap<>();
+
+        private DuplicateTracker(int maxExpenseId, int maxIncomeId) {
+            this.maxExpenseId = maxExpenseId;
+            this.maxIncomeId = maxIncomeId;
+        }
+    }
+}
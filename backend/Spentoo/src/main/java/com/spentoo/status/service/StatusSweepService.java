@@ -0,0 +1,133 @@
+package com.spentoo.status.service;
+
+import com.spentoo.budget.repository.BudgetRepository;
+import com.spentoo.goal.repository.GoalRepository;
+import com.spentoo.loan.repository.LoanRepository;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies the statuses that change with the calendar rather than with user actions:
+ * budgets past their end date become COMPLETED, goals past their deadline become FAILED and loans past their
+ * due date become OVERDUE. Each kind is swept in batches of set-based UPDATEs, one transaction per batch, so a
+ * large backlog never holds locks for long. Read paths only read the stored status.
+ */
+@Service
+public class StatusSweepService {
+
+    private final BudgetRepository budgetRepository;
+    private final GoalRepository goalRepository;
+    private final LoanRepository loanRepository;
+    private final UserRepository userRepository;
+    private final ChangeLogService changeLogService;
+    private final DataVersionService dataVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spentoo.status.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Value("${spentoo.status.sweep-on-startup:true}")
+    private boolean sweepOnStartup;
+
+    public StatusSweepService(BudgetRepository budgetRepository, GoalRepository goalRepository,
+                              LoanRepository loanRepository, UserRepository userRepository,
+                              ChangeLogService changeLogService, DataVersionService dataVersionService,
+                              PlatformTransactionManager transactionManager) {
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        this.loanRepository = loanRepository;
+        this.userRepository = userRepository;
+        this.changeLogService = changeLogService;
+        this.dataVersionService = dataVersionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs all sweeps for today's date. Runs shortly after midnight by default
+     * (spentoo.status.sweep-cron) and is safe to run at any time, since each sweep only touches rows still
+     * in the old status.
+     */
+    @Scheduled(cron = "${spentoo.status.sweep-cron:0 5 0 * * *}")
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        int budgets = sweepBatches(pageable -> budgetRepository.findExpiredActive(today, pageable),
+                (ids, now) -> budgetRepository.markCompleted(ids, now), ChangeEntityType.BUDGET);
+        int goals = sweepBatches(pageable -> goalRepository.findMissedActive(today, pageable),
+                (ids, now) -> goalRepository.markFailed(ids, now), null);
+        int loans = sweepBatches(pageable -> loanRepository.findPastDueActive(today, pageable),
+                (ids, now) -> loanRepository.markOverdue(ids, now), null);
+        System.out.println("Status sweep: " + budgets + " budgets completed, " + goals + " goals failed, "
+                + loans + " loans overdue.");
+    }
+
+    // Catches up on transitions missed while the application was down
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepOnStartup() {
+        if (sweepOnStartup) {
+            sweep();
+        }
+    }
+
+    private int sweepBatches(BatchFinder finder, BatchUpdater updater, ChangeEntityType changeType) {
+        Pageable firstPage = PageRequest.of(0, batchSize);
+        int total = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> {
+                // Updated rows no longer match the finder, so every batch reads the first page again
+                List<Object[]> rows = finder.find(firstPage);
+                if (rows.isEmpty()) {
+                    return 0;
+                }
+                List<Integer> ids = new ArrayList<>(rows.size());
+                Map<Integer, List<Integer>> idsByUser = new LinkedHashMap<>();
+                Set<String> emails = new HashSet<>();
+                for (Object[] row : rows) {
+                    ids.add((Integer) row[0]);
+                    idsByUser.computeIfAbsent((Integer) row[1], key -> new ArrayList<>()).add((Integer) row[0]);
+                    emails.add((String) row[2]);
+                }
+                int count = updater.update(ids, LocalDateTime.now());
+                if (changeType != null) {
+                    idsByUser.forEach((userId, userIds) -> changeLogService.recordAll(
+                            userRepository.getReferenceById(userId), changeType, userIds, ChangeOperation.UPDATED));
+                }
+                emails.forEach(dataVersionService::bump);
+                return count;
+            });
+            total += updated;
+            // A short batch was the last one; zero updated rows means the rest changed underneath us, so stop either way
+            if (updated == 0 || updated < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private interface BatchFinder {
+        List<Object[]> find(Pageable pageable);
+    }
+
+    private interface BatchUpdater {
+        int update(List<Integer> ids, LocalDateTime now);
+    }
+}
@@ -0,0 +1,30 @@
+package com.spentoo.sync.controller;
+
+import com.spentoo.sync.dto.SyncResponseDTO;
+import com.spentoo.sync.service.SyncService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping
+    public ResponseEntity<SyncResponseDTO> sync(
+            @RequestParam(value = "since", required = false) String since,
+            @AuthenticationPrincipal String userEmail) {
+        SyncResponseDTO changes = syncService.getChangesSince(userEmail, since);
+        return new ResponseEntity<>(changes, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,30 @@
+package com.spentoo.sync.dto;
+
+import com.spentoo.budget.dto.BudgetDTO;
+import com.spentoo.category.dto.CategoryDTO;
+import com.spentoo.expense.dto.ExpenseDTO;
+import com.spentoo.income.dto.IncomeDTO;
+import com.spentoo.payment.dto.PaymentMethodDTO;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records created or updated since the client's token (current state), plus tombstones for deleted ones.
+ * Pass {@code nextToken} as {@code since} on the next call; keep calling while {@code hasMore} is true.
+ * {@code snapshot} is true when no token was given and the lists hold all of the user's records.
+ */
+@Data
+public class SyncResponseDTO {
+
+    private String nextToken;
+    private boolean hasMore;
+    private boolean snapshot;
+    private List<ExpenseDTO> expenses = new ArrayList<>();
+    private List<IncomeDTO> incomes = new ArrayList<>();
+    private List<BudgetDTO> budgets = new ArrayList<>();
+    private List<CategoryDTO> categories = new ArrayList<>();
+    private List<PaymentMethodDTO> paymentMethods = new ArrayList<>();
+    private List<SyncTombstoneDTO> deleted = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.spentoo.sync.dto;
+
+import com.spentoo.sync.model.ChangeEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A record deleted since the client's sync token.
+ */
+@Data
+@AllArgsConstructor
+public class SyncTombstoneDTO {
+
+    private ChangeEntityType entityType;
+    private Integer entityId;
+    private LocalDateTime deletedAt;
+}
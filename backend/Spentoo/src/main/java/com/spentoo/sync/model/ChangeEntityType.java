@@ -0,0 +1,9 @@
+package com.spentoo.sync.model;
+
+public enum ChangeEntityType {
+    EXPENSE,
+    INCOME,
+    BUDGET,
+    CATEGORY,
+    PAYMENT_METHOD
+}
@@ -0,0 +1,48 @@
+package com.spentoo.sync.model;
+
+import com.spentoo.user.model.User;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per create, update or delete of a user's synced records, ordered by RowVer.
+ * Deleted records keep their row here as a tombstone, which is what lets clients sync deletions.
+ */
+@Data
+@Entity
+@Table(name = "ChangeLog", indexes = {
+    @Index(name = "idx_changelog_user_rowver", columnList = "UserID, RowVer")
+})
+public class ChangeLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ChangeID")
+    private Long changeId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "UserID", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "EntityType", nullable = false, length = 30)
+    private ChangeEntityType entityType;
+
+    @Column(name = "EntityID", nullable = false)
+    private Integer entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "Operation", nullable = false, length = 10)
+    private ChangeOperation operation;
+
+    // SQL Server ROWVERSION, assigned by the database; sync tokens are built from it
+    @Column(name = "RowVer", insertable = false, updatable = false)
+    private byte[] rowVersion;
+
+    @CreationTimestamp
+    @Column(name = "ChangedAt", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+}
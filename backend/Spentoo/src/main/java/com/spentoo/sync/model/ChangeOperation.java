@@ -0,0 +1,7 @@
+package com.spentoo.sync.model;
+
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,40 @@
+package com.spentoo.sync.repository;
+
+import com.spentoo.sync.model.ChangeLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long> {
+
+    /**
+     * Lists a user's changes with a row version between a sync token and a committed watermark, oldest first.
+     * Served by the (UserID, RowVer) index, so a sync with nothing new is a single index seek.
+     * @param userId The user's ID.
+     * @param sinceVersion The last row version the client has seen.
+     * @param belowVersion The watermark from findMinActiveRowVersion; rows from here on may be uncommitted.
+     * @param limit The maximum number of changes returned.
+     * @return The changes after sinceVersion and below belowVersion.
+     */
+    @Query(value = "SELECT TOP (:limit) c.* FROM ChangeLog c " +
+           "WHERE c.UserID = :userId " +
+           "AND c.RowVer > CAST(CAST(:sinceVersion AS BIGINT) AS BINARY(8)) " +
+           "AND c.RowVer < CAST(CAST(:belowVersion AS BIGINT) AS BINARY(8)) " +
+           "ORDER BY c.RowVer ASC", nativeQuery = true)
+    List<ChangeLog> findChangesBetween(@Param("userId") Integer userId,
+                                       @Param("sinceVersion") long sinceVersion,
+                                       @Param("belowVersion") long belowVersion,
+                                       @Param("limit") int limit);
+
+    /**
+     * Returns the lowest row version that may still belong to an open transaction (SQL Server
+     * MIN_ACTIVE_ROWVERSION). Every row version below it is committed.
+     * @return The watermark as a number.
+     */
+    @Query(value = "SELECT CAST(MIN_ACTIVE_ROWVERSION() AS BIGINT)", nativeQuery = true)
+    long findMinActiveRowVersion();
+}
@@ -0,0 +1,103 @@
+package com.spentoo.sync.service;
+
+import com.spentoo.events.ExpenseBatchCreatedEvent;
+import com.spentoo.events.ExpenseChangedEvent;
+import com.spentoo.events.ExpenseSnapshot;
+import com.spentoo.events.IncomeBatchCreatedEvent;
+import com.spentoo.events.IncomeChangedEvent;
+import com.spentoo.income.model.Income;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeLog;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.repository.ChangeLogRepository;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records changes to synced records in the ChangeLog table.
+ * Rows are written in the same transaction as the change itself, so the log never lists a change
+ * that was rolled back and never misses one that committed.
+ */
+@Service
+public class ChangeLogService {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final UserRepository userRepository;
+
+    public ChangeLogService(ChangeLogRepository changeLogRepository, UserRepository userRepository) {
+        this.changeLogRepository = changeLogRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Transactional
+    public void record(User user, ChangeEntityType entityType, Integer entityId, ChangeOperation operation) {
+        changeLogRepository.save(newEntry(user, entityType, entityId, operation));
+    }
+
+    @Transactional
+    public void recordAll(User user, ChangeEntityType entityType, Collection<Integer> entityIds, ChangeOperation operation) {
+        List<ChangeLog> entries = new ArrayList<>(entityIds.size());
+        for (Integer entityId : entityIds) {
+            entries.add(newEntry(user, entityType, entityId, operation));
+        }
+        changeLogRepository.saveAll(entries);
+    }
+
+    // Expenses and incomes are logged from their change events, which also covers batch creates and statement imports
+
+    @EventListener
+    @Transactional
+    public void handleExpenseChangedEvent(ExpenseChangedEvent event) {
+        ExpenseSnapshot expense = event.getCurrent();
+        record(userRepository.getReferenceById(expense.getUserId()), ChangeEntityType.EXPENSE, expense.getExpenseId(),
+                toOperation(event.getChangeType().name()));
+    }
+
+    @EventListener
+    @Transactional
+    public void handleExpenseBatchCreatedEvent(ExpenseBatchCreatedEvent event) {
+        if (event.getExpenses().isEmpty()) {
+            return;
+        }
+        recordAll(userRepository.getReferenceById(event.getExpenses().get(0).getUserId()), ChangeEntityType.EXPENSE,
+                event.getExpenses().stream().map(ExpenseSnapshot::getExpenseId).toList(), ChangeOperation.CREATED);
+    }
+
+    @EventListener
+    @Transactional
+    public void handleIncomeChangedEvent(IncomeChangedEvent event) {
+        Income income = event.getIncome();
+        record(income.getUser(), ChangeEntityType.INCOME, income.getIncomeId(), toOperation(event.getChangeType().name()));
+    }
+
+    @EventListener
+    @Transactional
+    public void handleIncomeBatchCreatedEvent(IncomeBatchCreatedEvent event) {
+        if (event.getIncomes().isEmpty()) {
+            return;
+        }
+        recordAll(event.getIncomes().get(0).getUser(), ChangeEntityType.INCOME,
+                event.getIncomes().stream().map(Income::getIncomeId).toList(), ChangeOperation.CREATED);
+    }
+
+    private ChangeLog newEntry(User user, ChangeEntityType entityType, Integer entityId, ChangeOperation operation) {
+        ChangeLog entry = new ChangeLog();
+        entry.setUser(user);
+        entry.setEntityType(entityType);
+        entry.setEntityId(entityId);
+        entry.setOperation(operation);
+        return entry;
+    }
+
+    // The event change types use the same names as ChangeOperation
+    private ChangeOperation toOperation(String changeType) {
+        return ChangeOperation.valueOf(changeType);
+    }
+}
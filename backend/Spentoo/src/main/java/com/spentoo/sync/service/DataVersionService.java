@@ -0,0 +1,77 @@
+package com.spentoo.sync.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a data version per user that changes whenever any of the user's data changes.
+ * Versions are drawn from one global counter, so a user whose entry was evicted gets a version that was never
+ * handed out before and stale ETags can never match again. Versions live in memory only; a restart changes the
+ * instance id in the ETag instead.
+ */
+@Service
+public class DataVersionService {
+
+    private static final long MAX_TRACKED_USERS = 10_000;
+    private static final Duration IDLE_EXPIRY = Duration.ofHours(12);
+
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<String, Long> versions = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_USERS)
+            .expireAfterAccess(IDLE_EXPIRY)
+            .build();
+
+    /**
+     * Returns the current data version of a user.
+     * @param userEmail The user's email (case-insensitive).
+     * @return The version.
+     */
+    public long currentVersion(String userEmail) {
+        return versions.get(key(userEmail), k -> sequence.incrementAndGet());
+    }
+
+    /**
+     * Builds the weak ETag for a user's data as of the current version.
+     * The day is part of the tag because some responses (budget and goal statuses) depend on today's date.
+     * @param userEmail The user's email.
+     * @param epochDay Today's date as epoch day.
+     * @return The ETag header value.
+     */
+    public String etag(String userEmail, long epochDay) {
+        return "W/\"" + instanceId + "-" + currentVersion(userEmail) + "-" + epochDay + "\"";
+    }
+
+    /**
+     * Marks the user's data as changed. Inside a transaction the bump happens after commit, so a concurrent read
+     * never tags pre-commit data with the new version; rolled back changes do not bump at all.
+     * @param userEmail The user's email.
+     */
+    public void bump(String userEmail) {
+        if (userEmail == null) {
+            return;
+        }
+        String key = key(userEmail);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.put(key, sequence.incrementAndGet());
+                }
+            });
+        } else {
+            versions.put(key, sequence.incrementAndGet());
+        }
+    }
+
+    private String key(String userEmail) {
+        return userEmail.toLowerCase(Locale.ROOT);
+    }
+}
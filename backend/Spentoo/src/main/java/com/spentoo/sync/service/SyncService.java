@@ -0,0 +1,132 @@
+package com.spentoo.sync.service;
+
+import com.spentoo.budget.service.BudgetService;
+import com.spentoo.category.service.CategoryService;
+import com.spentoo.expense.service.ExpenseService;
+import com.spentoo.income.service.IncomeService;
+import com.spentoo.payment.service.PaymentMethodService;
+import com.spentoo.sync.dto.SyncResponseDTO;
+import com.spentoo.sync.dto.SyncTombstoneDTO;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeLog;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.repository.ChangeLogRepository;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SyncService {
+
+    private static final int MAX_CHANGES = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final UserRepository userRepository;
+    private final ExpenseService expenseService;
+    private final IncomeService incomeService;
+    private final BudgetService budgetService;
+    private final CategoryService categoryService;
+    private final PaymentMethodService paymentMethodService;
+
+    public SyncService(ChangeLogRepository changeLogRepository, UserRepository userRepository,
+                       ExpenseService expenseService, IncomeService incomeService, BudgetService budgetService,
+                       CategoryService categoryService, PaymentMethodService paymentMethodService) {
+        this.changeLogRepository = changeLogRepository;
+        this.userRepository = userRepository;
+        this.expenseService = expenseService;
+        this.incomeService = incomeService;
+        this.budgetService = budgetService;
+        this.categoryService = categoryService;
+        this.paymentMethodService = paymentMethodService;
+    }
+
+    /**
+     * Returns the user's expenses, incomes, budgets, categories and payment methods changed since a sync token.
+     * Without a token, all records are returned together with a token to continue from.
+     * @param userEmail The user's email.
+     * @param since The token from the previous sync, or null for a full snapshot.
+     * @return The changed records, tombstones for deleted ones and the next token.
+     */
+    @Transactional(readOnly = true)
+    public SyncResponseDTO getChangesSince(String userEmail, String since) {
+        User user = userRepository.findByEmailIgnoreCase(userEmail)
+                .orElseThrow(() -> new IllegalStateException("User not found."));
+
+        if (since == null || since.isBlank()) {
+            return snapshot(user, userEmail);
+        }
+        long sinceVersion = parseToken(since);
+
+        // Row versions are assigned at insert, not at commit, so a change with a lower version may still commit after
+        // a higher one. Reading only below the watermark, taken in its own statement first, returns committed changes
+        // only; anything still in flight is above it and is picked up by the next sync.
+        long committedBelow = changeLogRepository.findMinActiveRowVersion();
+        List<ChangeLog> changes = changeLogRepository.findChangesBetween(user.getUserId(), sinceVersion, committedBelow, MAX_CHANGES);
+        long nextToken = sinceVersion;
+
+        // Only the latest change per record matters
+        Map<ChangeEntityType, Map<Integer, ChangeLog>> latest = new EnumMap<>(ChangeEntityType.class);
+        for (ChangeLog change : changes) {
+            latest.computeIfAbsent(change.getEntityType(), type -> new LinkedHashMap<>()).put(change.getEntityId(), change);
+            nextToken = ByteBuffer.wrap(change.getRowVersion()).getLong();
+        }
+
+        SyncResponseDTO response = new SyncResponseDTO();
+        Map<ChangeEntityType, List<Integer>> upserts = new EnumMap<>(ChangeEntityType.class);
+        latest.forEach((type, byId) -> byId.forEach((entityId, change) -> {
+            if (change.getOperation() == ChangeOperation.DELETED) {
+                response.getDeleted().add(new SyncTombstoneDTO(type, entityId, change.getChangedAt()));
+            } else {
+                upserts.computeIfAbsent(type, t -> new ArrayList<>()).add(entityId);
+            }
+        }));
+
+        // One query per record type for the current state of everything that changed
+        response.setExpenses(expenseService.getExpensesByIds(user, upserts.getOrDefault(ChangeEntityType.EXPENSE, List.of())));
+        response.setIncomes(incomeService.getIncomesByIds(user, upserts.getOrDefault(ChangeEntityType.INCOME, List.of())));
+        response.setBudgets(budgetService.getBudgetsByIds(user, upserts.getOrDefault(ChangeEntityType.BUDGET, List.of())));
+        response.setCategories(categoryService.getCategoriesByIds(user, upserts.getOrDefault(ChangeEntityType.CATEGORY, List.of())));
+        response.setPaymentMethods(paymentMethodService.getPaymentMethodsByIds(user,
+                upserts.getOrDefault(ChangeEntityType.PAYMENT_METHOD, List.of())));
+
+        response.setNextToken(Long.toString(nextToken));
+        response.setHasMore(changes.size() == MAX_CHANGES);
+        return response;
+    }
+
+    private SyncResponseDTO snapshot(User user, String userEmail) {
+        // Take the token first: every change below the watermark is committed and included in the snapshot, and
+        // anything that commits while the snapshot is read is sent again on the next sync
+        long lastCommittedVersion = changeLogRepository.findMinActiveRowVersion() - 1;
+
+        SyncResponseDTO response = new SyncResponseDTO();
+        response.setSnapshot(true);
+        response.setExpenses(expenseService.listExpenses(userEmail));
+        response.setIncomes(incomeService.listIncomes(userEmail));
+        response.setBudgets(budgetService.getAllBudgets(userEmail));
+        response.setCategories(categoryService.getAllCategories(userEmail, false));
+        response.setPaymentMethods(paymentMethodService.listAllPaymentMethods(userEmail));
+        response.setNextToken(Long.toString(lastCommittedVersion));
+        return response;
+    }
+
+    private long parseToken(String since) {
+        try {
+            long version = Long.parseLong(since.trim());
+            if (version < 0) {
+                throw new IllegalStateException("Invalid sync token.");
+            }
+            return version;
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid sync token.");
+        }
+    }
+}
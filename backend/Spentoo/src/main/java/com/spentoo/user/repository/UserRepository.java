@@ -1,9 +1,13 @@
 package com.spentoo.user.repository;
 
 import com.spentoo.user.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -29,4 +33,20 @@ public interface UserRepository extends JpaRepository<User, Integer> {
      * @return An Optional containing the found user, or empty if not found.
      */
     Optional<User> findByUsername(String username);
+
+    /**
+     * Returns the IDs of all users, for batch jobs that process users one at a time.
+     * @return A list of user IDs.
+     */
+    @Query("SELECT u.userId FROM User u ORDER BY u.userId")
+    List<Integer> findAllUserIds();
+
+    /**
+     * Returns the next chunk of user IDs after a given ID, for batch jobs that checkpoint their progress.
+     * @param afterUserId The last user ID already processed (0 to start from the beginning).
+     * @param pageable The chunk size.
+     * @return The user IDs, in ascending order.
+     */
+    @Query("SELECT u.userId FROM User u WHERE u.userId > :afterUserId ORDER BY u.userId")
+    List<Integer> findUserIdsAfter(@Param("afterUserId") Integer afterUserId, Pageable pageable);
 }
@@ -0,0 +1,148 @@
+package com.spentoo.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spentoo.cache.CacheInvalidation;
+import com.spentoo.category.model.Category;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.payment.model.PaymentMethod;
+import com.spentoo.payment.repository.PaymentMethodRepository;
+import com.spentoo.user.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Resolves the fixed rows every user is given at registration ("Cash", "RECURRING_AUTO_PAY" and the
+ * system-generated Recurring/Loan categories) to their IDs.
+ * Each user's IDs are loaded with two queries and cached; these rows cannot be renamed or deleted, so the
+ * cache only changes when they are created. A missing ID is re-checked against the database before it is
+ * reported, so a row created after the load is still found.
+ */
+@Service
+public class SystemReferenceRegistry {
+
+    public static final String CASH = "Cash";
+    public static final String RECURRING_AUTO_PAY = "RECURRING_AUTO_PAY";
+    public static final String RECURRING_PAYMENTS = "Recurring Payments";
+    public static final String LOAN_PAYMENTS = "Loan Payments";
+    public static final String LOAN_REPAYMENTS = "Loan Repayments";
+
+    private static final long MAX_CACHED_USERS = 10_000;
+    private static final Duration IDLE_EXPIRY = Duration.ofHours(1);
+
+    private final PaymentMethodRepository paymentMethodRepository;
+    private final CategoryRepository categoryRepository;
+
+    // Per user: the IDs of the reference rows (immutable, shared between requests)
+    private final Cache<Integer, SystemReferences> references;
+
+    public SystemReferenceRegistry(PaymentMethodRepository paymentMethodRepository,
+                                   CategoryRepository categoryRepository,
+                                   MeterRegistry meterRegistry) {
+        this.paymentMethodRepository = paymentMethodRepository;
+        this.categoryRepository = categoryRepository;
+        this.references = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_USERS)
+                .expireAfterAccess(IDLE_EXPIRY)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, references, "systemReferences");
+    }
+
+    public Integer getCashMethodId(User user) {
+        return require(user, refs -> refs.cashMethodId,
+                "Default 'Cash' payment method not found for user.");
+    }
+
+    public Integer getRecurringAutoPayMethodId(User user) {
+        return require(user, refs -> refs.recurringAutoPayMethodId,
+                "System-generated 'RECURRING_AUTO_PAY' payment method not found for user: " + user.getEmail());
+    }
+
+    public Integer getRecurringPaymentsCategoryId(User user) {
+        return require(user, refs -> refs.recurringPaymentsCategoryId,
+                "System-generated 'Recurring Payments' category not found for user.");
+    }
+
+    public Integer getLoanPaymentsCategoryId(User user) {
+        return require(user, refs -> refs.loanPaymentsCategoryId,
+                "System-generated 'Loan Payments' category not found for user.");
+    }
+
+    public Integer getLoanRepaymentsCategoryId(User user) {
+        return require(user, refs -> refs.loanRepaymentsCategoryId,
+                "System-generated 'Loan Repayments' category not found for user.");
+    }
+
+    // Drops the user's cached IDs
+    public void evict(Integer userId) {
+        CacheInvalidation.invalidateNowAndAfterCommit(references, userId);
+    }
+
+    private Integer require(User user, Function<SystemReferences, Integer> field, String notFoundMessage) {
+        Integer userId = user.getUserId();
+        Integer id = field.apply(references.get(userId, this::load));
+        if (id == null) {
+            references.invalidate(userId);
+            id = field.apply(references.get(userId, this::load));
+        }
+        if (id == null) {
+            throw new IllegalStateException(notFoundMessage);
+        }
+        return id;
+    }
+
+    private SystemReferences load(Integer userId) {
+        Integer cashMethodId = null;
+        Integer recurringAutoPayMethodId = null;
+        List<PaymentMethod> methods = paymentMethodRepository.findAllByUserIdAndLowerCaseNameIn(userId,
+                List.of(CASH.toLowerCase(), RECURRING_AUTO_PAY.toLowerCase()));
+        for (PaymentMethod method : methods) {
+            if (CASH.equalsIgnoreCase(method.getName())) {
+                cashMethodId = method.getMethodId();
+            } else if (RECURRING_AUTO_PAY.equals(method.getName()) && method.isSystemGenerated()) {
+                recurringAutoPayMethodId = method.getMethodId();
+            }
+        }
+
+        Integer recurringPaymentsCategoryId = null;
+        Integer loanPaymentsCategoryId = null;
+        Integer loanRepaymentsCategoryId = null;
+        List<Category> categories = categoryRepository.findSystemGeneratedByUserIdAndLowerCaseNameIn(userId,
+                List.of(RECURRING_PAYMENTS.toLowerCase(), LOAN_PAYMENTS.toLowerCase(), LOAN_REPAYMENTS.toLowerCase()));
+        for (Category category : categories) {
+            if (RECURRING_PAYMENTS.equalsIgnoreCase(category.getCategoryName())) {
+                recurringPaymentsCategoryId = category.getCategoryId();
+            } else if (LOAN_PAYMENTS.equalsIgnoreCase(category.getCategoryName())) {
+                loanPaymentsCategoryId = category.getCategoryId();
+            } else if (LOAN_REPAYMENTS.equalsIgnoreCase(category.getCategoryName())) {
+                loanRepaymentsCategoryId = category.getCategoryId();
+            }
+        }
+        return new SystemReferences(cashMethodId, recurringAutoPayMethodId,
+                recurringPaymentsCategoryId, loanPaymentsCategoryId, loanRepaymentsCategoryId);
+    }
+
+    private static final class SystemReferences {
+        private final Integer cashMethodId;
+        private final Integer recurringAutoPayMethodId;
+        private final Integer recurringPaymentsCategoryId;
+        private final Integer loanPaymentsCategoryId;
+        private final Integer loanRepaymentsCategoryId;
+
+        private SystemReferences(Integer cashMethodId, Integer recurringAutoPayMethodId,
+                                 Integer recurringPaymentsCategoryId, Integer loanPaymentsCategoryId,
+                                 Integer loanRepaymentsCategoryId) {
+            this.cashMethodId = cashMethodId;
+            this.recurringAutoPayMethodId = recurringAutoPayMethodId;
+            this.recurringPaymentsCategoryId = recurringPaymentsCategoryId;
+            this.loanPaymentsCategoryId = loanPaymentsCategoryId;
+            this.loanRepaymentsCategoryId = loanRepaymentsCategoryId;
+        }
+    }
+}
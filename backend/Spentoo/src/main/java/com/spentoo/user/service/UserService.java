@@ -26,16 +26,19 @@ public class UserService {
     private final CategoryService categoryService;
     private final EmailService emailService;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final SystemReferenceRegistry systemReferenceRegistry;
 
     public UserService(UserRepository userRepository, PasswordResetTokenRepository tokenRepository,
                        PaymentMethodService paymentMethodService, CategoryService categoryService,
-                       EmailService emailService, BCryptPasswordEncoder passwordEncoder) {
+                       EmailService emailService, BCryptPasswordEncoder passwordEncoder,
+                       SystemReferenceRegistry systemReferenceRegistry) {
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
         this.paymentMethodService = paymentMethodService;
         this.categoryService = categoryService;
         this.emailService = emailService;
         this.passwordEncoder = passwordEncoder;
+        this.systemReferenceRegistry = systemReferenceRegistry;
     }
 
     @Transactional
@@ -219,10 +222,11 @@ public class UserService {
 
     private void createDefaultItemsForUser(User user) {
         paymentMethodService.createDefaultCashMethod(user);
-        paymentMethodService.createSystemGeneratedPaymentMethod(user, "RECURRING_AUTO_PAY");
-        categoryService.createSystemGeneratedCategory(user, "Recurring Payments", CategoryType.EXPENSE, "🔄", "#FFC107");
-        categoryService.createSystemGeneratedCategory(user, "Loan Payments", CategoryType.EXPENSE, "💸", "#F44336");
-        categoryService.createSystemGeneratedCategory(user, "Loan Repayments", CategoryType.INCOME, "💰", "#4CAF50");
+        paymentMethodService.createSystemGeneratedPaymentMethod(user, SystemReferenceRegistry.RECURRING_AUTO_PAY);
+        categoryService.createSystemGeneratedCategory(user, SystemReferenceRegistry.RECURRING_PAYMENTS, CategoryType.EXPENSE, "🔄", "#FFC107");
+        categoryService.createSystemGeneratedCategory(user, SystemReferenceRegistry.LOAN_PAYMENTS, CategoryType.EXPENSE, "💸", "#F44336");
+        categoryService.createSystemGeneratedCategory(user, SystemReferenceRegistry.LOAN_REPAYMENTS, CategoryType.INCOME, "💰", "#4CAF50");
+        systemReferenceRegistry.evict(user.getUserId());
     }
 
     private UserProfileDTO convertToUserProfileDTO(User user) {
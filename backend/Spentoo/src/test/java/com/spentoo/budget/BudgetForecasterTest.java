@@ -0,0 +1,87 @@
+package com.spentoo.budget;
+
+import com.spentoo.budget.dto.BudgetForecastDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BudgetForecasterTest {
+
+    private static final LocalDate MAR_1 = LocalDate.of(2024, 3, 1);
+
+    private final BudgetForecaster forecaster = new BudgetForecaster(3);
+
+    @Test
+    void budgetNotStartedYetProjectsOnlyBookedSpend() {
+        Map<LocalDate, BigDecimal> dailySpend = Map.of(LocalDate.of(2024, 3, 5), new BigDecimal("50.00"));
+
+        BudgetForecastDTO forecast = forecaster.forecast(1, new BigDecimal("100.00"), MAR_1, LocalDate.of(2024, 3, 31),
+                dailySpend, LocalDate.of(2024, 2, 20));
+
+        assertEquals(0, forecast.getElapsedDays());
+        assertEquals(31, forecast.getTotalDays());
+        assertEquals(0, BigDecimal.ZERO.compareTo(forecast.getSpentToDate()));
+        assertEquals(new BigDecimal("50.00"), forecast.getScheduledSpend());
+        assertEquals(new BigDecimal("0.00"), forecast.getLinear().getDailyRate());
+        assertEquals(new BigDecimal("50.00"), forecast.getLinear().getProjectedSpend());
+        assertEquals(new BigDecimal("50.00"), forecast.getLinear().getProjectedRemaining());
+        assertNull(forecast.getLinear().getOverrunDate());
+        assertNull(forecast.getRecentWeighted().getOverrunDate());
+    }
+
+    @Test
+    void budgetNotStartedYetOverrunsOnBookedSpend() {
+        Map<LocalDate, BigDecimal> dailySpend = Map.of(LocalDate.of(2024, 3, 5), new BigDecimal("150.00"));
+
+        BudgetForecastDTO forecast = forecaster.forecast(1, new BigDecimal("100.00"), MAR_1, LocalDate.of(2024, 3, 31),
+                dailySpend, LocalDate.of(2024, 2, 20));
+
+        assertEquals(LocalDate.of(2024, 3, 5), forecast.getLinear().getOverrunDate());
+        assertEquals(LocalDate.of(2024, 3, 5), forecast.getRecentWeighted().getOverrunDate());
+    }
+
+    @Test
+    void overrunIsProjectedAtTheCurrentRate() {
+        BudgetForecastDTO forecast = forecaster.forecast(1, new BigDecimal("80.00"), MAR_1, LocalDate.of(2024, 3, 10),
+                tenPerDayUntil(LocalDate.of(2024, 3, 4)), LocalDate.of(2024, 3, 4));
+
+        // 40 spent after four days, then 10 a day: 80 on the 8th is still within the budget, 90 on the 9th is not
+        assertEquals(4, forecast.getElapsedDays());
+        assertEquals(new BigDecimal("10.00"), forecast.getLinear().getDailyRate());
+        assertEquals(new BigDecimal("100.00"), forecast.getLinear().getProjectedSpend());
+        assertEquals(new BigDecimal("-20.00"), forecast.getLinear().getProjectedRemaining());
+        assertEquals(LocalDate.of(2024, 3, 9), forecast.getLinear().getOverrunDate());
+        assertEquals(LocalDate.of(2024, 3, 9), forecast.getRecentWeighted().getOverrunDate());
+    }
+
+    @Test
+    void pastOverrunIsReportedOnTheDayItHappened() {
+        BudgetForecastDTO forecast = forecaster.forecast(1, new BigDecimal("25.00"), MAR_1, LocalDate.of(2024, 3, 10),
+                tenPerDayUntil(LocalDate.of(2024, 3, 4)), LocalDate.of(2024, 3, 4));
+
+        assertEquals(LocalDate.of(2024, 3, 3), forecast.getLinear().getOverrunDate());
+    }
+
+    @Test
+    void spendingExactlyTheBudgetIsNotAnOverrun() {
+        BudgetForecastDTO forecast = forecaster.forecast(1, new BigDecimal("100.00"), MAR_1, LocalDate.of(2024, 3, 10),
+                tenPerDayUntil(LocalDate.of(2024, 3, 4)), LocalDate.of(2024, 3, 4));
+
+        assertEquals(new BigDecimal("0.00"), forecast.getLinear().getProjectedRemaining());
+        assertNull(forecast.getLinear().getOverrunDate());
+    }
+
+    private Map<LocalDate, BigDecimal> tenPerDayUntil(LocalDate lastDate) {
+        Map<LocalDate, BigDecimal> dailySpend = new HashMap<>();
+        for (LocalDate date = MAR_1; !date.isAfter(lastDate); date = date.plusDays(1)) {
+            dailySpend.put(date, new BigDecimal("10.00"));
+        }
+        return dailySpend;
+    }
+}
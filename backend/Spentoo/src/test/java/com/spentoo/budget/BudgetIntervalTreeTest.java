@@ -0,0 +1,87 @@
+package com.spentoo.budget;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BudgetIntervalTreeTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void boundsAreInclusive() {
+        BudgetIntervalTree tree = new BudgetIntervalTree(List.of(period(1, JAN_1, LocalDate.of(2024, 1, 31))));
+
+        assertEquals(List.of(1), tree.findOverlapping(LocalDate.of(2023, 12, 20), JAN_1));
+        assertEquals(List.of(1), tree.findOverlapping(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 5)));
+        assertEquals(List.of(1), tree.findOverlapping(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 15)));
+        assertTrue(tree.findOverlapping(LocalDate.of(2023, 12, 1), LocalDate.of(2023, 12, 31)).isEmpty());
+        assertTrue(tree.findOverlapping(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 5)).isEmpty());
+    }
+
+    @Test
+    void longEarlyPeriodIsNotPrunedByShortLaterOnes() {
+        // The yearly budget sorts first, deep in the left subtree; only its subtree's latest end date keeps it reachable
+        List<BudgetIntervalTree.Period> periods = new ArrayList<>();
+        periods.add(period(1, JAN_1, LocalDate.of(2024, 12, 31)));
+        for (int month = 1; month <= 12; month++) {
+            LocalDate start = LocalDate.of(2024, month, 1);
+            periods.add(period(month + 1, start, start.plusMonths(1).minusDays(1)));
+        }
+        BudgetIntervalTree tree = new BudgetIntervalTree(periods);
+
+        assertEquals(List.of(1, 12), tree.findOverlapping(LocalDate.of(2024, 11, 10), LocalDate.of(2024, 11, 10)));
+        assertTrue(tree.findOverlapping(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)).isEmpty());
+    }
+
+    @Test
+    void emptyTreeFindsNothing() {
+        BudgetIntervalTree tree = new BudgetIntervalTree(List.of());
+
+        assertEquals(0, tree.size());
+        assertTrue(tree.findOverlapping(JAN_1, LocalDate.of(2024, 12, 31)).isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 500})
+    void matchesLinearScan(int size) {
+        Random random = new Random(size);
+        List<BudgetIntervalTree.Period> periods = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            LocalDate start = JAN_1.plusDays(random.nextInt(365));
+            periods.add(period(i + 1, start, start.plusDays(random.nextInt(90))));
+        }
+        BudgetIntervalTree tree = new BudgetIntervalTree(periods);
+
+        for (int query = 0; query < 200; query++) {
+            LocalDate fromDate = JAN_1.plusDays(random.nextInt(400) - 20);
+            LocalDate toDate = fromDate.plusDays(random.nextInt(30));
+            assertEquals(linearScan(periods, fromDate, toDate), tree.findOverlapping(fromDate, toDate));
+        }
+    }
+
+    private List<Integer> linearScan(List<BudgetIntervalTree.Period> periods, LocalDate fromDate, LocalDate toDate) {
+        List<BudgetIntervalTree.Period> sorted = new ArrayList<>(periods);
+        sorted.sort(Comparator.comparing(BudgetIntervalTree.Period::getStartDate));
+        List<Integer> ids = new ArrayList<>();
+        for (BudgetIntervalTree.Period period : sorted) {
+            if (!period.getStartDate().isAfter(toDate) && !period.getEndDate().isBefore(fromDate)) {
+                ids.add(period.getBudgetId());
+            }
+        }
+        return ids;
+    }
+
+    private BudgetIntervalTree.Period period(int budgetId, LocalDate startDate, LocalDate endDate) {
+        return new BudgetIntervalTree.Period(budgetId, startDate, endDate);
+    }
+}
@@ -0,0 +1,158 @@
+package com.spentoo.category.service;
+
+import com.spentoo.category.dto.CategoryImportReportDTO;
+import com.spentoo.category.dto.CategoryImportRowDTO;
+import com.spentoo.category.model.Category;
+import com.spentoo.category.model.CategoryType;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryImportServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private CategoryRepository categoryRepository;
+    private CategoryImportService categoryImportService;
+    private User user;
+    private final List<List<String>> insertedLevels = new ArrayList<>();
+    private final Map<String, Category> insertedByName = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = mock(CategoryRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        user = new User();
+        user.setUserId(1);
+        user.setEmail(EMAIL);
+        when(userRepository.findByEmailIgnoreCase(EMAIL)).thenReturn(Optional.of(user));
+        // Each insert gets fresh IDs, as the database would assign them, and its names are recorded in call order
+        when(categoryRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Category> categories = invocation.getArgument(0);
+            List<String> names = new ArrayList<>();
+            for (Category category : categories) {
+                category.setCategoryId(100 + insertedByName.size());
+                insertedByName.put(category.getCategoryName(), category);
+                names.add(category.getCategoryName());
+            }
+            insertedLevels.add(names);
+            return categories;
+        });
+
+        CategoryClosureService closureService = mock(CategoryClosureService.class);
+        DataVersionService dataVersionService = mock(DataVersionService.class);
+        ChangeLogService changeLogService = mock(ChangeLogService.class);
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        CategoryService categoryService = new CategoryService(categoryRepository, userRepository, dataVersionService,
+                changeLogService, closureService, eventPublisher, new SimpleMeterRegistry());
+        categoryImportService = new CategoryImportService(userRepository, categoryRepository, categoryService,
+                closureService, changeLogService, dataVersionService, eventPublisher);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 20})
+    void parentsAreSavedBeforeChildrenWhateverTheFileOrder(int depth) throws Exception {
+        // A chain listed deepest first: each row names the next one as its parent
+        StringBuilder csv = new StringBuilder();
+        for (int level = depth - 1; level >= 0; level--) {
+            csv.append(row("Level" + level, level == 0 ? "" : "Level" + (level - 1)));
+        }
+
+        CategoryImportReportDTO report = importCsv(csv.toString());
+
+        assertEquals(depth, report.getImportedRows());
+        assertEquals(depth, insertedLevels.size());
+        for (int level = 0; level < depth; level++) {
+            assertEquals(List.of("Level" + level), insertedLevels.get(level));
+            Category parent = insertedByName.get("Level" + level).getParentCategory();
+            if (level == 0) {
+                assertNull(parent);
+            } else {
+                assertSame(insertedByName.get("Level" + (level - 1)), parent);
+            }
+        }
+    }
+
+    @Test
+    void existingParentPutsTheChildOnTheFirstLevel() throws Exception {
+        Category food = new Category();
+        food.setCategoryId(5);
+        food.setCategoryName("Food");
+        food.setType(CategoryType.EXPENSE);
+        food.setUser(user);
+        when(categoryRepository.findAllByUser(user)).thenReturn(List.of(food));
+
+        CategoryImportReportDTO report = importCsv(row("Groceries", "Food") + row("Snacks", "Groceries"));
+
+        assertEquals(2, report.getImportedRows());
+        assertEquals(List.of(List.of("Groceries"), List.of("Snacks")), insertedLevels);
+        assertSame(food, insertedByName.get("Groceries").getParentCategory());
+    }
+
+    @Test
+    void cyclesAreFailedWithoutBlockingOtherRows() throws Exception {
+        CategoryImportReportDTO report = importCsv(row("Alpha", "Beta") + row("Beta", "Gamma") + row("Gamma", "Alpha")
+                + row("Self", "Self") + row("Leaf", "Alpha") + row("Other", ""));
+
+        assertEquals(1, report.getImportedRows());
+        assertEquals(5, report.getFailedRows());
+        for (CategoryImportRowDTO result : report.getRows()) {
+            if (result.getCategoryName().equals("Other")) {
+                assertEquals(CategoryImportRowDTO.Status.IMPORTED, result.getStatus());
+            } else {
+                assertEquals(CategoryImportRowDTO.Status.FAILED, result.getStatus());
+            }
+            if (!result.getCategoryName().equals("Other") && !result.getCategoryName().equals("Leaf")) {
+                assertEquals("Parent categories form a cycle.", result.getMessage());
+            }
+        }
+        assertEquals(List.of(List.of("Other")), insertedLevels);
+    }
+
+    @Test
+    void childrenOfFailedOrMissingParentsAreFailed() throws Exception {
+        CategoryImportReportDTO report = importCsv("Broken,NOT_A_TYPE,\n" + row("Child", "Broken")
+                + row("Grandchild", "Child") + row("Orphan", "Missing"));
+
+        assertEquals(0, report.getImportedRows());
+        assertEquals(4, report.getFailedRows());
+        assertEquals("Invalid category type: NOT_A_TYPE", report.getRows().get(0).getMessage());
+        assertEquals("Parent category 'broken' could not be imported.", report.getRows().get(1).getMessage());
+        assertEquals(CategoryImportRowDTO.Status.FAILED, report.getRows().get(2).getStatus());
+        assertEquals("Parent category 'missing' not found.", report.getRows().get(3).getMessage());
+        assertEquals(List.of(), insertedLevels);
+    }
+
+    private String row(String name, String parent) {
+        return name + ",EXPENSE," + parent + "\n";
+    }
+
+    private CategoryImportReportDTO importCsv(String rows) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "categories.csv", "text/csv",
+                ("Name,Type,Parent\n" + rows).getBytes(StandardCharsets.UTF_8));
+        return categoryImportService.importCategories(file, EMAIL);
+    }
+}
@@ -0,0 +1,159 @@
+package com.spentoo.category.service;
+
+import com.spentoo.budget.repository.BudgetRepository;
+import com.spentoo.budget.repository.BudgetTemplateRepository;
+import com.spentoo.category.dto.CategoryMergeResultDTO;
+import com.spentoo.category.model.Category;
+import com.spentoo.category.model.CategoryType;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.expense.repository.ExpenseRepository;
+import com.spentoo.expense.service.ExpenseRollupService;
+import com.spentoo.income.repository.IncomeRepository;
+import com.spentoo.recurring.repository.RecurringTransactionRepository;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryMergeServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private CategoryRepository categoryRepository;
+    private ExpenseRepository expenseRepository;
+    private ExpenseRollupService rollupService;
+    private CategoryClosureService closureService;
+    private CategoryMergeService categoryMergeService;
+    private User user;
+    private Category source;
+    private Category target;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = mock(CategoryRepository.class);
+        expenseRepository = mock(ExpenseRepository.class);
+        rollupService = mock(ExpenseRollupService.class);
+        closureService = mock(CategoryClosureService.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        user = new User();
+        user.setUserId(1);
+        user.setEmail(EMAIL);
+        when(userRepository.findByEmailIgnoreCase(EMAIL)).thenReturn(Optional.of(user));
+
+        source = category(1, user);
+        target = category(2, user);
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(source));
+        when(categoryRepository.findById(2)).thenReturn(Optional.of(target));
+
+        categoryMergeService = new CategoryMergeService(categoryRepository, userRepository, expenseRepository,
+                mock(IncomeRepository.class), mock(BudgetRepository.class), mock(BudgetTemplateRepository.class),
+                mock(RecurringTransactionRepository.class), rollupService, mock(CategoryService.class), closureService,
+                mock(ChangeLogService.class), mock(DataVersionService.class), mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void mergeMovesRowsAndDeactivatesTheSource() {
+        when(expenseRepository.reassignCategory(source, target)).thenReturn(3);
+
+        CategoryMergeResultDTO result = categoryMergeService.mergeCategory(1, 2, EMAIL);
+
+        assertEquals(3, result.getExpensesMoved());
+        assertFalse(source.isActive());
+        verify(rollupService).mergeCategory(user, source, target);
+        verify(categoryRepository).save(source);
+    }
+
+    @Test
+    void rollupIsLeftAloneWhenNoExpensesMoved() {
+        categoryMergeService.mergeCategory(1, 2, EMAIL);
+
+        verify(rollupService, never()).mergeCategory(any(), any(), any());
+    }
+
+    @Test
+    void categoryCannotBeMergedIntoItself() {
+        assertRejected(1, 1, "A category cannot be merged into itself.");
+    }
+
+    @Test
+    void categoriesOfOtherUsersAreNotFound() {
+        User other = new User();
+        other.setUserId(2);
+        target.setUser(other);
+
+        assertRejected(1, 2, "Target category not found or access denied.");
+    }
+
+    @Test
+    void systemGeneratedCategoriesAreRejected() {
+        target.setSystemGenerated(true);
+
+        assertRejected(1, 2, "System-generated categories cannot be merged.");
+    }
+
+    @Test
+    void defaultSourceIsRejected() {
+        source.setDefault(true);
+
+        assertRejected(1, 2, "Default categories cannot be merged into another category.");
+    }
+
+    @Test
+    void inactiveTargetIsRejected() {
+        target.setActive(false);
+
+        assertRejected(1, 2, "Cannot merge into an inactive category.");
+    }
+
+    @Test
+    void typeMismatchIsRejected() {
+        target.setType(CategoryType.INCOME);
+
+        assertRejected(1, 2, "Only categories of the same type can be merged.");
+    }
+
+    @Test
+    void budgetableSourceCannotMoveIntoNonBudgetableTarget() {
+        target.setBudgetable(false);
+
+        assertRejected(1, 2, "Cannot merge a budgetable category into a non-budgetable category.");
+    }
+
+    @Test
+    void sourceWithActiveSubCategoriesIsRejected() {
+        when(closureService.hasActiveDescendant(source)).thenReturn(true);
+
+        assertRejected(1, 2, "Cannot merge a category with active sub-categories.");
+    }
+
+    private void assertRejected(Integer sourceId, Integer targetId, String message) {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> categoryMergeService.mergeCategory(sourceId, targetId, EMAIL));
+        assertEquals(message, e.getMessage());
+        verify(expenseRepository, never()).reassignCategory(any(), any());
+        verify(categoryRepository, never()).save(any());
+    }
+
+    private Category category(int id, User owner) {
+        Category category = new Category();
+        category.setCategoryId(id);
+        category.setCategoryName("Category " + id);
+        category.setType(CategoryType.EXPENSE);
+        category.setUser(owner);
+        return category;
+    }
+}
@@ -0,0 +1,112 @@
+package com.spentoo.category.service;
+
+import com.spentoo.category.dto.CategoryDTO;
+import com.spentoo.category.model.Category;
+import com.spentoo.category.model.CategoryType;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.sync.service.ChangeLogService;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class CategoryServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private CategoryRepository categoryRepository;
+    private CategoryService categoryService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = mock(CategoryRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        user = new User();
+        user.setUserId(1);
+        user.setEmail(EMAIL);
+        when(userRepository.findByEmailIgnoreCase(EMAIL)).thenReturn(Optional.of(user));
+        categoryService = new CategoryService(categoryRepository, userRepository, mock(DataVersionService.class),
+                mock(ChangeLogService.class), mock(CategoryClosureService.class), mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 500})
+    void deepTreeIsAssembledFromOneQuery(int size) {
+        // A single chain: each category is the parent of the next
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            categories.add(spy(category(i + 1, i == 0 ? null : categories.get(i - 1))));
+        }
+        when(categoryRepository.findAllByUser(user)).thenReturn(categories);
+
+        List<CategoryDTO> roots = categoryService.getAllCategories(EMAIL, true);
+
+        assertEquals(1, roots.size());
+        CategoryDTO node = roots.get(0);
+        int depth = 1;
+        while (!node.getSubCategories().isEmpty()) {
+            node = node.getSubCategories().get(0);
+            depth++;
+        }
+        assertEquals(size, depth);
+        assertQueriedOnce(categories);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 500})
+    void wideTreeIsAssembledFromOneQuery(int children) {
+        Category root = spy(category(1, null));
+        List<Category> categories = new ArrayList<>(List.of(root));
+        for (int i = 0; i < children; i++) {
+            categories.add(spy(category(i + 2, root)));
+        }
+        when(categoryRepository.findAllByUser(user)).thenReturn(categories);
+
+        List<CategoryDTO> roots = categoryService.getAllCategories(EMAIL, true);
+        List<CategoryDTO> flat = categoryService.getAllCategories(EMAIL, false);
+
+        assertEquals(1, roots.size());
+        assertEquals(children, roots.get(0).getSubCategories().size());
+        assertEquals(children + 1, flat.size());
+        flat.forEach(dto -> assertNull(dto.getSubCategories()));
+        assertQueriedOnce(categories); // The second listing comes from the cache
+    }
+
+    private void assertQueriedOnce(List<Category> categories) {
+        verify(categoryRepository, times(1)).findAllByUser(user);
+        verifyNoMoreInteractions(categoryRepository);
+        for (Category category : categories) {
+            verify(category, never()).getSubCategories();
+        }
+    }
+
+    private Category category(int id, Category parent) {
+        Category category = new Category();
+        category.setCategoryId(id);
+        category.setCategoryName("Category " + id);
+        category.setType(CategoryType.EXPENSE);
+        category.setUser(user);
+        category.setParentCategory(parent);
+        return category;
+    }
+}
@@ -0,0 +1,42 @@
+package com.spentoo.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        String token = new KeysetCursor(LocalDate.of(2024, 2, 29), 42).encode();
+
+        KeysetCursor cursor = KeysetCursor.decode(" " + token + " ");
+
+        assertEquals(LocalDate.of(2024, 2, 29), cursor.getTransactionDate());
+        assertEquals(42, cursor.getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "***", "not a token"})
+    void tokensThatAreNotBase64AreRejected(String token) {
+        assertInvalid(token);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "2024-01-01", "|42", "2024-01-01|", "2024-13-01|42", "2024-01-01|abc", "2024-01-01|4|2"})
+    void malformedPayloadsAreRejected(String payload) {
+        assertInvalid(Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void assertInvalid(String token) {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> KeysetCursor.decode(token));
+        assertEquals("Invalid cursor.", e.getMessage());
+    }
+}
@@ -0,0 +1,77 @@
+package com.spentoo.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 1);
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+    }
+
+    @Test
+    void exactBeatsPrefixBeatsInfix() {
+        index.put(1, "Walmart groceries", DATE);
+        index.put(2, "Mart supplies", DATE);
+        index.put(3, "Martin's cafe", DATE);
+
+        SearchIndex.Hits hits = index.search("mart", 0, 10);
+
+        assertEquals(3, hits.getTotal());
+        assertEquals(List.of(2, 3, 1), hits.getIds());
+    }
+
+    @Test
+    void termsShorterThanATrigramMatchPrefixesOnly() {
+        index.put(1, "Walmart groceries", DATE);
+        index.put(2, "Mart supplies", DATE);
+
+        assertEquals(List.of(2), index.search("ma", 0, 10).getIds());
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        index.put(1, "Coffee beans", DATE);
+        index.put(2, "Coffee shop", DATE);
+
+        assertEquals(List.of(2), index.search("coffee SHOP", 0, 10).getIds());
+        assertTrue(index.search("coffee tea", 0, 10).getIds().isEmpty());
+    }
+
+    @Test
+    void tiesAreRankedNewestFirstThenByHighestId() {
+        index.put(10, "Coffee", LocalDate.of(2024, 1, 1));
+        index.put(11, "Coffee", LocalDate.of(2024, 2, 1));
+        index.put(12, "Coffee", LocalDate.of(2024, 2, 1));
+        index.put(13, "Coffee", null);
+
+        assertEquals(List.of(12, 11, 10, 13), index.search("coffee", 0, 10).getIds());
+
+        SearchIndex.Hits page = index.search("coffee", 1, 2);
+        assertEquals(4, page.getTotal());
+        assertEquals(List.of(11, 10), page.getIds());
+    }
+
+    @Test
+    void replacedAndRemovedDocumentsAreNoLongerFound() {
+        index.put(1, "Walmart", DATE);
+        index.put(1, "Target", DATE);
+        index.put(2, "Walmart", DATE);
+        index.remove(2);
+
+        assertTrue(index.search("mart", 0, 10).getIds().isEmpty());
+        assertEquals(List.of(1), index.search("target", 0, 10).getIds());
+        assertEquals(1, index.size());
+    }
+}
@@ -0,0 +1,173 @@
+package com.spentoo.statement.service;
+
+import com.spentoo.category.model.Category;
+import com.spentoo.category.model.CategoryType;
+import com.spentoo.category.repository.CategoryRepository;
+import com.spentoo.expense.model.Expense;
+import com.spentoo.expense.repository.ExpenseRepository;
+import com.spentoo.income.repository.IncomeRepository;
+import com.spentoo.payment.model.PaymentMethod;
+import com.spentoo.payment.repository.PaymentMethodRepository;
+import com.spentoo.statement.dto.StatementColumnMappingDTO;
+import com.spentoo.statement.dto.StatementImportReportDTO;
+import com.spentoo.sync.service.DataVersionService;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatementImportServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 5);
+
+    private ExpenseRepository expenseRepository;
+    private IncomeRepository incomeRepository;
+    private StatementImportService statementImportService;
+    private User user;
+    private final AtomicInteger nextExpenseId = new AtomicInteger(1000);
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUserId(1);
+        user.setEmail(EMAIL);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmailIgnoreCase(EMAIL)).thenReturn(Optional.of(user));
+
+        Category food = new Category();
+        food.setCategoryId(10);
+        food.setCategoryName("Food");
+        food.setType(CategoryType.EXPENSE);
+        food.setUser(user);
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        when(categoryRepository.findAllByUserAndIsActiveTrue(user)).thenReturn(List.of(food));
+
+        PaymentMethod cash = new PaymentMethod();
+        cash.setMethodId(20);
+        cash.setName("Cash");
+        cash.setUser(user);
+        PaymentMethodRepository paymentMethodRepository = mock(PaymentMethodRepository.class);
+        when(paymentMethodRepository.findAllByUserAndIsActiveTrue(user)).thenReturn(List.of(cash));
+
+        expenseRepository = mock(ExpenseRepository.class);
+        incomeRepository = mock(IncomeRepository.class);
+        // Inserted expenses get fresh IDs, as the database would assign them
+        when(expenseRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Expense> expenses = invocation.getArgument(0);
+            expenses.forEach(expense -> expense.setExpenseId(nextExpenseId.incrementAndGet()));
+            return expenses;
+        });
+
+        statementImportService = new StatementImportService(userRepository, categoryRepository, paymentMethodRepository,
+                expenseRepository, incomeRepository, mock(ApplicationEventPublisher.class),
+                mock(PlatformTransactionManager.class), mock(DataVersionService.class));
+        ReflectionTestUtils.setField(statementImportService, "entityManager", mock(EntityManager.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3})
+    void onlyAsManyCopiesAsAlreadyStoredAreSkipped(int storedCopies) throws Exception {
+        storeExpenses(storedCopies, 42);
+
+        StatementImportReportDTO report = importRows(3, "Coffee");
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(Math.min(storedCopies, 3), report.getSkippedDuplicates());
+        assertEquals(3 - Math.min(storedCopies, 3), report.getImportedExpenses());
+    }
+
+    @Test
+    void duplicatesAreCountedAcrossChunks() throws Exception {
+        storeExpenses(2, 42);
+
+        // Two chunks of identical rows; the second must not treat the first chunk's inserts as pre-existing
+        StatementImportReportDTO report = importRows(700, "Coffee");
+
+        assertEquals(700, report.getTotalRows());
+        assertEquals(2, report.getSkippedDuplicates());
+        assertEquals(698, report.getImportedExpenses());
+        verify(expenseRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    void storedRowsAreReadOnlyUpToTheIdsThatExistedBeforeTheImport() throws Exception {
+        storeExpenses(1, 42);
+        when(incomeRepository.findMaxIdByUser(user)).thenReturn(7);
+
+        importRows(700, "Coffee");
+
+        // Both chunks use the cutoff taken at the start, even though the first chunk inserted higher IDs
+        verify(expenseRepository, times(2)).findContentByUserAndTransactionDateBetween(user, DATE, DATE, 42);
+        verify(incomeRepository, times(2)).findContentByUserAndTransactionDateBetween(user, DATE, DATE, 7);
+    }
+
+    @Test
+    void userWithoutRecordsUsesZeroAsCutoff() throws Exception {
+        StatementImportReportDTO report = importRows(1, "Coffee");
+
+        assertEquals(1, report.getImportedExpenses());
+        verify(expenseRepository).findContentByUserAndTransactionDateBetween(eq(user), any(), any(), eq(0));
+        verify(incomeRepository).findContentByUserAndTransactionDateBetween(eq(user), any(), any(), eq(0));
+    }
+
+    @Test
+    void descriptionsMatchIgnoringCaseAndWhitespace() throws Exception {
+        storeExpenses(1, 42);
+
+        StatementImportReportDTO report = importRows(1, "  COFFEE ");
+
+        assertEquals(1, report.getSkippedDuplicates());
+        assertEquals(0, report.getImportedExpenses());
+    }
+
+    // Stores the given number of "Coffee" expenses on DATE, all with IDs up to maxId
+    private void storeExpenses(int copies, int maxId) {
+        List<Object[]> stored = new ArrayList<>();
+        for (int i = 0; i < copies; i++) {
+            stored.add(new Object[]{DATE, new BigDecimal("12.50"), "Coffee"});
+        }
+        when(expenseRepository.findMaxIdByUser(user)).thenReturn(maxId);
+        when(expenseRepository.findContentByUserAndTransactionDateBetween(user, DATE, DATE, maxId)).thenReturn(stored);
+    }
+
+    private StatementImportReportDTO importRows(int rows, String description) throws Exception {
+        StringBuilder csv = new StringBuilder("Date,Amount,Description,Category\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(DATE).append(",-12.50,").append(description).append(",Food\n");
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv",
+                csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        StatementColumnMappingDTO mapping = new StatementColumnMappingDTO();
+        mapping.setDateColumn("Date");
+        mapping.setAmountColumn("Amount");
+        mapping.setDescriptionColumn("Description");
+        mapping.setCategoryColumn("Category");
+        return statementImportService.importStatement(file, mapping, EMAIL);
+    }
+}
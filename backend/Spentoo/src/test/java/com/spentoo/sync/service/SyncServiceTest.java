@@ -0,0 +1,143 @@
+package com.spentoo.sync.service;
+
+import com.spentoo.budget.service.BudgetService;
+import com.spentoo.category.service.CategoryService;
+import com.spentoo.expense.service.ExpenseService;
+import com.spentoo.income.service.IncomeService;
+import com.spentoo.payment.service.PaymentMethodService;
+import com.spentoo.sync.dto.SyncResponseDTO;
+import com.spentoo.sync.model.ChangeEntityType;
+import com.spentoo.sync.model.ChangeLog;
+import com.spentoo.sync.model.ChangeOperation;
+import com.spentoo.sync.repository.ChangeLogRepository;
+import com.spentoo.user.model.User;
+import com.spentoo.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InOrder;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SyncServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final long WATERMARK = 5_000;
+
+    private ChangeLogRepository changeLogRepository;
+    private ExpenseService expenseService;
+    private SyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        changeLogRepository = mock(ChangeLogRepository.class);
+        expenseService = mock(ExpenseService.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        User user = new User();
+        user.setUserId(1);
+        user.setEmail(EMAIL);
+        when(userRepository.findByEmailIgnoreCase(EMAIL)).thenReturn(Optional.of(user));
+        when(changeLogRepository.findMinActiveRowVersion()).thenReturn(WATERMARK);
+
+        syncService = new SyncService(changeLogRepository, userRepository, expenseService, mock(IncomeService.class),
+                mock(BudgetService.class), mock(CategoryService.class), mock(PaymentMethodService.class));
+    }
+
+    @Test
+    void snapshotTokenIsTheLastCommittedVersion() {
+        SyncResponseDTO response = syncService.getChangesSince(EMAIL, null);
+
+        assertTrue(response.isSnapshot());
+        assertEquals(Long.toString(WATERMARK - 1), response.getNextToken());
+        // The watermark is read before any data, so nothing committed during the snapshot is skipped
+        InOrder order = inOrder(changeLogRepository, expenseService);
+        order.verify(changeLogRepository).findMinActiveRowVersion();
+        order.verify(expenseService).listExpenses(EMAIL);
+    }
+
+    @Test
+    void changesAreReadOnlyBelowTheWatermark() {
+        when(changeLogRepository.findChangesBetween(1, 100, WATERMARK, 1000))
+                .thenReturn(List.of(change(3, ChangeOperation.CREATED, 150), change(4, ChangeOperation.DELETED, 170)));
+
+        SyncResponseDTO response = syncService.getChangesSince(EMAIL, "100");
+
+        assertFalse(response.isSnapshot());
+        assertEquals("170", response.getNextToken()); // The last row version returned, not the watermark
+        assertFalse(response.isHasMore());
+        assertEquals(1, response.getDeleted().size());
+        assertEquals(4, response.getDeleted().get(0).getEntityId());
+        verify(expenseService).getExpensesByIds(any(User.class), eq(List.of(3)));
+    }
+
+    @Test
+    void tokenStaysPutWhenNothingCommittedSince() {
+        SyncResponseDTO response = syncService.getChangesSince(EMAIL, "4999");
+
+        assertEquals("4999", response.getNextToken());
+        assertFalse(response.isHasMore());
+    }
+
+    @Test
+    void onlyTheLatestChangePerRecordIsReturned() {
+        when(changeLogRepository.findChangesBetween(1, 0, WATERMARK, 1000))
+                .thenReturn(List.of(change(3, ChangeOperation.CREATED, 10), change(3, ChangeOperation.DELETED, 20)));
+
+        SyncResponseDTO response = syncService.getChangesSince(EMAIL, "0");
+
+        assertEquals(1, response.getDeleted().size());
+        verify(expenseService).getExpensesByIds(any(User.class), eq(List.of()));
+    }
+
+    @Test
+    void fullPageReportsMoreChanges() {
+        List<ChangeLog> changes = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            changes.add(change(i, ChangeOperation.UPDATED, 200 + i));
+        }
+        when(changeLogRepository.findChangesBetween(1, 200, WATERMARK, 1000)).thenReturn(changes);
+
+        SyncResponseDTO response = syncService.getChangesSince(EMAIL, "200");
+
+        assertTrue(response.isHasMore());
+        assertEquals("1200", response.getNextToken());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"abc", "-1", "1.5", "99999999999999999999"})
+    void invalidTokensAreRejected(String token) {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> syncService.getChangesSince(EMAIL, token));
+        assertEquals("Invalid sync token.", e.getMessage());
+        verify(changeLogRepository, never()).findChangesBetween(anyInt(), anyLong(), anyLong(), anyInt());
+    }
+
+    private ChangeLog change(int expenseId, ChangeOperation operation, long rowVersion) {
+        ChangeLog change = new ChangeLog();
+        change.setEntityType(ChangeEntityType.EXPENSE);
+        change.setEntityId(expenseId);
+        change.setOperation(operation);
+        change.setRowVersion(ByteBuffer.allocate(Long.BYTES).putLong(rowVersion).array());
+        change.setChangedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return change;
+    }
+}